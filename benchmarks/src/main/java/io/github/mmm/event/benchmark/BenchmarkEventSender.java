@@ -0,0 +1,22 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.benchmark;
+
+import io.github.mmm.event.AbstractEventSender;
+import io.github.mmm.event.EventListener;
+
+/**
+ * Simple {@link AbstractEventSender} that makes {@link #fireEvent(Object)} accessible for benchmarks.
+ */
+public class BenchmarkEventSender extends AbstractEventSender<Object, EventListener<Object>> {
+
+  /**
+   * @param event the event to send.
+   * @return {@code true} if the event has been dispatched, {@code false} otherwise.
+   */
+  public boolean send(Object event) {
+
+    return fireEvent(event);
+  }
+
+}
@@ -0,0 +1,107 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.mmm.event.EventBus;
+import io.github.mmm.event.EventListener;
+import io.github.mmm.event.impl.EventBusImpl;
+
+/**
+ * Benchmarks for {@link EventBusImpl#sendEvent(Object)} with a deep event class hierarchy (see
+ * {@link HierarchyEvents}). The listeners are distributed round-robin over all levels of the hierarchy so every event
+ * of the most specific type reaches all of them.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventBusBenchmark {
+
+  /** The number of registered listeners. */
+  @Param({ "1", "10", "1000" })
+  public int listenerCount;
+
+  private final Object leafEvent = new HierarchyEvents.Level5();
+
+  private final Object rootEvent = new HierarchyEvents.Level0();
+
+  private final Object undispatchedEvent = "undispatched";
+
+  private EventBus eventBus;
+
+  /**
+   * Creates the {@link EventBus} and registers the listeners.
+   *
+   * @param blackhole the {@link Blackhole} consuming the events.
+   */
+  @Setup
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  public void setup(Blackhole blackhole) {
+
+    this.eventBus = new EventBusImpl();
+    Class[] levels = HierarchyEvents.LEVELS;
+    for (int i = 0; i < this.listenerCount; i++) {
+      EventListener<Object> listener = e -> blackhole.consume(e);
+      this.eventBus.addListener(levels[i % levels.length], listener);
+    }
+  }
+
+  /**
+   * Sends an event of the most specific type from a single producer.
+   */
+  @Benchmark
+  @Threads(1)
+  public void sendLeafSingleProducer() {
+
+    this.eventBus.sendEvent(this.leafEvent);
+  }
+
+  /**
+   * Sends an event of the most specific type from multiple concurrent producers.
+   */
+  @Benchmark
+  @Threads(4)
+  public void sendLeafMultiProducer() {
+
+    this.eventBus.sendEvent(this.leafEvent);
+  }
+
+  /**
+   * Sends an event of the root type of the hierarchy from a single producer.
+   */
+  @Benchmark
+  @Threads(1)
+  public void sendRootSingleProducer() {
+
+    this.eventBus.sendEvent(this.rootEvent);
+  }
+
+  /**
+   * Sends an event no listener is registered for from a single producer.
+   */
+  @Benchmark
+  @Threads(1)
+  public void sendUndispatchedSingleProducer() {
+
+    this.eventBus.sendEvent(this.undispatchedEvent);
+  }
+
+}
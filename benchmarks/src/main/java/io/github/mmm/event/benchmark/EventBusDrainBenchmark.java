@@ -0,0 +1,115 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.mmm.event.AbstractEventBus;
+import io.github.mmm.event.EventListener;
+import io.github.mmm.event.impl.EventBusImpl;
+import io.github.mmm.event.impl.RingBufferEventBus;
+import io.github.mmm.event.impl.RingBufferEventBus.WaitStrategy;
+
+/**
+ * Compares the throughput of the work-passing drain protocol of {@link EventBusImpl} with the former flag based
+ * {@link LegacyEventBus} and the allocation-free {@link RingBufferEventBus} under contention of 1 to 64 producer
+ * threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventBusDrainBenchmark {
+
+  /** The implementation to benchmark. */
+  @Param({ "drain", "legacy", "ring" })
+  public String implementation;
+
+  private final Object event = new Object();
+
+  private AbstractEventBus eventBus;
+
+  /**
+   * Creates the {@link AbstractEventBus} and registers a listener.
+   *
+   * @param blackhole the {@link Blackhole} consuming the events.
+   */
+  @Setup
+  public void setup(Blackhole blackhole) {
+
+    if ("legacy".equals(this.implementation)) {
+      this.eventBus = new LegacyEventBus();
+    } else if ("ring".equals(this.implementation)) {
+      this.eventBus = new RingBufferEventBus(RingBufferEventBus.DEFAULT_CAPACITY, WaitStrategy.YIELDING).start();
+    } else {
+      this.eventBus = new EventBusImpl();
+    }
+    EventListener<Object> listener = e -> blackhole.consume(e);
+    this.eventBus.addListener(Object.class, listener);
+  }
+
+  /**
+   * Stops the consumer thread of the {@link RingBufferEventBus}.
+   */
+  @TearDown
+  public void tearDown() {
+
+    if (this.eventBus instanceof AutoCloseable closeable) {
+      try {
+        closeable.close();
+      } catch (Exception e) {
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
+  /** Sends an event from 1 producer thread. */
+  @Benchmark
+  @Threads(1)
+  public void send01() {
+
+    this.eventBus.sendEvent(this.event);
+  }
+
+  /** Sends an event from 4 concurrent producer threads. */
+  @Benchmark
+  @Threads(4)
+  public void send04() {
+
+    this.eventBus.sendEvent(this.event);
+  }
+
+  /** Sends an event from 16 concurrent producer threads. */
+  @Benchmark
+  @Threads(16)
+  public void send16() {
+
+    this.eventBus.sendEvent(this.event);
+  }
+
+  /** Sends an event from 64 concurrent producer threads. */
+  @Benchmark
+  @Threads(64)
+  public void send64() {
+
+    this.eventBus.sendEvent(this.event);
+  }
+
+}
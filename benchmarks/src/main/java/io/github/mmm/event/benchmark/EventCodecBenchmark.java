@@ -0,0 +1,112 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.mmm.event.codec.EventCodecRegistry;
+import io.github.mmm.event.codec.RecordEventCodec;
+
+/**
+ * Benchmarks encoding and decoding a {@link Record} event with {@link RecordEventCodec} (via
+ * {@link EventCodecRegistry}) into heap and direct {@link ByteBuffer}s compared to Java serialization with
+ * {@link ObjectOutputStream}.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventCodecBenchmark {
+
+  private final PriceEvent event = new PriceEvent("ACME", 1700000000000L, 101.25, 500);
+
+  private EventCodecRegistry registry;
+
+  private ByteBuffer heapBuffer;
+
+  private ByteBuffer directBuffer;
+
+  /**
+   * Creates the codec and buffers.
+   */
+  @Setup
+  public void setup() {
+
+    this.registry = new EventCodecRegistry().register(PriceEvent.class, 1, 0, RecordEventCodec.of(PriceEvent.class));
+    this.heapBuffer = ByteBuffer.allocate(1024);
+    this.directBuffer = ByteBuffer.allocateDirect(1024);
+  }
+
+  /**
+   * @return the decoded event after encoding it into a heap {@link ByteBuffer}.
+   */
+  @Benchmark
+  public Object codecHeap() {
+
+    return roundTrip(this.heapBuffer);
+  }
+
+  /**
+   * @return the decoded event after encoding it into a direct {@link ByteBuffer}.
+   */
+  @Benchmark
+  public Object codecDirect() {
+
+    return roundTrip(this.directBuffer);
+  }
+
+  private Object roundTrip(ByteBuffer buffer) {
+
+    buffer.clear();
+    this.registry.encode(this.event, buffer);
+    buffer.flip();
+    return this.registry.decode(buffer);
+  }
+
+  /**
+   * @return the decoded event after serializing it with {@link ObjectOutputStream}.
+   * @throws Exception on error.
+   */
+  @Benchmark
+  public Object objectStream() throws Exception {
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(this.event);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      return in.readObject();
+    }
+  }
+
+  /**
+   * Simple event as {@link Record}.
+   *
+   * @param symbol the symbol of the instrument.
+   * @param timestamp the timestamp in milliseconds.
+   * @param price the price.
+   * @param quantity the quantity.
+   */
+  public record PriceEvent(String symbol, long timestamp, double price, int quantity) implements Serializable {
+  }
+
+}
@@ -0,0 +1,149 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.mmm.event.EventListener;
+import io.github.mmm.event.EventSourceAdapter;
+
+/**
+ * Benchmarks for {@link EventSourceAdapter} covering the {@code Empty}, {@code Single} and {@code Multi} states,
+ * listener registration churn and dispatch to {@link io.github.mmm.event.impl.WeakEventListener weak} listeners.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EventSourceAdapterBenchmark {
+
+  /** The number of listeners registered for the {@code Multi} state. */
+  @Param({ "2", "10" })
+  public int listenerCount;
+
+  private final Object event = new Object();
+
+  private final Supplier<Object> eventSupplier = Object::new;
+
+  private EventSourceAdapter<Object, EventListener<Object>> empty;
+
+  private EventSourceAdapter<Object, EventListener<Object>> single;
+
+  private EventSourceAdapter<Object, EventListener<Object>> multi;
+
+  private EventListener<Object> churnListener;
+
+  private BenchmarkEventSender weakSender;
+
+  // strong references to keep the weak listeners alive
+  private EventListener<Object>[] weakListeners;
+
+  /**
+   * Creates the adapters and listeners.
+   *
+   * @param blackhole the {@link Blackhole} consuming the events.
+   */
+  @Setup
+  @SuppressWarnings("unchecked")
+  public void setup(Blackhole blackhole) {
+
+    this.empty = EventSourceAdapter.empty();
+    this.single = this.empty.addListener(e -> blackhole.consume(e));
+    this.multi = this.empty;
+    for (int i = 0; i < this.listenerCount; i++) {
+      this.multi = this.multi.addListener(e -> blackhole.consume(e));
+    }
+    this.churnListener = e -> blackhole.consume(e);
+    this.weakSender = new BenchmarkEventSender();
+    this.weakListeners = new EventListener[this.listenerCount];
+    for (int i = 0; i < this.listenerCount; i++) {
+      this.weakListeners[i] = e -> blackhole.consume(e);
+      this.weakSender.addWeakListener(this.weakListeners[i]);
+    }
+  }
+
+  /**
+   * @return the result of firing an event without listeners.
+   */
+  @Benchmark
+  public boolean fireEmpty() {
+
+    return this.empty.fireEvent(this.event);
+  }
+
+  /**
+   * @return the result of firing an event lazily without listeners. Run with {@code -prof gc} to verify that nothing
+   *         is allocated.
+   */
+  @Benchmark
+  public boolean fireEmptySupplier() {
+
+    return this.empty.fireEventLazy(this.eventSupplier);
+  }
+
+  /**
+   * @return the result of firing an event to a single listener.
+   */
+  @Benchmark
+  public boolean fireSingle() {
+
+    return this.single.fireEvent(this.event);
+  }
+
+  /**
+   * @return the result of firing an event to {@link #listenerCount} listeners.
+   */
+  @Benchmark
+  public boolean fireMulti() {
+
+    return this.multi.fireEvent(this.event);
+  }
+
+  /**
+   * @return the result of firing an event to {@link #listenerCount} weak listeners.
+   */
+  @Benchmark
+  public boolean fireWeak() {
+
+    return this.weakSender.send(this.event);
+  }
+
+  /**
+   * @return the adapter after adding and removing a listener to the {@code Multi} adapter.
+   */
+  @Benchmark
+  public EventSourceAdapter<Object, EventListener<Object>> churnMulti() {
+
+    this.multi = this.multi.addListener(this.churnListener);
+    this.multi = this.multi.removeListener(this.churnListener);
+    return this.multi;
+  }
+
+  /**
+   * @return the adapter after adding and removing a listener to the {@code Empty} adapter (allocating a
+   *         {@code Single}).
+   */
+  @Benchmark
+  public EventSourceAdapter<Object, EventListener<Object>> churnEmpty() {
+
+    EventSourceAdapter<Object, EventListener<Object>> adapter = this.empty.addListener(this.churnListener);
+    return adapter.removeListener(this.churnListener);
+  }
+
+}
@@ -0,0 +1,42 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.benchmark;
+
+/**
+ * Container for a deep event class hierarchy (six levels below {@link Object}) used to measure polymorphic dispatch.
+ */
+public final class HierarchyEvents {
+
+  /** The event types from most generic to most specific. */
+  public static final Class<?>[] LEVELS = { Level0.class, Level1.class, Level2.class, Level3.class, Level4.class,
+  Level5.class };
+
+  private HierarchyEvents() {
+
+  }
+
+  /** Root of the event hierarchy. */
+  public static class Level0 {
+  }
+
+  /** Level 1 of the event hierarchy. */
+  public static class Level1 extends Level0 {
+  }
+
+  /** Level 2 of the event hierarchy. */
+  public static class Level2 extends Level1 {
+  }
+
+  /** Level 3 of the event hierarchy. */
+  public static class Level3 extends Level2 {
+  }
+
+  /** Level 4 of the event hierarchy. */
+  public static class Level4 extends Level3 {
+  }
+
+  /** Level 5 and most specific type of the event hierarchy. */
+  public static class Level5 extends Level4 {
+  }
+
+}
@@ -0,0 +1,26 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.benchmark;
+
+import io.github.mmm.event.AbstractEventBus;
+
+/**
+ * Copy of the former {@link io.github.mmm.event.impl.EventBusImpl} drain logic using a plain {@code volatile} flag.
+ * Only used as baseline for {@link EventBusDrainBenchmark}. It is not correct: two threads may drain concurrently
+ * and events may get stranded in the queue.
+ */
+public class LegacyEventBus extends AbstractEventBus {
+
+  private volatile boolean dispatching;
+
+  @Override
+  protected void triggerDispatchEvents() {
+
+    if (!this.dispatching) {
+      this.dispatching = true;
+      dispatchEvents();
+      this.dispatching = false;
+    }
+  }
+
+}
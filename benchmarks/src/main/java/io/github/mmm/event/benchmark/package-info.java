@@ -0,0 +1,7 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+/**
+ * Contains <a href="https://github.com/openjdk/jmh">JMH</a> benchmarks for the event infrastructure. Build with
+ * {@code mvn install} and run via {@code java -jar benchmarks/target/benchmarks.jar -prof gc}.
+ */
+package io.github.mmm.event.benchmark;
@@ -0,0 +1,249 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.Supplier;
+
+import io.github.mmm.base.exception.ReadOnlyException;
+import io.github.mmm.event.impl.WeakEventListener;
+import io.github.mmm.event.metrics.EventMetrics;
+import io.github.mmm.event.metrics.EventMetricsAccess;
+
+/**
+ * Thread-safe implementation of {@link EventSource}. Unlike {@link AbstractEventSender} it can be used concurrently
+ * from multiple threads: The {@link EventListener}s are stored in an immutable array that is replaced on every
+ * {@link #addListener(EventListener) add} or {@link #removeListener(EventListener) remove} via compare-and-set
+ * (copy-on-write). Therefore {@link #fireEvent(Object)} is wait-free and does not allocate anything while
+ * registrations from other threads never block the dispatching of events.<br>
+ * This is optimized for the typical case that events are fired a lot more often than listeners are registered or
+ * removed.
+ *
+ * @param <E> the type of the events to {@link EventListener#onEvent(Object) send}.
+ * @param <L> the type of the {@link EventListener listeners}.
+ */
+public abstract class AbstractConcurrentEventSender<E, L extends EventListener<?/* super E */> >
+    extends AbstractEventSource<E, L> {
+
+  private static final EventListener<?>[] NO_LISTENERS = new EventListener<?>[0];
+
+  private static final EventListener<?>[] READ_ONLY = new EventListener<?>[0];
+
+  private static final VarHandle LISTENERS;
+
+  static {
+    try {
+      LISTENERS = MethodHandles.lookup().findVarHandle(AbstractConcurrentEventSender.class, "listeners",
+          EventListener[].class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private volatile EventListener<? super E>[] listeners;
+
+  /**
+   * The constructor.
+   */
+  @SuppressWarnings("unchecked")
+  public AbstractConcurrentEventSender() {
+
+    super();
+    this.listeners = (EventListener<? super E>[]) NO_LISTENERS;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  protected void doAddListener(EventListener<E> listener) {
+
+    while (true) {
+      EventListener<? super E>[] oldListeners = this.listeners;
+      if (oldListeners == READ_ONLY) {
+        throw new ReadOnlyException(getClass());
+      }
+      int oldCount = oldListeners.length;
+      EventListener<? super E>[] newListeners = new EventListener[oldCount + 1];
+      // drop garbage collected weak listeners while we are copying anyway
+      int newCount = 0;
+      for (int i = 0; i < oldCount; i++) {
+        EventListener<? super E> oldListener = oldListeners[i];
+        if (!(oldListener instanceof WeakEventListener<?> weak) || !weak.wasGarbageCollected()) {
+          newListeners[newCount++] = oldListener;
+        }
+      }
+      newListeners[newCount++] = listener;
+      if (newCount < newListeners.length) {
+        EventListener<? super E>[] trimmed = new EventListener[newCount];
+        System.arraycopy(newListeners, 0, trimmed, 0, newCount);
+        newListeners = trimmed;
+      }
+      if (LISTENERS.compareAndSet(this, oldListeners, newListeners)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Creates a {@link WeakEventListener} that is removed from a background {@link Thread} after being garbage collected
+   * as this event sender is thread-safe.
+   */
+  @Override
+  protected EventListener<E> createWeakListener(EventListener<E> listener) {
+
+    if (listener instanceof WeakEventListener) {
+      return listener;
+    }
+    return new WeakEventListener<>(this, listener, true);
+  }
+
+  @Override
+  public boolean removeListener(L listener) {
+
+    return removeListener(listener, false);
+  }
+
+  @Override
+  protected boolean doRemoveListener(EventListener<E> listener) {
+
+    return removeListener(listener, true);
+  }
+
+  @SuppressWarnings("unchecked")
+  private boolean removeListener(EventListener<?> eventListener, boolean identity) {
+
+    while (true) {
+      EventListener<? super E>[] oldListeners = this.listeners;
+      int oldCount = oldListeners.length;
+      int index = -1;
+      for (int i = 0; i < oldCount; i++) {
+        if ((eventListener == oldListeners[i]) || (!identity && eventListener.matches(oldListeners[i]))) {
+          index = i;
+          break;
+        }
+      }
+      if (index < 0) {
+        return false;
+      }
+      EventListener<? super E>[] newListeners = new EventListener[oldCount - 1];
+      // drop garbage collected weak listeners as batch while we are copying anyway
+      int newCount = 0;
+      for (int i = 0; i < oldCount; i++) {
+        EventListener<? super E> oldListener = oldListeners[i];
+        if ((i != index) && (!(oldListener instanceof WeakEventListener<?> weak) || !weak.wasGarbageCollected())) {
+          newListeners[newCount++] = oldListener;
+        }
+      }
+      if (newCount == 0) {
+        newListeners = (EventListener<? super E>[]) NO_LISTENERS;
+      } else if (newCount < newListeners.length) {
+        EventListener<? super E>[] trimmed = new EventListener[newCount];
+        System.arraycopy(newListeners, 0, trimmed, 0, newCount);
+        newListeners = trimmed;
+      }
+      if (LISTENERS.compareAndSet(this, oldListeners, newListeners)) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * @return {@code true} if at least one {@link EventListener} is {@link #addListener(EventListener) registered},
+   *         {@code false} otherwise.
+   */
+  protected boolean hasListeners() {
+
+    return (this.listeners.length > 0);
+  }
+
+  /**
+   * @return the number of {@link #addListener(EventListener) registered} {@link EventListener}s.
+   */
+  protected int getListenerCount() {
+
+    return this.listeners.length;
+  }
+
+  /**
+   * @return the current snapshot of the {@link #addListener(EventListener) registered} {@link EventListener}s. Must not
+   *         be modified.
+   */
+  protected EventListener<? super E>[] getListeners() {
+
+    return this.listeners;
+  }
+
+  /**
+   * @param event the event to {@link EventListener#onEvent(Object) send} to all {@link #addListener(EventListener)
+   *        registered} {@link EventListener}s. A listener {@link #addListener(EventListener) added} or
+   *        {@link #removeListener(EventListener) removed} concurrently may or may not receive this event.
+   * @return {@code true} if the event has actually been dispatched, {@code false} otherwise (no listener was
+   *         {@link #addListener(EventListener) registered} for the event).
+   */
+  @Override
+  protected boolean fireEvent(E event) {
+
+    EventListener<? super E>[] snapshot = this.listeners;
+    EventMetrics metrics = EventMetricsAccess.get();
+    boolean dispatched = false;
+    for (EventListener<? super E> listener : snapshot) {
+      long start = 0;
+      if (metrics != null) {
+        start = System.nanoTime();
+      }
+      EventJfr.ListenerInvocation jfrEvent = EventJfr.beginListenerInvocation();
+      try {
+        listener.onEvent(event);
+        if (metrics != null) {
+          metrics.onListenerInvoked(event.getClass(), listener, System.nanoTime() - start);
+        }
+        dispatched = true;
+      } catch (Exception e) {
+        if (metrics != null) {
+          metrics.onListenerError(event.getClass(), listener, e);
+        }
+        Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+      } finally {
+        if (jfrEvent != null) {
+          jfrEvent.end(event, listener);
+        }
+      }
+    }
+    if (metrics != null) {
+      AbstractEventSender.recordFired(metrics, event.getClass(), dispatched);
+    }
+    return dispatched;
+  }
+
+  /**
+   * Like {@link #fireEvent(Object)} but only creates the event if at least one {@link EventListener} is
+   * {@link #addListener(EventListener) registered}. Use this if creating the event is expensive or this sender
+   * typically has no {@link EventListener}s so nothing is allocated in that case.
+   *
+   * @param eventSupplier the {@link Supplier} creating the event to {@link EventListener#onEvent(Object) send}.
+   * @return {@code true} if the event has actually been dispatched, {@code false} otherwise (no listener was
+   *         {@link #addListener(EventListener) registered} and the event was not even created).
+   */
+  protected boolean fireEventLazy(Supplier<? extends E> eventSupplier) {
+
+    if (!hasListeners()) {
+      return false;
+    }
+    return fireEvent(eventSupplier.get());
+  }
+
+  /**
+   * Makes this event sender read-only so it discards all {@link #addListener(EventListener) added}
+   * {@link EventListener}s and prevents future {@link #addListener(EventListener) adding}.<br>
+   * <b>ATTENTION</b>: This is an internal method that shall only be used by code of this library and not by third-party
+   * users.
+   *
+   * @see AbstractEventSender#makeReadOnly()
+   */
+  @SuppressWarnings("unchecked")
+  protected void makeReadOnly() {
+
+    this.listeners = (EventListener<? super E>[]) READ_ONLY;
+  }
+
+}
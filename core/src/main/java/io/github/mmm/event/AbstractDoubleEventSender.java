@@ -0,0 +1,46 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event;
+
+import io.github.mmm.event.metrics.EventMetrics;
+import io.github.mmm.event.metrics.EventMetricsAccess;
+
+/**
+ * Implementation of {@link EventSource} for primitive {@code double} values. Registered {@link DoubleEventListener}s
+ * receive the values {@link #fireEvent(double) fired} without boxing while other {@link EventListener}s receive them
+ * as {@link Double}. Like {@link AbstractEventSender} this is NOT thread-safe.
+ *
+ * @param <L> the type of the {@link EventListener listeners}.
+ * @see DoubleEventListener
+ */
+public abstract class AbstractDoubleEventSender<L extends EventListener<?/* super Double */> >
+    extends AbstractEventSender<Double, L> {
+
+  /**
+   * The constructor.
+   */
+  public AbstractDoubleEventSender() {
+
+    super();
+  }
+
+  /**
+   * @param value the {@code double} value to {@link DoubleEventListener#onEvent(double) send} to all
+   *        {@link #addListener(EventListener) registered} {@link EventListener}s.
+   * @return {@code true} if the event has actually been dispatched, {@code false} otherwise (no listener was
+   *         {@link #addListener(EventListener) registered} for the event).
+   */
+  protected boolean fireEvent(double value) {
+
+    if (isUpdating()) {
+      return fireEvent(Double.valueOf(value));
+    }
+    boolean dispatched = getEventAdapter().fireDoubleEvent(value);
+    EventMetrics metrics = EventMetricsAccess.get();
+    if (metrics != null) {
+      recordFired(metrics, Double.class, dispatched);
+    }
+    return dispatched;
+  }
+
+}
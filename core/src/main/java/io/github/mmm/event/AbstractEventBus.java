@@ -2,27 +2,114 @@
  * http://www.apache.org/licenses/LICENSE-2.0 */
 package io.github.mmm.event;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
 
 import io.github.mmm.base.exception.GlobalExceptionHandler;
+import io.github.mmm.event.journal.EventJournal;
+import io.github.mmm.event.metrics.EventMetrics;
 
 /**
- * This is the default implementation of {@link EventBus}.
+ * This is the default implementation of {@link EventBus}. It supports polymorphic dispatching so an
+ * {@link EventListener} {@link #addListener(Class, EventListener) registered} for a {@link Class#getSuperclass()
+ * super-class} or {@link Class#getInterfaces() interface} of an event will also receive that event.
  */
 public abstract class AbstractEventBus implements EventBus {
 
+  /** @see #getTypeClosure(Class) */
+  private static final ClassValue<Class<?>[]> TYPE_CLOSURE = new ClassValue<>() {
+
+    @Override
+    protected Class<?>[] computeValue(Class<?> type) {
+
+      return computeTypeClosure(type);
+    }
+  };
+
+  /** The {@link DispatchPlan#listeners} marking an event type without any {@link EventListener}. */
+  private static final EventListener<?>[] NO_LISTENERS = new EventListener<?>[0];
+
+  /** The maximum number of events passed to {@link BatchEventListener#onEvents(List)} at once. */
+  private static final int MAX_BATCH_SIZE = 1024;
+
   // private static final Logger LOG = LoggerFactory.getLogger(AbstractEventBus.class);
 
   @SuppressWarnings("rawtypes")
   private final Map<Class<?>, EventDispatcher> eventType2dispatcherMap;
 
+  /** @see #getDispatchPlan(Class) */
+  private final Map<Class<?>, DispatchPlan> eventType2planMap;
+
+  /** Reverse index of the event types each (strongly registered) {@link EventListener} has been registered for. */
+  private final Map<ListenerKey, Set<Class<?>>> listener2eventTypesMap;
+
+  /** The event types weak {@link EventListener}s have been registered for (they are not in the reverse index). */
+  private final Set<Class<?>> weakEventTypes;
+
+  /** Incremented on every change of the registered listeners to invalidate the {@link DispatchPlan}s. */
+  private final AtomicInteger modCount;
+
   private final Queue<Object> eventQueue;
 
+  /** @see #enqueueInternalEvent(Object) */
+  private final Queue<Object> internalEventQueue;
+
+  /** @see #getCapacity() */
+  private final int capacity;
+
+  /** @see #getOverflowPolicy() */
+  private final OverflowPolicy overflowPolicy;
+
+  /** @see #getDroppedEventCount() */
+  private final LongAdder droppedEventCount;
+
+  /** @see #getRejectedEventCount() */
+  private final LongAdder rejectedEventCount;
+
+  /** @see #getConflatedEventCount() */
+  private final LongAdder conflatedEventCount;
+
+  /** The {@link ConflatedEvent}s currently in the queue that may still be replaced. */
+  private final Map<ConflationKey, ConflatedEvent> conflationMap;
+
+  /** @see #setSticky(Class, StickyPolicy) */
+  private final Map<Class<?>, StickyCache> eventType2stickyMap;
+
+  /** @see #setConflating(boolean) */
+  private volatile boolean conflating;
+
+  /** @see #setMetrics(EventMetrics) */
+  private volatile EventMetrics metrics;
+
+  /** The {@link EventMetrics.Registration} of the queue at the {@link #metrics}. */
+  private EventMetrics.Registration metricsRegistration;
+
+  /** @see #setJournal(EventJournal) */
+  private volatile EventJournal journal;
+
+  /** The {@link Thread} currently {@link #replay(long) replaying} or {@code null}. */
+  private volatile Thread replayThread;
+
+  /** The {@link Thread} currently running {@link #dispatchEvents()} or {@code null}. */
+  private volatile Thread dispatchThread;
+
   /** The {@link GlobalExceptionHandler}. */
   protected final GlobalExceptionHandler errorHandler;
 
@@ -41,9 +128,47 @@ public abstract class AbstractEventBus implements EventBus {
    */
   protected AbstractEventBus(GlobalExceptionHandler errorHandler) {
 
+    this(errorHandler, 0, null);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param errorHandler the {@link GlobalExceptionHandler} instance.
+   * @param capacity the maximum number of events in the queue waiting to be dispatched. Use {@code 0} for an unbounded
+   *        queue.
+   * @param overflowPolicy the {@link OverflowPolicy} applied if the bounded queue is full. May be {@code null} for an
+   *        unbounded queue and defaults to {@link OverflowPolicy#BLOCK} otherwise.
+   */
+  protected AbstractEventBus(GlobalExceptionHandler errorHandler, int capacity, OverflowPolicy overflowPolicy) {
+
     super();
+    if (capacity < 0) {
+      throw new IllegalArgumentException("Invalid capacity: " + capacity);
+    }
     this.eventType2dispatcherMap = new ConcurrentHashMap<>();
-    this.eventQueue = new ConcurrentLinkedQueue<>();
+    this.listener2eventTypesMap = new ConcurrentHashMap<>();
+    this.weakEventTypes = ConcurrentHashMap.newKeySet();
+    this.eventType2planMap = new ConcurrentHashMap<>();
+    this.modCount = new AtomicInteger();
+    this.capacity = capacity;
+    if (capacity == 0) {
+      this.eventQueue = new ConcurrentLinkedQueue<>();
+      this.overflowPolicy = null;
+    } else {
+      this.eventQueue = new ArrayBlockingQueue<>(capacity);
+      if (overflowPolicy == null) {
+        this.overflowPolicy = OverflowPolicy.BLOCK;
+      } else {
+        this.overflowPolicy = overflowPolicy;
+      }
+    }
+    this.droppedEventCount = new LongAdder();
+    this.rejectedEventCount = new LongAdder();
+    this.conflatedEventCount = new LongAdder();
+    this.conflationMap = new ConcurrentHashMap<>();
+    this.eventType2stickyMap = new ConcurrentHashMap<>();
+    this.internalEventQueue = new ConcurrentLinkedQueue<>();
     if (errorHandler == null) {
       this.errorHandler = io.github.mmm.base.exception.GlobalExceptionHandlerAccess.get();
     } else {
@@ -51,11 +176,506 @@ public abstract class AbstractEventBus implements EventBus {
     }
   }
 
+  /**
+   * @return the maximum number of events waiting to be dispatched or {@code 0} if unbounded. Implementations that do
+   *         not use the queue of this class return the capacity of their own buffer.
+   */
+  public int getCapacity() {
+
+    return this.capacity;
+  }
+
+  /**
+   * @return the {@link OverflowPolicy} applied if the bounded queue is full or {@code null} if the queue is unbounded.
+   */
+  public OverflowPolicy getOverflowPolicy() {
+
+    return this.overflowPolicy;
+  }
+
+  /**
+   * @return the total number of events discarded by {@link OverflowPolicy#DROP_NEWEST} or
+   *         {@link OverflowPolicy#DROP_OLDEST}.
+   */
+  public long getDroppedEventCount() {
+
+    return this.droppedEventCount.sum();
+  }
+
+  /**
+   * @return the total number of events rejected by {@link OverflowPolicy#FAIL} or {@link #trySendEvent(Object)}.
+   */
+  public long getRejectedEventCount() {
+
+    return this.rejectedEventCount.sum();
+  }
+
+  /**
+   * @return the total number of events that have been replaced in the queue by a newer event due to
+   *         {@link #setConflating(boolean) conflation}.
+   */
+  public long getConflatedEventCount() {
+
+    return this.conflatedEventCount.sum();
+  }
+
+  /**
+   * @return {@code true} if {@link #setConflating(boolean) conflation} is enabled, {@code false} otherwise (default).
+   */
+  public boolean isConflating() {
+
+    return this.conflating;
+  }
+
+  /**
+   * Enables or disables conflation. If enabled, a {@link KeyedEvent} with {@link ChangeType#UPDATE} replaces an event
+   * of the same {@link Object#getClass() type} and {@link KeyedEvent#getKey() key} that is still waiting in the queue
+   * keeping its position in the queue. Hence slow {@link EventListener}s only receive the latest state per key and the
+   * memory of such events in the queue is bounded by the number of distinct keys. Other {@link ChangeType}s are never
+   * replaced and no {@link ChangeType#UPDATE} is moved before them.
+   *
+   * @param conflating {@code true} to enable conflation, {@code false} to disable.
+   */
+  public void setConflating(boolean conflating) {
+
+    this.conflating = conflating;
+  }
+
+  /**
+   * Makes the given event type sticky or not. When an event of a sticky type (or any of its sub-types) is dispatched,
+   * it is retained according to the given {@link StickyPolicy}. When an {@link EventListener} is
+   * {@link #addListener(Class, EventListener) added} afterwards, the retained events that are an instance of its event
+   * type are delivered to it. Hence components starting late receive the current state instead of rebuilding it
+   * elsewhere. The delivery is {@link #enqueueInternalEvent(Object) enqueued} internally so the {@link EventListener}
+   * is notified by the same {@link Thread}s as for any other event (e.g. by the dispatch {@link Thread} of an
+   * asynchronous implementation) without being subject to the {@link #getCapacity() capacity} or
+   * {@link #getOverflowPolicy() overflow policy} of a bounded queue. The retained events are collected when the
+   * delivery is dispatched so no event is missed but an event dispatched after adding the {@link EventListener} and
+   * before the delivery is received twice.
+   *
+   * @param eventType the {@link Class} reflecting the event type.
+   * @param policy the {@link StickyPolicy} or {@code null} to make the event type non-sticky and discard the retained
+   *        events.
+   */
+  public void setSticky(Class<?> eventType, StickyPolicy policy) {
+
+    Objects.requireNonNull(eventType);
+    if (policy == null) {
+      this.eventType2stickyMap.remove(eventType);
+    } else {
+      this.eventType2stickyMap.put(eventType, StickyCache.of(eventType, policy));
+    }
+    invalidateDispatchPlans();
+  }
+
+  /**
+   * @param eventType the {@link Class} reflecting the event type.
+   * @return {@code true} if the given event type has been made {@link #setSticky(Class, StickyPolicy) sticky},
+   *         {@code false} otherwise.
+   */
+  public boolean isSticky(Class<?> eventType) {
+
+    return this.eventType2stickyMap.containsKey(eventType);
+  }
+
+  /**
+   * Reads the retained events without locking.
+   *
+   * @param <E> the type of the events.
+   * @param eventType the {@link Class} reflecting the event type.
+   * @return the {@link List} with the events retained for {@link #setSticky(Class, StickyPolicy) sticky} event types
+   *         that are an instance of the given event type. Will be empty if there are none.
+   */
+  @SuppressWarnings("unchecked")
+  public <E> List<E> getStickyEvents(Class<E> eventType) {
+
+    return (List<E>) Collections.unmodifiableList(collectStickyEvents(eventType));
+  }
+
+  private List<Object> collectStickyEvents(Class<?> eventType) {
+
+    if (this.eventType2stickyMap.isEmpty()) {
+      return List.of();
+    }
+    List<Object> events = new ArrayList<>();
+    int caches = 0;
+    for (StickyCache cache : this.eventType2stickyMap.values()) {
+      cache.collect(eventType, events);
+      caches++;
+    }
+    if ((caches > 1) && (events.size() > 1)) {
+      // an event may be retained for multiple sticky super-types
+      Set<Object> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+      events.removeIf(event -> !distinct.add(event));
+    }
+    return events;
+  }
+
+  /**
+   * @return the {@link EventMetrics} or {@code null} if disabled (default).
+   */
+  protected EventMetrics getMetrics() {
+
+    return this.metrics;
+  }
+
+  /**
+   * @param metrics the {@link EventMetrics} to observe this event bus or {@code null} to disable. Should be set before
+   *        the event bus is used. The {@link #getQueueDepth() queue} of this bus is
+   *        {@link EventMetrics#registerQueue(EventBus, java.util.function.IntSupplier) registered} at the given
+   *        {@link EventMetrics} and unregistered from the previous one. Set to {@code null} before discarding this bus
+   *        while its {@link EventMetrics} remain in use.
+   */
+  public synchronized void setMetrics(EventMetrics metrics) {
+
+    if (this.metricsRegistration != null) {
+      this.metricsRegistration.close();
+      this.metricsRegistration = null;
+    }
+    if (metrics != null) {
+      this.metricsRegistration = metrics.registerQueue(this, this::getQueueDepth);
+    }
+    this.metrics = metrics;
+  }
+
+  /**
+   * @return the current number of events waiting to be dispatched. Reported to the
+   *         {@link #setMetrics(EventMetrics) metrics}.
+   */
+  protected int getQueueDepth() {
+
+    return this.eventQueue.size();
+  }
+
+  /**
+   * @return the {@link EventJournal} or {@code null} if disabled (default).
+   */
+  public EventJournal getJournal() {
+
+    return this.journal;
+  }
+
+  /**
+   * @param journal the {@link EventJournal} to {@link EventJournal#append(Object) append} all
+   *        {@link #sendEvent(Object) sent} events to or {@code null} to disable. Should be set before the event bus is
+   *        used.
+   * @see #replay(long)
+   */
+  public void setJournal(EventJournal journal) {
+
+    this.journal = journal;
+  }
+
+  /**
+   * {@link #sendEvent(Object) Sends} the events from the {@link #setJournal(EventJournal) journal} again, e.g. to
+   * reconstruct the state of the {@link EventListener}s after a restart. The replayed events take the same path as any
+   * other event (including the queue of an asynchronous implementation) but are not appended to the journal again.
+   * Should be called before new events are {@link #sendEvent(Object) sent}.
+   *
+   * @param fromSequence the {@link EventJournal#append(Object) sequence number} of the first event to replay.
+   * @return the number of replayed events.
+   * @throws IllegalStateException if no {@link #setJournal(EventJournal) journal} has been set.
+   */
+  public long replay(long fromSequence) {
+
+    EventJournal eventJournal = this.journal;
+    if (eventJournal == null) {
+      throw new IllegalStateException("No journal configured.");
+    }
+    this.replayThread = Thread.currentThread();
+    try {
+      return eventJournal.replay(fromSequence, this::sendEvent);
+    } finally {
+      this.replayThread = null;
+    }
+  }
+
+  /**
+   * Records the given event as sent if {@link #setMetrics(EventMetrics) metrics} are enabled and
+   * {@link EventJournal#append(Object) appends} it to the {@link #setJournal(EventJournal) journal} if configured and
+   * the event is not {@link #replay(long) replayed}. Has to be called only after the event has been accepted. As the
+   * event can not be withdrawn anymore, a failure of the journal is passed to the {@link GlobalExceptionHandler}.
+   *
+   * @param event the event that has been {@link #sendEvent(Object) sent} and accepted.
+   */
+  protected void recordSent(Object event) {
+
+    EventJournal eventJournal = this.journal;
+    if ((eventJournal != null) && (Thread.currentThread() != this.replayThread)) {
+      try {
+        eventJournal.append(event);
+      } catch (RuntimeException e) {
+        this.errorHandler.handleError(event, e);
+      }
+    }
+    EventMetrics eventMetrics = this.metrics;
+    if (eventMetrics != null) {
+      eventMetrics.onEventSent(event.getClass());
+    }
+  }
+
+  /**
+   * @throws IllegalStateException if the queue is full and the {@link #getOverflowPolicy() overflow policy} is
+   *         {@link OverflowPolicy#FAIL}.
+   */
   @Override
   public void sendEvent(Object event) {
 
     Objects.requireNonNull(event);
-    this.eventQueue.add(event);
+    Object element = conflate(event);
+    if (element == null) {
+      recordSent(event);
+      return;
+    }
+    if (this.eventQueue.offer(element) || handleOverflow(event, element)) {
+      recordSent(event);
+      registerConflated(element);
+      triggerDispatchEvents();
+    }
+  }
+
+  /**
+   * If the queue is unbounded, all events are added atomically so they are dispatched in a row. Otherwise they are
+   * {@link #sendEvent(Object) sent} one by one applying the {@link #getOverflowPolicy() overflow policy}.
+   */
+  @Override
+  public void sendEvents(Collection<?> events) {
+
+    if (this.capacity > 0) {
+      for (Object event : events) {
+        sendEvent(event);
+      }
+      return;
+    }
+    for (Object event : events) {
+      Objects.requireNonNull(event);
+    }
+    Collection<?> elements = events;
+    if (this.conflating) {
+      List<Object> conflated = new ArrayList<>(events.size());
+      for (Object event : events) {
+        Object element = conflate(event);
+        if (element != null) {
+          conflated.add(element);
+        }
+      }
+      elements = conflated;
+    } else if (EventJfr.isDispatchEnabled()) {
+      elements = events.stream().map(QueuedEvent::of).toList();
+    }
+    boolean added = !elements.isEmpty() && this.eventQueue.addAll(elements);
+    // an unbounded queue accepts all events including those conflated into an already queued event
+    for (Object event : events) {
+      recordSent(event);
+    }
+    if (added) {
+      if (this.conflating) {
+        for (Object element : elements) {
+          registerConflated(element);
+        }
+      }
+      triggerDispatchEvents();
+    }
+  }
+
+  @Override
+  public boolean trySendEvent(Object event) {
+
+    Objects.requireNonNull(event);
+    Object element = conflate(event);
+    if (element == null) {
+      recordSent(event);
+      return true;
+    }
+    if (this.eventQueue.offer(element)) {
+      recordSent(event);
+      registerConflated(element);
+      triggerDispatchEvents();
+      return true;
+    }
+    switch (this.overflowPolicy) {
+      case DROP_OLDEST:
+        dropOldest(element);
+        recordSent(event);
+        registerConflated(element);
+        triggerDispatchEvents();
+        return true;
+      case CALLER_RUNS:
+        recordSent(event);
+        dispatchEvent(event);
+        return true;
+      default:
+        this.rejectedEventCount.increment();
+        handleRejectedEvent(event);
+        return false;
+    }
+  }
+
+  /**
+   * @param event the event that could not be added to the full queue.
+   * @param element the {@link QueuedEvent#of(Object) element} for the event to add to the queue.
+   * @return {@code true} if the event has finally been queued, {@code false} otherwise.
+   */
+  private boolean handleOverflow(Object event, Object element) {
+
+    switch (this.overflowPolicy) {
+      case BLOCK:
+        if (Thread.currentThread() == this.dispatchThread) {
+          // waiting for ourselves would be a dead-lock
+          recordSent(event);
+          dispatchEvent(event);
+          return false;
+        }
+        try {
+          ((BlockingQueue<Object>) this.eventQueue).put(element);
+          return true;
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          this.rejectedEventCount.increment();
+          handleRejectedEvent(event);
+          throw new IllegalStateException("Interrupted while waiting for space in event queue.", e);
+        }
+      case DROP_NEWEST:
+        this.droppedEventCount.increment();
+        handleDroppedEvent(event);
+        return false;
+      case DROP_OLDEST:
+        dropOldest(element);
+        return true;
+      case FAIL:
+        this.rejectedEventCount.increment();
+        handleRejectedEvent(event);
+        throw new IllegalStateException("Event queue is full (capacity " + this.capacity + ").");
+      case CALLER_RUNS:
+        recordSent(event);
+        dispatchEvent(event);
+        return false;
+      default:
+        throw new IllegalStateException(this.overflowPolicy.name());
+    }
+  }
+
+  private void dropOldest(Object element) {
+
+    do {
+      Object oldest = this.eventQueue.poll();
+      if (oldest != null) {
+        this.droppedEventCount.increment();
+        handleDroppedEvent(unwrap(oldest));
+      }
+    } while (!this.eventQueue.offer(element));
+  }
+
+  /**
+   * Called if an event was {@link #sendEvent(Object) sent} but rejected as the queue is full (by
+   * {@link OverflowPolicy#FAIL}, an interrupted {@link OverflowPolicy#BLOCK} or {@link #trySendEvent(Object)}) so it
+   * will never be dispatched.
+   *
+   * @param event is the rejected event.
+   */
+  protected void handleRejectedEvent(Object event) {
+
+    // nothing by default
+  }
+
+  /**
+   * Called if an event was {@link #sendEvent(Object) sent} but discarded by {@link OverflowPolicy#DROP_NEWEST} or
+   * {@link OverflowPolicy#DROP_OLDEST} so it will never be dispatched.
+   *
+   * @param event is the dropped event.
+   */
+  protected void handleDroppedEvent(Object event) {
+
+    // nothing by default
+  }
+
+  /**
+   * @param event the event to send.
+   * @return the element to add to the queue for the given event or {@code null} if the event has been
+   *         {@link #setConflating(boolean) conflated} into an event that is still in the queue.
+   */
+  private Object conflate(Object event) {
+
+    if (!this.conflating || !(event instanceof KeyedEvent keyedEvent)) {
+      return QueuedEvent.of(event);
+    }
+    ConflationKey key = new ConflationKey(event.getClass(), keyedEvent.getKey());
+    if (keyedEvent.getChangeType() != ChangeType.UPDATE) {
+      // subsequent updates must not overtake this event
+      this.conflationMap.remove(key);
+      return QueuedEvent.of(event);
+    }
+    ConflatedEvent queued = this.conflationMap.get(key);
+    if (queued != null) {
+      Object replaced = queued.replace(event);
+      if (replaced != null) {
+        this.conflatedEventCount.increment();
+        handleConflatedEvent(replaced);
+        return null;
+      }
+    }
+    long enqueueNanos = 0;
+    if (EventJfr.isDispatchEnabled()) {
+      enqueueNanos = System.nanoTime();
+    }
+    return new ConflatedEvent(key, event, enqueueNanos);
+  }
+
+  /**
+   * Makes the given element available for {@link #setConflating(boolean) conflation} after it has been added to the
+   * queue.
+   *
+   * @param element the element that has been added to the queue.
+   */
+  private void registerConflated(Object element) {
+
+    if (element instanceof ConflatedEvent conflated) {
+      this.conflationMap.put(conflated.key, conflated);
+      if (conflated.isTaken()) {
+        // already dispatched in the meantime
+        this.conflationMap.remove(conflated.key, conflated);
+      }
+    }
+  }
+
+  /**
+   * @param element the element taken from the queue.
+   * @return the event for the given element. A {@link ConflatedEvent} can no longer be replaced afterwards.
+   */
+  private Object unwrap(Object element) {
+
+    if (element instanceof ConflatedEvent conflated) {
+      Object event = conflated.take();
+      this.conflationMap.remove(conflated.key, conflated);
+      return event;
+    }
+    return QueuedEvent.unwrap(element);
+  }
+
+  /**
+   * Called if an event was {@link #sendEvent(Object) sent} but replaced in the queue by a newer event due to
+   * {@link #setConflating(boolean) conflation} so it will never be dispatched.
+   *
+   * @param event is the replaced event.
+   */
+  protected void handleConflatedEvent(Object event) {
+
+    // nothing by default
+  }
+
+  /**
+   * Enqueues an internal event of this bus (e.g. to deliver {@link #setSticky(Class, StickyPolicy) sticky} events to
+   * a new {@link EventListener}) that has to be passed to {@link #dispatchEvent(Object)} by the dispatching
+   * {@link Thread}. Unlike {@link #sendEvent(Object)} the {@link #getCapacity() capacity}, the
+   * {@link #getOverflowPolicy() overflow policy}, conflation, journal and metrics do not apply. Has to be overridden
+   * together with {@link #triggerDispatchEvents()} if the events are not dispatched via {@link #dispatchEvents()}.
+   *
+   * @param event the internal event.
+   * @throws IllegalStateException if this bus does not accept events anymore.
+   */
+  protected void enqueueInternalEvent(Object event) {
+
+    this.internalEventQueue.add(event);
     triggerDispatchEvents();
   }
 
@@ -66,16 +686,72 @@ public abstract class AbstractEventBus implements EventBus {
   protected abstract void triggerDispatchEvents();
 
   /**
-   * Dispatches all events in the event queue.
+   * Dispatches all events in the event queue. Consecutive events of the same type are grouped and
+   * {@link #dispatchBatch(List) dispatched as batch} if a {@link BatchEventListener} is registered for them.
    */
   protected void dispatchEvents() {
 
-    while (true) {
-      Object event = this.eventQueue.poll();
-      if (event == null) {
-        return;
+    this.dispatchThread = Thread.currentThread();
+    int eventCount = 0;
+    try {
+      dispatchInternalEvents();
+      Object element = this.eventQueue.poll();
+      Object next = null;
+      while (element != null) {
+        // each element is unwrapped exactly once as this takes conflated events out of the conflation
+        Object event = next;
+        if (event == null) {
+          event = unwrap(element);
+        }
+        next = null;
+        Class<?> eventType = event.getClass();
+        EventJfr.Dispatch jfrEvent = EventJfr.beginDispatch(getEnqueueNanos(element));
+        int dispatchCount;
+        if ((event instanceof StickyDelivery) || !getDispatchPlan(eventType).batch) {
+          dispatchCount = 1;
+          dispatchEvent(event);
+          element = this.eventQueue.poll();
+        } else {
+          List<Object> batch = new ArrayList<>();
+          batch.add(event);
+          element = this.eventQueue.poll();
+          while ((element != null) && (batch.size() < MAX_BATCH_SIZE)) {
+            next = unwrap(element);
+            if (next.getClass() != eventType) {
+              break;
+            }
+            batch.add(next);
+            next = null;
+            element = this.eventQueue.poll();
+          }
+          dispatchCount = batch.size();
+          if (dispatchCount == 1) {
+            dispatchEvent(event);
+          } else {
+            dispatchBatch(batch);
+          }
+        }
+        eventCount += dispatchCount;
+        if (jfrEvent != null) {
+          jfrEvent.end(eventType, dispatchCount);
+        }
+        dispatchInternalEvents();
+      }
+    } finally {
+      this.dispatchThread = null;
+      EventMetrics eventMetrics = this.metrics;
+      if ((eventMetrics != null) && (eventCount > 0)) {
+        eventMetrics.onDrain(eventCount);
       }
+    }
+  }
+
+  private void dispatchInternalEvents() {
+
+    Object event = this.internalEventQueue.poll();
+    while (event != null) {
       dispatchEvent(event);
+      event = this.internalEventQueue.poll();
     }
   }
 
@@ -85,20 +761,269 @@ public abstract class AbstractEventBus implements EventBus {
    * @param <E> is the generic type of {@code event}.
    * @param event is the event to dispatch.
    */
+  @SuppressWarnings({ "rawtypes", "unchecked" })
   protected <E> void dispatchEvent(E event) {
 
-    @SuppressWarnings("unchecked")
-    Class<E> eventType = (Class<E>) event.getClass();
-    EventDispatcher<E> eventDispatcher = getEventDispatcherOrNull(eventType);
+    if (event instanceof StickyDelivery delivery) {
+      deliverStickyEvents(delivery);
+      return;
+    }
+    DispatchPlan plan = getDispatchPlan(event.getClass());
+    if (plan.stickyCaches != null) {
+      for (StickyCache cache : plan.stickyCaches) {
+        cache.retain(event);
+      }
+      // resolve the listeners after retaining so a concurrently added listener gets the event directly or retained
+      plan = getDispatchPlan(event.getClass());
+    }
+    if (plan.listeners == NO_LISTENERS) {
+      recordDispatched(event, false);
+      return;
+    }
     boolean dispatched = false;
-    if (eventDispatcher != null) {
-      dispatched = eventDispatcher.fireEvent(event);
+    for (EventListener listener : plan.listeners) {
+      if (dispatchEvent(event, listener)) {
+        dispatched = true;
+      }
+    }
+    recordDispatched(event, dispatched);
+  }
+
+  private void recordDispatched(Object event, boolean dispatched) {
+
+    EventMetrics eventMetrics = this.metrics;
+    if (eventMetrics != null) {
+      if (dispatched) {
+        eventMetrics.onEventDispatched(event.getClass());
+      } else {
+        eventMetrics.onEventUndispatched(event.getClass());
+      }
     }
     if (!dispatched) {
       handleUndispatchedEvent(event);
     }
   }
 
+  /**
+   * Dispatches the given events at once. {@link BatchEventListener}s receive the entire batch while other
+   * {@link EventListener}s receive the events one by one.
+   *
+   * @param <E> is the generic type of the events.
+   * @param batch the {@link List} of events to dispatch. All events have the same {@link Object#getClass() type}.
+   */
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  protected <E> void dispatchBatch(List<E> batch) {
+
+    DispatchPlan plan = getDispatchPlan(batch.get(0).getClass());
+    if (plan.stickyCaches != null) {
+      for (StickyCache cache : plan.stickyCaches) {
+        for (E event : batch) {
+          cache.retain(event);
+        }
+      }
+      plan = getDispatchPlan(batch.get(0).getClass());
+    }
+    boolean batchDispatched = false;
+    for (EventListener listener : plan.listeners) {
+      if ((listener instanceof BatchEventListener batchListener) && dispatchBatch(batch, batchListener)) {
+        batchDispatched = true;
+      }
+    }
+    for (E event : batch) {
+      boolean dispatched = batchDispatched;
+      for (EventListener listener : plan.listeners) {
+        if (!(listener instanceof BatchEventListener) && dispatchEvent(event, listener)) {
+          dispatched = true;
+        }
+      }
+      recordDispatched(event, dispatched);
+    }
+  }
+
+  /**
+   * Dispatches the given events to a single {@link BatchEventListener}.
+   *
+   * @param <E> is the generic type of the events.
+   * @param batch the {@link List} of events to dispatch.
+   * @param listener the {@link BatchEventListener} to {@link BatchEventListener#onEvents(List) notify}.
+   * @return {@code true} if the events have been dispatched, {@code false} otherwise (the {@link BatchEventListener}
+   *         failed and the error has been {@link GlobalExceptionHandler#handleError(Object, Throwable) handled}).
+   * @see #dispatchEvent(Object, EventListener)
+   */
+  protected <E> boolean dispatchBatch(List<E> batch, BatchEventListener<? super E> listener) {
+
+    EventMetrics eventMetrics = this.metrics;
+    long start = 0;
+    if (eventMetrics != null) {
+      start = System.nanoTime();
+    }
+    EventJfr.ListenerInvocation jfrEvent = EventJfr.beginListenerInvocation();
+    try {
+      listener.onEvents(Collections.unmodifiableList(batch));
+      if (eventMetrics != null) {
+        eventMetrics.onListenerInvoked(batch.get(0).getClass(), listener, System.nanoTime() - start);
+      }
+      return true;
+    } catch (Throwable exception) {
+      if (eventMetrics != null) {
+        eventMetrics.onListenerError(batch.get(0).getClass(), listener, exception);
+      }
+      this.errorHandler.handleError(batch, exception);
+      return false;
+    } finally {
+      if (jfrEvent != null) {
+        jfrEvent.end(batch.get(0), listener);
+      }
+    }
+  }
+
+  /**
+   * Dispatches the given event to a single {@link EventListener}. Override to change how or where (e.g. in which
+   * {@link Thread}) the {@link EventListener} is invoked.
+   *
+   * @param <E> is the generic type of {@code event}.
+   * @param event is the event to dispatch.
+   * @param listener the {@link EventListener} to {@link EventListener#onEvent(Object) notify}.
+   * @return {@code true} if the event has been dispatched, {@code false} otherwise (the {@link EventListener} failed
+   *         and the error has been {@link GlobalExceptionHandler#handleError(Object, Throwable) handled}).
+   */
+  protected <E> boolean dispatchEvent(E event, EventListener<? super E> listener) {
+
+    EventMetrics eventMetrics = this.metrics;
+    long start = 0;
+    if (eventMetrics != null) {
+      start = System.nanoTime();
+    }
+    EventJfr.ListenerInvocation jfrEvent = EventJfr.beginListenerInvocation();
+    try {
+      listener.onEvent(event);
+      if (eventMetrics != null) {
+        eventMetrics.onListenerInvoked(event.getClass(), listener, System.nanoTime() - start);
+      }
+      return true;
+    } catch (Throwable exception) {
+      if (eventMetrics != null) {
+        eventMetrics.onListenerError(event.getClass(), listener, exception);
+      }
+      this.errorHandler.handleError(event, exception);
+      return false;
+    } finally {
+      if (jfrEvent != null) {
+        jfrEvent.end(event, listener);
+      }
+    }
+  }
+
+  /**
+   * @param eventType the {@link Class} reflecting the event to dispatch.
+   * @return the current {@link DispatchPlan} for the given {@code eventType}. Will be created on the first call and
+   *         recreated after the registered {@link EventListener}s have changed. Cached per event type so events
+   *         without any {@link EventListener} are detected with a single lookup without walking their type hierarchy.
+   */
+  private DispatchPlan getDispatchPlan(Class<?> eventType) {
+
+    int currentModCount = this.modCount.get();
+    DispatchPlan plan = this.eventType2planMap.get(eventType);
+    if ((plan == null) || (plan.modCount != currentModCount)) {
+      plan = createDispatchPlan(eventType, currentModCount);
+      this.eventType2planMap.put(eventType, plan);
+    }
+    return plan;
+  }
+
+  private DispatchPlan createDispatchPlan(Class<?> eventType, int currentModCount) {
+
+    List<EventListener<?>> listeners = new ArrayList<>();
+    List<StickyCache> caches = null;
+    for (Class<?> type : getTypeClosure(eventType)) {
+      EventDispatcher<?> dispatcher = this.eventType2dispatcherMap.get(type);
+      if (dispatcher != null) {
+        Collections.addAll(listeners, dispatcher.getListeners());
+      }
+      StickyCache cache = this.eventType2stickyMap.get(type);
+      if (cache != null) {
+        if (caches == null) {
+          caches = new ArrayList<>(1);
+        }
+        caches.add(cache);
+      }
+    }
+    StickyCache[] stickyCaches = null;
+    if (caches != null) {
+      stickyCaches = caches.toArray(StickyCache[]::new);
+    }
+    if (listeners.isEmpty()) {
+      return new DispatchPlan(NO_LISTENERS, false, stickyCaches, currentModCount);
+    }
+    boolean batch = false;
+    for (EventListener<?> listener : listeners) {
+      if (listener instanceof BatchEventListener) {
+        batch = true;
+        break;
+      }
+    }
+    return new DispatchPlan(listeners.toArray(EventListener<?>[]::new), batch, stickyCaches, currentModCount);
+  }
+
+  /**
+   * @param type the {@link Class} reflecting the event.
+   * @return the type closure of the given {@link Class} containing the type itself as well as all its
+   *         {@link Class#getSuperclass() super-classes} and {@link Class#getInterfaces() interfaces} (transitively)
+   *         each only once and ordered from most specific to most generic ({@link Object} is always last). The result
+   *         is computed only once per {@link Class} and must not be modified.
+   */
+  protected static Class<?>[] getTypeClosure(Class<?> type) {
+
+    return TYPE_CLOSURE.get(type);
+  }
+
+  private static Class<?>[] computeTypeClosure(Class<?> type) {
+
+    Set<Class<?>> closure = new LinkedHashSet<>();
+    Class<?> current = type;
+    while ((current != null) && (current != Object.class)) {
+      closure.add(current);
+      addInterfaces(current, closure);
+      current = current.getSuperclass();
+    }
+    closure.add(Object.class);
+    return closure.toArray(Class<?>[]::new);
+  }
+
+  private static void addInterfaces(Class<?> type, Set<Class<?>> closure) {
+
+    Class<?>[] interfaces = type.getInterfaces();
+    List<Class<?>> added = new ArrayList<>(interfaces.length);
+    for (Class<?> iface : interfaces) {
+      if (closure.add(iface)) {
+        added.add(iface);
+      }
+    }
+    // direct interfaces first as they are more specific than their super-interfaces
+    for (Class<?> iface : added) {
+      addInterfaces(iface, closure);
+    }
+  }
+
+  /**
+   * Also returns {@code true} if the given event type is {@link #setSticky(Class, StickyPolicy) sticky} as such events
+   * are retained for {@link EventListener}s added later.
+   */
+  @Override
+  public boolean hasListeners(Class<?> eventType) {
+
+    DispatchPlan plan = getDispatchPlan(eventType);
+    return (plan.listeners != NO_LISTENERS) || (plan.stickyCaches != null);
+  }
+
+  /**
+   * Invalidates all {@link DispatchPlan}s. Has to be called after the registered {@link EventListener}s have changed.
+   */
+  private void invalidateDispatchPlans() {
+
+    this.modCount.incrementAndGet();
+  }
+
   /**
    * Called if an event was {@link #sendEvent(Object) send} but not dispatched to any
    * {@link #addListener(Class, EventListener) registered listener}.
@@ -122,145 +1047,383 @@ public abstract class AbstractEventBus implements EventBus {
 
     EventDispatcher<?> dispatcher = this.eventType2dispatcherMap.get(eventType);
     if (dispatcher == null) {
-      Class<?> type = eventType.getSuperclass();
-      EventDispatcher<?> parent;
-      if (type != null) {
-        parent = getEventDispatcherRequired(type);
-      } else {
-        parent = null;
-      }
-      dispatcher = this.eventType2dispatcherMap.computeIfAbsent(eventType, t -> new EventDispatcher<>(parent));
+      dispatcher = this.eventType2dispatcherMap.computeIfAbsent(eventType, t -> new EventDispatcher<>());
     }
     return (EventDispatcher<E>) dispatcher;
   }
 
-  /**
-   * Gets the most specific {@link EventDispatcher} responsible the given {@code eventType}.
-   *
-   * @param <E> is the generic type of {@code eventType}.
-   * @param eventType is the {@link Class} reflecting the event.
-   * @return the most specific {@link EventDispatcher} responsible for the given {@code eventType}. May be {@code null}
-   *         if no {@link EventListener} is {@link #addListener(Class, EventListener) registered} for a compatible
-   *         {@code eventType}.
-   */
-  @SuppressWarnings("unchecked")
-  protected <E> EventDispatcher<E> getEventDispatcherOrNull(Class<E> eventType) {
+  @Override
+  public <E> void addListener(Class<E> eventType, EventListener<E> listener) {
 
-    Class<?> type = eventType;
-    EventDispatcher<?> dispatcher = this.eventType2dispatcherMap.get(eventType);
-    while ((dispatcher == null) && (type != null)) {
-      type = type.getSuperclass();
-      dispatcher = this.eventType2dispatcherMap.get(type);
-    }
-    return (EventDispatcher<E>) dispatcher;
+    addListener(eventType, listener, false);
   }
 
   @Override
-  public <E> void addListener(Class<E> eventType, EventListener<E> listener) {
+  public <E> void addListener(Class<E> eventType, EventListener<E> listener, boolean weak) {
+
+    subscribe(eventType, listener, weak);
+  }
+
+  @Override
+  public <E> Subscription subscribe(Class<E> eventType, EventListener<E> listener, boolean weak) {
 
     Objects.requireNonNull(eventType);
     Objects.requireNonNull(listener);
-    if (eventType.isInterface()) {
-      throw new UnsupportedOperationException(
-          "This EventBus implementation does not support interfaces as event type: " + eventType.getName());
-    }
     EventDispatcher<E> eventDispatcher = getEventDispatcherRequired(eventType);
-    eventDispatcher.addListener(listener);
+    Subscription subscription = eventDispatcher.subscribe(listener, weak);
+    Subscription result;
+    if (weak) {
+      this.weakEventTypes.add(eventType);
+      result = subscription;
+    } else {
+      this.listener2eventTypesMap.compute(new ListenerKey(listener), (key, eventTypes) -> {
+        if (eventTypes == null) {
+          return Set.of(eventType);
+        } else if (eventTypes.contains(eventType)) {
+          return eventTypes;
+        }
+        Set<Class<?>> newEventTypes = new HashSet<>(eventTypes);
+        newEventTypes.add(eventType);
+        return Set.copyOf(newEventTypes);
+      });
+      result = Subscription.of(() -> {
+        subscription.close();
+        unindexListener(eventType, listener);
+      });
+    }
+    if (!this.eventType2stickyMap.isEmpty()) {
+      // enqueue after registration so a concurrently dispatched sticky event can not be missed
+      try {
+        enqueueInternalEvent(new StickyDelivery(eventType, listener));
+      } catch (IllegalStateException e) {
+        // closed - the retained events are still available via getStickyEvents
+      }
+    }
+    return result;
+  }
+
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private void deliverStickyEvents(StickyDelivery delivery) {
+
+    for (Object event : collectStickyEvents(delivery.eventType)) {
+      dispatchEvent(event, (EventListener) delivery.listener);
+    }
   }
 
   @SuppressWarnings({ "rawtypes", "unchecked" })
   @Override
   public <E> boolean removeListener(Class<E> eventType, EventListener<E> listener) {
 
+    if (eventType != null) {
+      return removeListener(eventType, (EventListener) listener, this.eventType2dispatcherMap.get(eventType));
+    }
+    // only visit the dispatchers the listener has been registered to instead of all of them
+    Set<Class<?>> eventTypes = this.listener2eventTypesMap.getOrDefault(new ListenerKey(listener), Set.of());
     boolean removed = false;
-    if (eventType == null) {
-      for (EventDispatcher<?> dispatcher : this.eventType2dispatcherMap.values()) {
-        boolean currentRemoved = dispatcher.removeListener((EventListener) listener);
-        if (currentRemoved) {
-          removed = true;
-        }
+    for (Class<?> type : eventTypes) {
+      if (removeListener(type, (EventListener) listener, this.eventType2dispatcherMap.get(type))) {
+        removed = true;
       }
-    } else {
-      EventDispatcher<E> dispatcher = this.eventType2dispatcherMap.get(eventType);
-      if (dispatcher != null) {
-        return dispatcher.removeListener(listener);
+    }
+    for (Class<?> type : this.weakEventTypes) {
+      if (!eventTypes.contains(type)
+          && removeListener(type, (EventListener) listener, this.eventType2dispatcherMap.get(type))) {
+        removed = true;
       }
     }
     return removed;
   }
 
+  private <E> boolean removeListener(Class<?> eventType, EventListener<E> listener, EventDispatcher<E> dispatcher) {
+
+    if (dispatcher == null) {
+      return false;
+    }
+    boolean removed = dispatcher.removeListener(listener);
+    if (removed) {
+      unindexListener(eventType, listener);
+    }
+    return removed;
+  }
+
+  /**
+   * Removes the given {@code eventType} from the reverse index of the given {@link EventListener} unless it is still
+   * registered for that {@code eventType} (e.g. because it was added multiple times).
+   */
+  private void unindexListener(Class<?> eventType, EventListener<?> listener) {
+
+    this.listener2eventTypesMap.computeIfPresent(new ListenerKey(listener), (key, eventTypes) -> {
+      if (!eventTypes.contains(eventType)) {
+        return eventTypes;
+      }
+      EventDispatcher<?> dispatcher = this.eventType2dispatcherMap.get(eventType);
+      if ((dispatcher != null) && dispatcher.containsListener(listener)) {
+        return eventTypes;
+      }
+      if (eventTypes.size() == 1) {
+        return null;
+      }
+      Set<Class<?>> newEventTypes = new HashSet<>(eventTypes);
+      newEventTypes.remove(eventType);
+      return Set.copyOf(newEventTypes);
+    });
+  }
+
   /**
    * A dispatcher for all {@link EventListener}s of a particular {@link EventBus#addListener(Class, EventListener) event
-   * type}.
+   * type}. The {@link EventListener}s are stored in a copy-on-write array (see
+   * {@link AbstractConcurrentEventSender}) so iterating them is allocation-free and never blocks. Events are not fired
+   * via the dispatcher but by the bus that combines the {@link EventListener}s of the dispatchers for all types of an
+   * event once per event type.
    *
    * @param <E> type of the {@link EventListener#onEvent(Object) events}.
    */
-  protected class EventDispatcher<E> extends AbstractEventSource<E, EventListener<E>> {
-
-    /** @see #onEvent(Object, Collection) */
-    private final EventDispatcher<? super E> parentDispatcher;
-
-    /** @see #fireEvent(Object, Collection) */
-    private final Collection<EventListener<E>> listeners;
-
-    /**
-     * The constructor.
-     *
-     * @param parent is the {@link EventDispatcher} responsible for the super-class or {@code null} if this is the root
-     *        {@link EventDispatcher} responsible for {@link Object}.
-     */
-    public EventDispatcher(EventDispatcher<? super E> parent) {
-
-      this(parent, new ConcurrentLinkedQueue<>());
-    }
+  protected class EventDispatcher<E> extends AbstractConcurrentEventSender<E, EventListener<E>> {
 
     /**
      * The constructor.
-     *
-     * @param parent is the {@link EventDispatcher} responsible for the super-class or {@code null} if this is the root
-     *        {@link EventDispatcher} responsible for {@link Object}.
-     * @param listeners the empty {@link Collection} implementation for the {@link EventListener}s.
      */
-    protected EventDispatcher(EventDispatcher<? super E> parent, Collection<EventListener<E>> listeners) {
+    public EventDispatcher() {
 
       super();
-      this.parentDispatcher = parent;
-      this.listeners = listeners;
     }
 
     @Override
     protected void doAddListener(EventListener<E> listener) {
 
-      this.listeners.add(listener);
+      super.doAddListener(listener);
+      invalidateDispatchPlans();
     }
 
     @Override
     public boolean removeListener(EventListener<E> listener) {
 
-      return this.listeners.remove(listener);
+      boolean removed = super.removeListener(listener);
+      if (removed) {
+        invalidateDispatchPlans();
+      }
+      return removed;
     }
 
     @Override
-    protected boolean fireEvent(E event) {
+    protected boolean doRemoveListener(EventListener<E> listener) {
 
-      boolean dispatched = false;
-      for (EventListener<E> listener : this.listeners) {
-        try {
-          listener.onEvent(event);
-          dispatched = true;
-        } catch (Throwable exception) {
-          AbstractEventBus.this.errorHandler.handleError(event, exception);
+      boolean removed = super.doRemoveListener(listener);
+      if (removed) {
+        invalidateDispatchPlans();
+      }
+      return removed;
+    }
+
+    private boolean containsListener(EventListener<?> listener) {
+
+      for (EventListener<? super E> registered : getListeners()) {
+        if (listener.matches(registered)) {
+          return true;
         }
       }
-      if (this.parentDispatcher != null) {
-        boolean superDispatched = this.parentDispatcher.fireEvent(event);
-        if (superDispatched) {
-          dispatched = true;
+      return false;
+    }
+
+  }
+
+  /**
+   * Internal event {@link #enqueueInternalEvent(Object) enqueued} when an {@link EventListener} has been added while
+   * {@link #setSticky(Class, StickyPolicy) sticky} event types exist. When dispatched, the retained events are
+   * delivered to the {@link EventListener} instead of dispatching the {@link StickyDelivery} itself.
+   */
+  private static final class StickyDelivery {
+
+    private final Class<?> eventType;
+
+    private final EventListener<?> listener;
+
+    private StickyDelivery(Class<?> eventType, EventListener<?> listener) {
+
+      super();
+      this.eventType = eventType;
+      this.listener = listener;
+    }
+  }
+
+  /**
+   * Key of an {@link EventListener} in the reverse index that is {@link #equals(Object) equal} to the key of another
+   * {@link EventListener} exactly if the one {@link EventListener#matches(EventListener) matches} the other.
+   */
+  private static final class ListenerKey {
+
+    private final EventListener<?> listener;
+
+    private ListenerKey(EventListener<?> listener) {
+
+      super();
+      this.listener = listener;
+    }
+
+    @Override
+    public int hashCode() {
+
+      if (this.listener.isMatchedUsingEquals()) {
+        return this.listener.hashCode();
+      }
+      return System.identityHashCode(this.listener);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+
+      if (obj == this) {
+        return true;
+      }
+      if (!(obj instanceof ListenerKey other)) {
+        return false;
+      }
+      return this.listener.matches(other.listener);
+    }
+  }
+
+  private static long getEnqueueNanos(Object element) {
+
+    if (element instanceof ConflatedEvent conflated) {
+      return conflated.enqueueNanos;
+    }
+    return QueuedEvent.getEnqueueNanos(element);
+  }
+
+  /**
+   * Key of {@link ConflatedEvent}s that may replace each other.
+   */
+  private record ConflationKey(Class<?> eventType, Object key) {
+  }
+
+  /**
+   * Element of the queue for a {@link KeyedEvent} that may be replaced by a newer event with the same
+   * {@link ConflationKey} as long as it has not been {@link #take() taken} from the queue.
+   */
+  private static final class ConflatedEvent {
+
+    private static final Object TAKEN = new Object();
+
+    private static final VarHandle EVENT;
+
+    static {
+      try {
+        EVENT = MethodHandles.lookup().findVarHandle(ConflatedEvent.class, "event", Object.class);
+      } catch (ReflectiveOperationException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    private final ConflationKey key;
+
+    private final long enqueueNanos;
+
+    private volatile Object event;
+
+    private ConflatedEvent(ConflationKey key, Object event, long enqueueNanos) {
+
+      super();
+      this.key = key;
+      this.event = event;
+      this.enqueueNanos = enqueueNanos;
+    }
+
+    /**
+     * @param newEvent the new event to replace the current one.
+     * @return the replaced event or {@code null} if this element has already been {@link #take() taken} from the
+     *         queue.
+     */
+    private Object replace(Object newEvent) {
+
+      while (true) {
+        Object oldEvent = this.event;
+        if (oldEvent == TAKEN) {
+          return null;
+        }
+        if (EVENT.compareAndSet(this, oldEvent, newEvent)) {
+          return oldEvent;
         }
       }
-      return dispatched;
     }
 
+    private Object take() {
+
+      return EVENT.getAndSet(this, TAKEN);
+    }
+
+    private boolean isTaken() {
+
+      return (this.event == TAKEN);
+    }
+  }
+
+  /**
+   * Element of the queue wrapping an event together with the {@link System#nanoTime() time} it was added. Only used
+   * while the {@link EventJfr.Dispatch} event is recorded to determine the time an event waited in the queue.
+   */
+  private static final class QueuedEvent {
+
+    private final Object event;
+
+    private final long enqueueNanos;
+
+    private QueuedEvent(Object event, long enqueueNanos) {
+
+      super();
+      this.event = event;
+      this.enqueueNanos = enqueueNanos;
+    }
+
+    private static Object of(Object event) {
+
+      if (EventJfr.isDispatchEnabled()) {
+        return new QueuedEvent(event, System.nanoTime());
+      }
+      return event;
+    }
+
+    private static Object unwrap(Object element) {
+
+      if (element instanceof QueuedEvent queued) {
+        return queued.event;
+      }
+      return element;
+    }
+
+    private static long getEnqueueNanos(Object element) {
+
+      if (element instanceof QueuedEvent queued) {
+        return queued.enqueueNanos;
+      }
+      return 0;
+    }
+  }
+
+  /**
+   * Immutable snapshot of all {@link EventListener}s responsible for a concrete event type including those registered
+   * for its super-types. Allows to dispatch an event with a single map lookup and a tight loop.
+   */
+  private static final class DispatchPlan {
+
+    private final EventListener<?>[] listeners;
+
+    /** {@code true} if at least one of the {@link #listeners} is a {@link BatchEventListener}. */
+    private final boolean batch;
+
+    /** The {@link StickyCache}s retaining the events or {@code null} if the event type is not sticky. */
+    private final StickyCache[] stickyCaches;
+
+    /** The {@link AbstractEventBus#modCount} when this plan was created. */
+    private final int modCount;
+
+    private DispatchPlan(EventListener<?>[] listeners, boolean batch, StickyCache[] stickyCaches, int modCount) {
+
+      super();
+      this.listeners = listeners;
+      this.batch = batch;
+      this.stickyCaches = stickyCaches;
+      this.modCount = modCount;
+    }
   }
 
-}
\ No newline at end of file
+}
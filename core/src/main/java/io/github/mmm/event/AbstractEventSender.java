@@ -2,8 +2,14 @@
  * http://www.apache.org/licenses/LICENSE-2.0 */
 package io.github.mmm.event;
 
+import java.util.function.Supplier;
+
+import io.github.mmm.event.metrics.EventMetrics;
+import io.github.mmm.event.metrics.EventMetricsAccess;
+
 /**
- * Implementation of {@link EventSource}.
+ * Implementation of {@link EventSource}. It is optimized for minimal memory footprint and is NOT thread-safe. If you
+ * need to add, remove or fire from multiple threads, use {@link AbstractConcurrentEventSender} instead.
  *
  * @param <E> the type of the events to {@link EventListener#onEvent(Object) send}.
  * @param <L> the type of the {@link EventListener listeners}.
@@ -14,6 +20,12 @@ public abstract class AbstractEventSender<E, L extends EventListener<?/* super E
 
   private EventSourceAdapter<E, L> eventAdapter;
 
+  /** The number of nested {@link #beginUpdate() updates} currently open. */
+  private int updateCount;
+
+  /** The event {@link #getEventMerger() merged} from the events fired during the current update or {@code null}. */
+  private E updateEvent;
+
   /**
    * The constructor.
    */
@@ -33,7 +45,18 @@ public abstract class AbstractEventSender<E, L extends EventListener<?/* super E
   @Override
   public boolean removeListener(L listener) {
 
-    EventSourceAdapter<E, L> adapter = this.eventAdapter.removeListener((EventListener) listener);
+    return removeListener((EventListener) listener, false);
+  }
+
+  @Override
+  protected boolean doRemoveListener(EventListener<E> listener) {
+
+    return removeListener(listener, true);
+  }
+
+  private boolean removeListener(EventListener<? super E> listener, boolean identity) {
+
+    EventSourceAdapter<E, L> adapter = this.eventAdapter.removeListener(listener, identity);
     if (adapter == null) {
       return false;
     }
@@ -60,14 +83,116 @@ public abstract class AbstractEventSender<E, L extends EventListener<?/* super E
 
   /**
    * @param event the event to {@link EventListener#onEvent(Object) send} to all {@link #addListener(EventListener)
-   *        registered} {@link EventListener}s.
+   *        registered} {@link EventListener}s. While an {@link #beginUpdate() update} is open the event is only
+   *        {@link #getEventMerger() merged} and sent when the update {@link #endUpdate() ends}.
    * @return {@code true} if the event has actually been dispatched, {@code false} otherwise (no listener was
-   *         {@link #addListener(EventListener) registered} for the event).
+   *         {@link #addListener(EventListener) registered} for the event or an {@link #beginUpdate() update} is
+   *         open).
    */
   @Override
   protected boolean fireEvent(E event) {
 
-    return this.eventAdapter.fireEvent(event);
+    if (this.updateCount > 0) {
+      if (this.updateEvent == null) {
+        this.updateEvent = event;
+      } else {
+        this.updateEvent = getEventMerger().merge(this.updateEvent, event);
+      }
+      return false;
+    }
+    boolean dispatched = this.eventAdapter.fireEvent(event);
+    EventMetrics metrics = EventMetricsAccess.get();
+    if (metrics != null) {
+      recordFired(metrics, event.getClass(), dispatched);
+    }
+    return dispatched;
+  }
+
+  /**
+   * Like {@link #fireEvent(Object)} but only creates the event if at least one {@link EventListener} is
+   * {@link #addListener(EventListener) registered}. Use this if creating the event is expensive or this sender
+   * typically has no {@link EventListener}s so nothing is allocated in that case.
+   *
+   * @param eventSupplier the {@link Supplier} creating the event to {@link EventListener#onEvent(Object) send}.
+   * @return {@code true} if the event has actually been dispatched, {@code false} otherwise (no listener was
+   *         {@link #addListener(EventListener) registered} and the event was not even created).
+   */
+  protected boolean fireEventLazy(Supplier<? extends E> eventSupplier) {
+
+    if (!hasListeners()) {
+      return false;
+    }
+    return fireEvent(eventSupplier.get());
+  }
+
+  /**
+   * Begins a bulk update. Until the update {@link #endUpdate() ends} {@link #fireEvent(Object) fired} events are not
+   * sent but {@link #getEventMerger() merged} so that a single coalesced event is sent at the end. Updates may be
+   * nested, only the end of the outermost update sends the event. Use with try-with-resources:
+   *
+   * <pre>
+   * try (Update update = sender.beginUpdate()) {
+   *   // perform many changes
+   * }
+   * </pre>
+   *
+   * @return the {@link Update} to {@link Update#close() close} in order to {@link #endUpdate() end} the update.
+   */
+  public Update beginUpdate() {
+
+    this.updateCount++;
+    return new Update(this);
+  }
+
+  /**
+   * Ends the current {@link #beginUpdate() update}. If it was the outermost update the event
+   * {@link #getEventMerger() merged} from all events fired during the update is sent (if any).
+   *
+   * @return {@code true} if the merged event has been dispatched, {@code false} otherwise.
+   * @throws IllegalStateException if no update has been {@link #beginUpdate() begun}.
+   */
+  public boolean endUpdate() {
+
+    if (this.updateCount == 0) {
+      throw new IllegalStateException("No update in progress.");
+    }
+    this.updateCount--;
+    if ((this.updateCount > 0) || (this.updateEvent == null)) {
+      return false;
+    }
+    E event = this.updateEvent;
+    this.updateEvent = null;
+    return fireEvent(event);
+  }
+
+  /**
+   * @return {@code true} if an {@link #beginUpdate() update} is currently open, {@code false} otherwise.
+   */
+  protected boolean isUpdating() {
+
+    return (this.updateCount > 0);
+  }
+
+  /**
+   * Override to coalesce the events fired during an {@link #beginUpdate() update} differently, e.g. with
+   * {@link EventMerger#ofChangeType(java.util.function.BiFunction)}.
+   *
+   * @return the {@link EventMerger} used to merge the events fired during an {@link #beginUpdate() update}. Defaults
+   *         to {@link EventMerger#last()}.
+   */
+  protected EventMerger<E> getEventMerger() {
+
+    return EventMerger.last();
+  }
+
+  static void recordFired(EventMetrics metrics, Class<?> eventType, boolean dispatched) {
+
+    metrics.onEventSent(eventType);
+    if (dispatched) {
+      metrics.onEventDispatched(eventType);
+    } else {
+      metrics.onEventUndispatched(eventType);
+    }
   }
 
   /**
@@ -83,4 +208,32 @@ public abstract class AbstractEventSender<E, L extends EventListener<?/* super E
     this.eventAdapter = EventSourceAdapter.readOnly();
   }
 
+  /**
+   * Handle of an {@link AbstractEventSender#beginUpdate() update} that {@link AbstractEventSender#endUpdate() ends}
+   * the update when {@link #close() closed}.
+   */
+  public static final class Update implements AutoCloseable {
+
+    private AbstractEventSender<?, ?> sender;
+
+    private Update(AbstractEventSender<?, ?> sender) {
+
+      super();
+      this.sender = sender;
+    }
+
+    /**
+     * {@link AbstractEventSender#endUpdate() Ends} the update. Calling this method again has no effect.
+     */
+    @Override
+    public void close() {
+
+      if (this.sender != null) {
+        AbstractEventSender<?, ?> eventSender = this.sender;
+        this.sender = null;
+        eventSender.endUpdate();
+      }
+    }
+  }
+
 }
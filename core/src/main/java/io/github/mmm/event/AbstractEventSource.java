@@ -25,16 +25,54 @@ public abstract class AbstractEventSource<E, L extends EventListener<?/* super E
 
     EventListener<E> l = (EventListener<E>) listener;
     if (weak) {
-      l = l.weak(this);
+      l = createWeakListener(l);
     }
     doAddListener(l);
   }
 
+  @SuppressWarnings("unchecked")
+  @Override
+  public Subscription subscribe(L listener, boolean weak) {
+
+    EventListener<E> l = (EventListener<E>) listener;
+    if (weak) {
+      l = createWeakListener(l);
+    }
+    doAddListener(l);
+    return new ListenerSubscription<>(this, l);
+  }
+
+  /**
+   * @param listener the {@link EventListener} to {@link #addListener(EventListener, boolean) add} weakly.
+   * @return the {@link EventListener#weak(EventSource) weak} {@link EventListener} wrapping the given
+   *         {@link EventListener}.
+   */
+  protected EventListener<E> createWeakListener(EventListener<E> listener) {
+
+    return listener.weak(this);
+  }
+
   /**
    * @param listener the {@link EventListener} to add.
    */
   protected abstract void doAddListener(EventListener<E> listener);
 
+  /**
+   * Removes exactly the given {@link EventListener} instance as it has been passed to
+   * {@link #doAddListener(EventListener)} (e.g. a {@link EventListener#weak(EventSource) weak} wrapper) matched by
+   * identity. Unlike {@link #removeListener(EventListener)} another registration of the same {@link EventListener} that
+   * {@link EventListener#matches(EventListener) matches} is never removed instead. The default implementation falls
+   * back to {@link #removeListener(EventListener)} and should be overridden.
+   *
+   * @param listener the registered {@link EventListener} instance to remove.
+   * @return {@code true} if the {@link EventListener} has been removed, {@code false} otherwise.
+   */
+  @SuppressWarnings("unchecked")
+  protected boolean doRemoveListener(EventListener<E> listener) {
+
+    return removeListener((L) listener);
+  }
+
   /**
    * @param event the event to {@link EventListener#onEvent(Object) send} to all {@link #addListener(EventListener)
    *        registered} {@link EventListener}s.
@@ -43,4 +81,32 @@ public abstract class AbstractEventSource<E, L extends EventListener<?/* super E
    */
   protected abstract boolean fireEvent(E event);
 
+  /**
+   * {@link Subscription} removing exactly the registered {@link EventListener} instance (e.g. the
+   * {@link EventListener#weak(EventSource) weak} wrapper) by
+   * {@link AbstractEventSource#doRemoveListener(EventListener) identity}.
+   */
+  private static final class ListenerSubscription<E> implements Subscription {
+
+    private AbstractEventSource<E, ?> source;
+
+    private final EventListener<E> listener;
+
+    private ListenerSubscription(AbstractEventSource<E, ?> source, EventListener<E> listener) {
+
+      super();
+      this.source = source;
+      this.listener = listener;
+    }
+
+    @Override
+    public synchronized void close() {
+
+      if (this.source != null) {
+        this.source.doRemoveListener(this.listener);
+        this.source = null;
+      }
+    }
+  }
+
 }
@@ -0,0 +1,46 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event;
+
+import io.github.mmm.event.metrics.EventMetrics;
+import io.github.mmm.event.metrics.EventMetricsAccess;
+
+/**
+ * Implementation of {@link EventSource} for primitive {@code int} values. Registered {@link IntEventListener}s
+ * receive the values {@link #fireEvent(int) fired} without boxing while other {@link EventListener}s receive them
+ * as {@link Integer}. Like {@link AbstractEventSender} this is NOT thread-safe.
+ *
+ * @param <L> the type of the {@link EventListener listeners}.
+ * @see IntEventListener
+ */
+public abstract class AbstractIntEventSender<L extends EventListener<?/* super Integer */> >
+    extends AbstractEventSender<Integer, L> {
+
+  /**
+   * The constructor.
+   */
+  public AbstractIntEventSender() {
+
+    super();
+  }
+
+  /**
+   * @param value the {@code int} value to {@link IntEventListener#onEvent(int) send} to all
+   *        {@link #addListener(EventListener) registered} {@link EventListener}s.
+   * @return {@code true} if the event has actually been dispatched, {@code false} otherwise (no listener was
+   *         {@link #addListener(EventListener) registered} for the event).
+   */
+  protected boolean fireEvent(int value) {
+
+    if (isUpdating()) {
+      return fireEvent(Integer.valueOf(value));
+    }
+    boolean dispatched = getEventAdapter().fireIntEvent(value);
+    EventMetrics metrics = EventMetricsAccess.get();
+    if (metrics != null) {
+      recordFired(metrics, Integer.class, dispatched);
+    }
+    return dispatched;
+  }
+
+}
@@ -0,0 +1,46 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event;
+
+import io.github.mmm.event.metrics.EventMetrics;
+import io.github.mmm.event.metrics.EventMetricsAccess;
+
+/**
+ * Implementation of {@link EventSource} for primitive {@code long} values. Registered {@link LongEventListener}s
+ * receive the values {@link #fireEvent(long) fired} without boxing while other {@link EventListener}s receive them
+ * as {@link Long}. Like {@link AbstractEventSender} this is NOT thread-safe.
+ *
+ * @param <L> the type of the {@link EventListener listeners}.
+ * @see LongEventListener
+ */
+public abstract class AbstractLongEventSender<L extends EventListener<?/* super Long */> >
+    extends AbstractEventSender<Long, L> {
+
+  /**
+   * The constructor.
+   */
+  public AbstractLongEventSender() {
+
+    super();
+  }
+
+  /**
+   * @param value the {@code long} value to {@link LongEventListener#onEvent(long) send} to all
+   *        {@link #addListener(EventListener) registered} {@link EventListener}s.
+   * @return {@code true} if the event has actually been dispatched, {@code false} otherwise (no listener was
+   *         {@link #addListener(EventListener) registered} for the event).
+   */
+  protected boolean fireEvent(long value) {
+
+    if (isUpdating()) {
+      return fireEvent(Long.valueOf(value));
+    }
+    boolean dispatched = getEventAdapter().fireLongEvent(value);
+    EventMetrics metrics = EventMetricsAccess.get();
+    if (metrics != null) {
+      recordFired(metrics, Long.class, dispatched);
+    }
+    return dispatched;
+  }
+
+}
@@ -0,0 +1,36 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event;
+
+import java.util.List;
+
+/**
+ * {@link EventListener} that can receive multiple events at once. This allows to amortize costs per event, e.g. when
+ * writing the events to a database or network socket. An {@link AbstractEventBus} groups consecutive events of the
+ * same type from its queue (e.g. {@link EventBus#sendEvents(java.util.Collection) sent as batch}) and passes them via
+ * {@link #onEvents(List)}. Events that are dispatched individually are still passed via {@link #onEvent(Object)}.
+ *
+ * @param <E> the type of the {@link #onEvents(List) handled} events.
+ */
+@FunctionalInterface
+public interface BatchEventListener<E> extends EventListener<E> {
+
+  /**
+   * This method is called if multiple events occurred.
+   *
+   * @param events the {@link List} with the events in the order they have been {@link EventBus#sendEvent(Object)
+   *        sent}. Shall not be modified or retained after this method returned.
+   */
+  void onEvents(List<E> events);
+
+  /**
+   * Delegates to {@link #onEvents(List)} with a singleton {@link List}. May be overridden to handle individual events
+   * without that allocation.
+   */
+  @Override
+  default void onEvent(E event) {
+
+    onEvents(List.of(event));
+  }
+
+}
@@ -25,5 +25,26 @@ public enum ChangeType {
    * A change of this type indicates, that something has been removed. E.g. one or multiple existing item(s) have been
    * removed from a collection.
    */
-  REMOVE
+  REMOVE;
+
+  /**
+   * Merges two subsequent changes of the same thing into one equivalent change. E.g. an {@link #ADD} followed by
+   * {@link #UPDATE}s is still an {@link #ADD} while an {@link #ADD} followed by a {@link #REMOVE} cancels out.
+   *
+   * @param next the {@link ChangeType} of the change that happened after this one.
+   * @return the {@link ChangeType} of the merged change or {@code null} if the changes cancel each other out.
+   */
+  public ChangeType merge(ChangeType next) {
+
+    if (this == ADD) {
+      if (next == REMOVE) {
+        return null;
+      }
+      return ADD;
+    } else if ((this == REMOVE) && (next == ADD)) {
+      return UPDATE;
+    }
+    return next;
+  }
+
 }
@@ -0,0 +1,32 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event;
+
+/**
+ * {@link EventListener} for primitive {@code double} values.
+ * {@link EventSourceAdapter#fireDoubleEvent(double) Firing} a primitive {@code double} passes it to
+ * {@link #onEvent(double)} without boxing it into {@link Double}.
+ *
+ * @see AbstractDoubleEventSender
+ */
+@FunctionalInterface
+public interface DoubleEventListener extends EventListener<Double> {
+
+  /**
+   * This method is called if an event occurred.
+   *
+   * @param value the {@code double} value of the event.
+   * @see #onEvent(Double)
+   */
+  void onEvent(double value);
+
+  /**
+   * Delegates to {@link #onEvent(double)} unboxing the given event.
+   */
+  @Override
+  default void onEvent(Double event) {
+
+    onEvent(event.doubleValue());
+  }
+
+}
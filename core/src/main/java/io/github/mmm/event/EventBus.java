@@ -2,6 +2,10 @@
  * http://www.apache.org/licenses/LICENSE-2.0 */
 package io.github.mmm.event;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Supplier;
+
 /**
  * This is the interface for an event bus. An event bus is a central place for {@link #sendEvent(Object) sending},
  * {@link #addListener(Class, EventListener) listening} to and {@link EventListener#onEvent(Object) receiving} events.
@@ -47,6 +51,82 @@ public interface EventBus {
    */
   void sendEvent(Object event);
 
+  /**
+   * Like {@link #sendEvent(Object)} but only creates and sends the event if an {@link EventListener} is
+   * {@link #hasListeners(Class) registered} for the given {@code eventType}. Use this if creating the event is
+   * expensive or the event is typically not listened to so nothing is allocated in that case.
+   *
+   * @param <E> is the type of the event to send.
+   * @param eventType is the {@link Class} reflecting the event to send. {@link EventListener}s only registered for a
+   *        sub-type of {@code eventType} are not considered.
+   * @param eventSupplier is the {@link Supplier} creating the event to {@link #sendEvent(Object) send}.
+   * @return {@code true} if the event has been created and sent, {@code false} otherwise.
+   */
+  default <E> boolean sendEvent(Class<E> eventType, Supplier<? extends E> eventSupplier) {
+
+    if (!hasListeners(eventType)) {
+      return false;
+    }
+    sendEvent(eventSupplier.get());
+    return true;
+  }
+
+  /**
+   * Like {@link #sendEvent(Object)} but never blocks or throws an exception if the event can not be accepted (e.g.
+   * because the event queue of the implementation is bounded and full).
+   *
+   * @param event is the event to send.
+   * @return {@code true} if the event has been accepted, {@code false} otherwise (the event was rejected and will
+   *         never be dispatched).
+   */
+  default boolean trySendEvent(Object event) {
+
+    sendEvent(event);
+    return true;
+  }
+
+  /**
+   * Sends multiple events at once. Implementations may do this more efficiently than {@link #sendEvent(Object)
+   * sending} the events one by one, e.g. by adding them to their queue atomically so they are dispatched in a row
+   * without events from other senders in between and can be passed to a {@link BatchEventListener} together.
+   *
+   * @param events the {@link Collection} with the events to {@link #sendEvent(Object) send} in the given order.
+   */
+  default void sendEvents(Collection<?> events) {
+
+    for (Object event : events) {
+      sendEvent(event);
+    }
+  }
+
+  /**
+   * @param events the events to {@link #sendEvent(Object) send} in the given order.
+   * @see #sendEvents(Collection)
+   */
+  default void sendEvents(Object... events) {
+
+    sendEvents(Arrays.asList(events));
+  }
+
+  /**
+   * Allows producers to skip creating events nobody is interested in:
+   *
+   * <pre>
+   * if (eventBus.hasListeners(MyEvent.class)) {
+   *   eventBus.sendEvent(new MyEvent(...));
+   * }
+   * </pre>
+   *
+   * @param eventType is the {@link Class} reflecting the events to send.
+   * @return {@code true} if an {@link EventListener} is {@link #addListener(Class, EventListener) registered} that
+   *         would receive events of the given type, {@code false} otherwise. Implementations that cannot determine
+   *         this cheaply always return {@code true}.
+   */
+  default boolean hasListeners(Class<?> eventType) {
+
+    return true;
+  }
+
   /**
    * This method registers a listener that is interested in events.
    *
@@ -54,12 +134,64 @@ public interface EventBus {
    * @param eventType is the {@link Class} reflecting the events to listen to. Typically this should be the exact type
    *        of some event sent via {@link #sendEvent(Object)}. However, polymorphic implementations of {@link EventBus}
    *        will also support event inheritance and allow you to register an {@link EventListener} for a
-   *        {@link Class#getSuperclass() super-class} of an event type.
+   *        {@link Class#getSuperclass() super-class} or {@link Class#getInterfaces() interface} of an event type.
    * @param listener is the {@link EventListener} that shall be {@link EventListener#onEvent(Object) notified} if an
    *        event of the given {@link Class} is {@link #sendEvent(Object) send}.
    */
   <E> void addListener(Class<E> eventType, EventListener<E> listener);
 
+  /**
+   * This method registers a listener that is interested in events.
+   *
+   * @param <E> is the type of the events to listen to.
+   * @param eventType is the {@link Class} reflecting the events to listen to.
+   * @param listener is the {@link EventListener} that shall be {@link EventListener#onEvent(Object) notified} if an
+   *        event of the given {@link Class} is {@link #sendEvent(Object) send}.
+   * @param weak - {@code true} if the {@link EventListener} may be garbage collected without being
+   *        {@link #removeListener(Class, EventListener) removed} via a {@link java.lang.ref.WeakReference},
+   *        {@code false} otherwise. In the first case you need to keep a reference to the {@link EventListener}
+   *        yourself as long as it shall receive events.
+   * @see EventSource#addListener(EventListener, boolean)
+   */
+  default <E> void addListener(Class<E> eventType, EventListener<E> listener, boolean weak) {
+
+    if (weak) {
+      throw new UnsupportedOperationException("Weak listeners are not supported by " + getClass().getName());
+    }
+    addListener(eventType, listener);
+  }
+
+  /**
+   * Same as {@link #addListener(Class, EventListener)} but returns a {@link Subscription} to remove the
+   * {@link EventListener} again.
+   *
+   * @param <E> is the type of the events to listen to.
+   * @param eventType is the {@link Class} reflecting the events to listen to.
+   * @param listener is the {@link EventListener} to register.
+   * @return the {@link Subscription} to {@link Subscription#close() unsubscribe} the {@link EventListener}.
+   */
+  default <E> Subscription subscribe(Class<E> eventType, EventListener<E> listener) {
+
+    return subscribe(eventType, listener, false);
+  }
+
+  /**
+   * Same as {@link #addListener(Class, EventListener, boolean)} but returns a {@link Subscription} to remove the
+   * {@link EventListener} again. Implementations may remove the {@link EventListener} more efficiently via the
+   * {@link Subscription} as it knows where the {@link EventListener} has been registered.
+   *
+   * @param <E> is the type of the events to listen to.
+   * @param eventType is the {@link Class} reflecting the events to listen to.
+   * @param listener is the {@link EventListener} to register.
+   * @param weak - see {@link #addListener(Class, EventListener, boolean)}.
+   * @return the {@link Subscription} to {@link Subscription#close() unsubscribe} the {@link EventListener}.
+   */
+  default <E> Subscription subscribe(Class<E> eventType, EventListener<E> listener, boolean weak) {
+
+    addListener(eventType, listener, weak);
+    return Subscription.of(() -> removeListener(eventType, listener));
+  }
+
   /**
    * This method removes a listener. If the listener was not {@link #addListener(Class, EventListener) registered}
    * before this method will have no effect.
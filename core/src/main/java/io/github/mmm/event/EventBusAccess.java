@@ -1,20 +1,61 @@
 package io.github.mmm.event;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ServiceLoader;
+import java.util.ServiceLoader.Provider;
 
-import io.github.mmm.base.service.ServiceHelper;
+import io.github.mmm.event.impl.EventBusImpl;
 
 /**
- * Class giving {@link #get() global access} to the {@link EventBus}.
+ * Class giving {@link #get() global access} to the {@link EventBus}. The implementation is loaded via
+ * {@link ServiceLoader}: If the system property {@value #PROPERTY_EVENT_BUS} is set, the provider with the given
+ * (qualified or simple) class name is used (e.g. {@code AsyncEventBus}). Otherwise a single custom provider from
+ * another module takes precedence and {@link EventBusImpl} is used as default.
  */
 public final class EventBusAccess {
 
-  private static final EventBus EVENT_BUS = ServiceHelper.singleton(ServiceLoader.load(EventBus.class), false);
+  /** Name of the system property to select the {@link EventBus} implementation. */
+  public static final String PROPERTY_EVENT_BUS = "io.github.mmm.event.EventBus";
+
+  private static final EventBus EVENT_BUS = load();
 
   private EventBusAccess() {
 
   }
 
+  private static EventBus load() {
+
+    String implementation = System.getProperty(PROPERTY_EVENT_BUS);
+    Provider<EventBus> defaultProvider = null;
+    List<Provider<EventBus>> customProviders = new ArrayList<>();
+    for (Provider<EventBus> provider : ServiceLoader.load(EventBus.class).stream().toList()) {
+      Class<? extends EventBus> type = provider.type();
+      if (implementation != null) {
+        if (type.getName().equals(implementation) || type.getSimpleName().equals(implementation)) {
+          return provider.get();
+        }
+      } else if (type == EventBusImpl.class) {
+        defaultProvider = provider;
+      } else if (type.getModule() != EventBusAccess.class.getModule()) {
+        customProviders.add(provider);
+      }
+    }
+    if (implementation != null) {
+      throw new IllegalStateException("No EventBus implementation found for " + PROPERTY_EVENT_BUS + "="
+          + implementation);
+    }
+    if (customProviders.size() == 1) {
+      return customProviders.get(0).get();
+    } else if (customProviders.size() > 1) {
+      throw new IllegalStateException("Multiple EventBus implementations found: " + customProviders.stream()
+          .map(p -> p.type().getName()).toList() + " - select one via system property " + PROPERTY_EVENT_BUS);
+    } else if (defaultProvider != null) {
+      return defaultProvider.get();
+    }
+    return new EventBusImpl();
+  }
+
   /**
    * @return the {@link EventBus} instance.
    */
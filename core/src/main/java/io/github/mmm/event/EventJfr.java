@@ -0,0 +1,155 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+import jdk.jfr.Timespan;
+
+/**
+ * Custom Java Flight Recorder events for the dispatching of events. The JFR events are only created if a recording
+ * with the according event enabled is running so nothing is allocated otherwise. Like JDK events they only get
+ * committed if their duration exceeds the configured threshold (default {@code 1 ms}).
+ */
+final class EventJfr {
+
+  private static final EventType LISTENER_INVOCATION_TYPE = EventType.getEventType(ListenerInvocation.class);
+
+  private static final EventType DISPATCH_TYPE = EventType.getEventType(Dispatch.class);
+
+  private EventJfr() {
+
+  }
+
+  /**
+   * @return a new started {@link ListenerInvocation} or {@code null} if not enabled.
+   */
+  static ListenerInvocation beginListenerInvocation() {
+
+    if (!LISTENER_INVOCATION_TYPE.isEnabled()) {
+      return null;
+    }
+    ListenerInvocation invocation = new ListenerInvocation();
+    invocation.begin();
+    return invocation;
+  }
+
+  /**
+   * @return {@code true} if the {@link Dispatch} event is enabled so events shall be queued with their timestamp.
+   */
+  static boolean isDispatchEnabled() {
+
+    return DISPATCH_TYPE.isEnabled();
+  }
+
+  /**
+   * @param enqueueNanos the {@link System#nanoTime() time} the event was added to the queue or {@code 0} if unknown.
+   * @return a new started {@link Dispatch} or {@code null} if not enabled.
+   */
+  static Dispatch beginDispatch(long enqueueNanos) {
+
+    if (!DISPATCH_TYPE.isEnabled()) {
+      return null;
+    }
+    Dispatch dispatch = new Dispatch();
+    if (enqueueNanos != 0) {
+      dispatch.queueWaitTime = System.nanoTime() - enqueueNanos;
+    }
+    dispatch.begin();
+    return dispatch;
+  }
+
+  private static Class<?> getListenerType(EventListener<?> listener) {
+
+    EventListener<?> rawListener = listener.unwrap();
+    if (rawListener == null) {
+      rawListener = listener;
+    }
+    return rawListener.getClass();
+  }
+
+  /**
+   * Invocation of a single {@link EventListener}.
+   */
+  @Name("io.github.mmm.event.ListenerInvocation")
+  @Label("Listener Invocation")
+  @Description("Invocation of an event listener")
+  @Category({ "m-m-m", "Event" })
+  @Threshold("1 ms")
+  @StackTrace(false)
+  static final class ListenerInvocation extends Event {
+
+    @Label("Event Type")
+    Class<?> eventType;
+
+    @Label("Listener Type")
+    Class<?> listenerType;
+
+    /**
+     * @param event the event that has been dispatched.
+     * @param listener the {@link EventListener} that has been invoked.
+     */
+    void end(Object event, EventListener<?> listener) {
+
+      endForType(event.getClass(), listener);
+    }
+
+    /**
+     * @param type the {@link Class} reflecting the event that has been dispatched (e.g. {@link Integer} for a
+     *        primitive {@code int} value).
+     * @param listener the {@link EventListener} that has been invoked.
+     */
+    void endForType(Class<?> type, EventListener<?> listener) {
+
+      end();
+      if (shouldCommit()) {
+        this.eventType = type;
+        this.listenerType = getListenerType(listener);
+        commit();
+      }
+    }
+  }
+
+  /**
+   * Dispatching of one or multiple events taken from the queue of an event bus to all its listeners.
+   */
+  @Name("io.github.mmm.event.Dispatch")
+  @Label("Event Dispatch")
+  @Description("Dispatching of an event from the queue of an event bus to all its listeners")
+  @Category({ "m-m-m", "Event" })
+  @Threshold("1 ms")
+  @StackTrace(false)
+  static final class Dispatch extends Event {
+
+    @Label("Event Type")
+    Class<?> eventType;
+
+    @Label("Event Count")
+    int eventCount;
+
+    @Label("Queue Wait Time")
+    @Timespan(Timespan.NANOSECONDS)
+    long queueWaitTime;
+
+    /**
+     * @param type the {@link Class} of the dispatched event(s).
+     * @param count the number of dispatched events.
+     */
+    void end(Class<?> type, int count) {
+
+      end();
+      if (shouldCommit()) {
+        this.eventType = type;
+        this.eventCount = count;
+        commit();
+      }
+    }
+  }
+
+}
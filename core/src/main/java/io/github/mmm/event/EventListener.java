@@ -63,7 +63,16 @@ public interface EventListener<E> /* extends java.util.EventListener */ {
    */
   default boolean matches(EventListener<?> listener) {
 
-    listener = listener.unwrap();
+    if (this == listener) {
+      // also matches a registered wrapper itself (e.g. to remove a weak listener)
+      return true;
+    }
+    EventListener<?> rawListener = listener.unwrap();
+    if (rawListener == null) {
+      // garbage collected weak listener
+      return false;
+    }
+    listener = rawListener;
     if (this == listener) {
       return true;
     } else if ((listener.isMatchedUsingEquals()) && listener.equals(this)) {
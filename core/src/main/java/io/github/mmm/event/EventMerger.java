@@ -0,0 +1,88 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event;
+
+import java.util.Objects;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Function to coalesce events fired during a {@link AbstractEventSender#beginUpdate() bulk update} into a single event
+ * that is sent when the update {@link AbstractEventSender#endUpdate() ends}.
+ *
+ * @param <E> the type of the events to merge.
+ * @see AbstractEventSender#getEventMerger()
+ */
+@FunctionalInterface
+public interface EventMerger<E> {
+
+  /**
+   * @param previous the event merged from all previous events of the current update.
+   * @param next the new event that occurred after {@code previous}.
+   * @return the merged event representing both given events or {@code null} if the events cancel each other out so
+   *         nothing has to be sent at all.
+   */
+  E merge(E previous, E next);
+
+  /**
+   * @param <E> the type of the events to merge.
+   * @return the {@link EventMerger} that simply keeps the last event.
+   */
+  static <E> EventMerger<E> last() {
+
+    return (previous, next) -> next;
+  }
+
+  /**
+   * @param <E> the type of the events to merge.
+   * @param changeTypeSetter the {@link BiFunction} to create an event like the given one (the last event) but with the
+   *        given {@link ChangeType}.
+   * @return the {@link EventMerger} that {@link ChangeType#merge(ChangeType) merges} the
+   *         {@link KeyedEvent#getChangeType() change types} of events with the same {@link KeyedEvent#getKey() key}.
+   * @see #ofChangeType(Function, Function, BiFunction)
+   */
+  static <E extends KeyedEvent> EventMerger<E> ofChangeType(
+      BiFunction<? super E, ChangeType, ? extends E> changeTypeSetter) {
+
+    return ofChangeType(KeyedEvent::getKey, KeyedEvent::getChangeType, changeTypeSetter);
+  }
+
+  /**
+   * @param <E> the type of the events to merge.
+   * @param keyGetter the {@link Function} to get the key identifying the item an event is about. Keys are compared via
+   *        {@link Object#equals(Object) equals}.
+   * @param changeTypeGetter the {@link Function} to get the {@link ChangeType} of an event.
+   * @param changeTypeSetter the {@link BiFunction} to create an event like the given one (the last event) but with the
+   *        given {@link ChangeType}.
+   * @return the {@link EventMerger} that {@link ChangeType#merge(ChangeType) merges} the {@link ChangeType}s of
+   *         events with the same key. So e.g. an {@link ChangeType#ADD ADD} followed by a {@link ChangeType#REMOVE
+   *         REMOVE} of the same item cancels out and repeated {@link ChangeType#UPDATE UPDATE}s collapse into the last
+   *         one. Events with different keys can not be represented by a single event so the next event is kept but
+   *         with {@link ChangeType#UPDATE UPDATE} telling the listeners that they have to refresh instead of applying
+   *         a specific change.
+   */
+  static <E> EventMerger<E> ofChangeType(Function<? super E, ?> keyGetter,
+      Function<? super E, ChangeType> changeTypeGetter,
+      BiFunction<? super E, ChangeType, ? extends E> changeTypeSetter) {
+
+    Objects.requireNonNull(keyGetter, "keyGetter");
+    Objects.requireNonNull(changeTypeGetter, "changeTypeGetter");
+    Objects.requireNonNull(changeTypeSetter, "changeTypeSetter");
+    return (previous, next) -> {
+      ChangeType nextType = changeTypeGetter.apply(next);
+      ChangeType mergedType;
+      if (Objects.equals(keyGetter.apply(previous), keyGetter.apply(next))) {
+        mergedType = changeTypeGetter.apply(previous).merge(nextType);
+      } else {
+        mergedType = ChangeType.UPDATE;
+      }
+      if (mergedType == null) {
+        return null;
+      } else if (mergedType == nextType) {
+        return next;
+      }
+      return changeTypeSetter.apply(next, mergedType);
+    };
+  }
+
+}
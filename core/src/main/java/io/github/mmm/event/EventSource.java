@@ -62,6 +62,34 @@ public interface EventSource<E, L extends EventListener<?/* super E */> > {
    */
   void addListener(L listener, boolean weak);
 
+  /**
+   * Same as {@link #addListener(EventListener)} but returns a {@link Subscription} to remove the
+   * {@link EventListener} again.
+   *
+   * @param listener the {@link EventListener} to register.
+   * @return the {@link Subscription} to {@link Subscription#close() unsubscribe} the {@link EventListener}.
+   */
+  default Subscription subscribe(L listener) {
+
+    return subscribe(listener, false);
+  }
+
+  /**
+   * Same as {@link #addListener(EventListener, boolean)} but returns a {@link Subscription} to remove the
+   * {@link EventListener} again. The default implementation simply {@link #removeListener(EventListener) removes} the
+   * first matching {@link EventListener} while {@link AbstractEventSource} removes exactly the registration the
+   * {@link Subscription} was created for (matched by identity).
+   *
+   * @param listener the {@link EventListener} to register.
+   * @param weak - see {@link #addListener(EventListener, boolean)}.
+   * @return the {@link Subscription} to {@link Subscription#close() unsubscribe} the {@link EventListener}.
+   */
+  default Subscription subscribe(L listener, boolean weak) {
+
+    addListener(listener, weak);
+    return Subscription.of(() -> removeListener(listener));
+  }
+
   /**
    * This method removes an {@link EventListener}. If the {@link EventListener} was not registered before this method
    * does not do any change. Otherwise the first matching {@link EventListener} will be removed. So if you
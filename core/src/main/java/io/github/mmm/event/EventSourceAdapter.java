@@ -3,9 +3,12 @@
 package io.github.mmm.event;
 
 import java.util.Arrays;
+import java.util.function.Supplier;
 
 import io.github.mmm.base.exception.ReadOnlyException;
 import io.github.mmm.event.impl.WeakEventListener;
+import io.github.mmm.event.metrics.EventMetrics;
+import io.github.mmm.event.metrics.EventMetricsAccess;
 
 /**
  * Adapter for {@link EventSource}.
@@ -38,7 +41,20 @@ public abstract class EventSourceAdapter<E, L extends EventListener<?>> {
    * @return {@code null} if the given {@link EventListener} was not registered and nothing changed, otherwise this
    *         adapter itself or a new instance capable to handle less listeners.
    */
-  public abstract EventSourceAdapter<E, L> removeListener(EventListener<? super E> listener);
+  public EventSourceAdapter<E, L> removeListener(EventListener<? super E> listener) {
+
+    return removeListener(listener, false);
+  }
+
+  /**
+   * @param listener - see {@link EventSource#removeListener(EventListener)}.
+   * @param identity - {@code true} to only remove exactly the given {@link EventListener} instance as it has been
+   *        {@link #addListener(EventListener) added} (e.g. a {@link EventListener#weak(EventSource) weak} wrapper),
+   *        {@code false} to remove the first {@link EventListener#matches(EventListener) matching} one.
+   * @return {@code null} if the given {@link EventListener} was not registered and nothing changed, otherwise this
+   *         adapter itself or a new instance capable to handle less listeners.
+   */
+  public abstract EventSourceAdapter<E, L> removeListener(EventListener<? super E> listener, boolean identity);
 
   /**
    * @param event the event to {@link EventListener#onEvent(Object) send} to all {@link #addListener(EventListener)
@@ -48,13 +64,146 @@ public abstract class EventSourceAdapter<E, L extends EventListener<?>> {
    */
   public abstract boolean fireEvent(E event);
 
+  /**
+   * Like {@link #fireEvent(Object)} but only creates the event if there is at least one {@link EventListener}
+   * {@link #addListener(EventListener) registered} to receive it. Therefore nothing is allocated if there is no
+   * {@link EventListener} (as long as the given {@link Supplier} itself is not created on every call).
+   *
+   * @param eventSupplier the {@link Supplier} creating the event to {@link EventListener#onEvent(Object) send}.
+   * @return {@code true} if the event has actually been dispatched, {@code false} otherwise (no listener was
+   *         {@link #addListener(EventListener) registered} and the event was not even created).
+   */
+  public boolean fireEventLazy(Supplier<? extends E> eventSupplier) {
+
+    if (!hasListeners()) {
+      return false;
+    }
+    return fireEvent(eventSupplier.get());
+  }
+
+  /**
+   * Like {@link #fireEvent(Object)} for a primitive {@code int} value that is passed to {@link IntEventListener}s
+   * without boxing. Shall only be used if the events are of type {@link Integer}.
+   *
+   * @param value the {@code int} value to {@link IntEventListener#onEvent(int) send} to all
+   *        {@link #addListener(EventListener) registered} {@link EventListener}s.
+   * @return {@code true} if the event has actually been dispatched, {@code false} otherwise (no listener was
+   *         {@link #addListener(EventListener) registered} for the event).
+   */
+  public boolean fireIntEvent(int value) {
+
+    return firePrimitiveEvent(Integer.class, value);
+  }
+
+  /**
+   * Like {@link #fireEvent(Object)} for a primitive {@code long} value that is passed to {@link LongEventListener}s
+   * without boxing. Shall only be used if the events are of type {@link Long}.
+   *
+   * @param value the {@code long} value to {@link LongEventListener#onEvent(long) send} to all
+   *        {@link #addListener(EventListener) registered} {@link EventListener}s.
+   * @return {@code true} if the event has actually been dispatched, {@code false} otherwise (no listener was
+   *         {@link #addListener(EventListener) registered} for the event).
+   */
+  public boolean fireLongEvent(long value) {
+
+    return firePrimitiveEvent(Long.class, value);
+  }
+
+  /**
+   * Like {@link #fireEvent(Object)} for a primitive {@code double} value that is passed to {@link DoubleEventListener}s
+   * without boxing. Shall only be used if the events are of type {@link Double}.
+   *
+   * @param value the {@code double} value to {@link DoubleEventListener#onEvent(double) send} to all
+   *        {@link #addListener(EventListener) registered} {@link EventListener}s.
+   * @return {@code true} if the event has actually been dispatched, {@code false} otherwise (no listener was
+   *         {@link #addListener(EventListener) registered} for the event).
+   */
+  public boolean fireDoubleEvent(double value) {
+
+    return firePrimitiveEvent(Double.class, Double.doubleToRawLongBits(value));
+  }
+
+  /**
+   * @param type the wrapper {@link Class} of the primitive type ({@link Integer}, {@link Long}, or {@link Double}).
+   * @param bits the primitive value as {@code long} (for {@code double} its {@link Double#doubleToRawLongBits(double)
+   *        raw bits}). This way all primitive types share a single implementation per state of this adapter.
+   * @return {@code true} if the event has actually been dispatched, {@code false} otherwise.
+   */
+  boolean firePrimitiveEvent(Class<?> type, long bits) {
+
+    return false;
+  }
+
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  boolean firePrimitiveEvent(Class<?> type, long bits, EventListener listener) {
+
+    EventMetrics metrics = EventMetricsAccess.get();
+    long start = 0;
+    if (metrics != null) {
+      start = System.nanoTime();
+    }
+    EventJfr.ListenerInvocation jfrEvent = EventJfr.beginListenerInvocation();
+    try {
+      if (type == Integer.class) {
+        if (listener instanceof IntEventListener intListener) {
+          intListener.onEvent((int) bits);
+        } else {
+          listener.onEvent(Integer.valueOf((int) bits));
+        }
+      } else if (type == Long.class) {
+        if (listener instanceof LongEventListener longListener) {
+          longListener.onEvent(bits);
+        } else {
+          listener.onEvent(Long.valueOf(bits));
+        }
+      } else {
+        double value = Double.longBitsToDouble(bits);
+        if (listener instanceof DoubleEventListener doubleListener) {
+          doubleListener.onEvent(value);
+        } else {
+          listener.onEvent(Double.valueOf(value));
+        }
+      }
+      if (metrics != null) {
+        metrics.onListenerInvoked(type, listener, System.nanoTime() - start);
+      }
+      return true;
+    } catch (Exception e) {
+      if (metrics != null) {
+        metrics.onListenerError(type, listener, e);
+      }
+      Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+    } finally {
+      if (jfrEvent != null) {
+        jfrEvent.endForType(type, listener);
+      }
+    }
+    return false;
+  }
+
   boolean fireEvent(E event, EventListener<? super E> listener) {
 
+    EventMetrics metrics = EventMetricsAccess.get();
+    long start = 0;
+    if (metrics != null) {
+      start = System.nanoTime();
+    }
+    EventJfr.ListenerInvocation jfrEvent = EventJfr.beginListenerInvocation();
     try {
       listener.onEvent(event);
+      if (metrics != null) {
+        metrics.onListenerInvoked(event.getClass(), listener, System.nanoTime() - start);
+      }
       return true;
     } catch (Exception e) {
+      if (metrics != null) {
+        metrics.onListenerError(event.getClass(), listener, e);
+      }
       Thread.currentThread().getUncaughtExceptionHandler().uncaughtException(Thread.currentThread(), e);
+    } finally {
+      if (jfrEvent != null) {
+        jfrEvent.end(event, listener);
+      }
     }
     return false;
   }
@@ -128,7 +277,7 @@ public abstract class EventSourceAdapter<E, L extends EventListener<?>> {
     }
 
     @Override
-    public EventSourceAdapter removeListener(EventListener listener) {
+    public EventSourceAdapter removeListener(EventListener listener, boolean identity) {
 
       return null;
     }
@@ -183,9 +332,9 @@ public abstract class EventSourceAdapter<E, L extends EventListener<?>> {
 
     @SuppressWarnings("unchecked")
     @Override
-    public EventSourceAdapter<E, L> removeListener(EventListener<? super E> eventListener) {
+    public EventSourceAdapter<E, L> removeListener(EventListener<? super E> eventListener, boolean identity) {
 
-      if (eventListener.matches(this.listener)) {
+      if ((eventListener == this.listener) || (!identity && eventListener.matches(this.listener))) {
         return EMPTY;
       }
       return null;
@@ -197,6 +346,12 @@ public abstract class EventSourceAdapter<E, L extends EventListener<?>> {
       return fireEvent(event, this.listener);
     }
 
+    @Override
+    boolean firePrimitiveEvent(Class<?> type, long bits) {
+
+      return firePrimitiveEvent(type, bits, this.listener);
+    }
+
     @Override
     public boolean hasListeners() {
 
@@ -264,10 +419,10 @@ public abstract class EventSourceAdapter<E, L extends EventListener<?>> {
     }
 
     @Override
-    public EventSourceAdapter<E, L> removeListener(EventListener<? super E> listener) {
+    public EventSourceAdapter<E, L> removeListener(EventListener<? super E> listener, boolean identity) {
 
       for (int i = 0; i < this.listenerCount; i++) {
-        if (listener.matches(this.listeners[i])) {
+        if ((listener == this.listeners[i]) || (!identity && listener.matches(this.listeners[i]))) {
           if (this.listenerCount == 2) {
             return new Single<>(this.listeners[1 - i]);
           } else {
@@ -309,6 +464,24 @@ public abstract class EventSourceAdapter<E, L extends EventListener<?>> {
       return dispatched;
     }
 
+    @Override
+    boolean firePrimitiveEvent(Class<?> type, long bits) {
+
+      boolean dispatched = false;
+      try {
+        this.locked = true;
+        for (int i = 0; i < this.listenerCount; i++) {
+          boolean send = firePrimitiveEvent(type, bits, this.listeners[i]);
+          if (send) {
+            dispatched = true;
+          }
+        }
+      } finally {
+        this.locked = false;
+      }
+      return dispatched;
+    }
+
     @Override
     public boolean hasListeners() {
 
@@ -355,7 +528,7 @@ public abstract class EventSourceAdapter<E, L extends EventListener<?>> {
     }
 
     @Override
-    public EventSourceAdapter removeListener(EventListener listener) {
+    public EventSourceAdapter removeListener(EventListener listener, boolean identity) {
 
       return null;
     }
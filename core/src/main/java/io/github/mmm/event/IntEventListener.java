@@ -0,0 +1,31 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event;
+
+/**
+ * {@link EventListener} for primitive {@code int} values. {@link EventSourceAdapter#fireIntEvent(int) Firing} a
+ * primitive {@code int} passes it to {@link #onEvent(int)} without boxing it into {@link Integer}.
+ *
+ * @see AbstractIntEventSender
+ */
+@FunctionalInterface
+public interface IntEventListener extends EventListener<Integer> {
+
+  /**
+   * This method is called if an event occurred.
+   *
+   * @param value the {@code int} value of the event.
+   * @see #onEvent(Integer)
+   */
+  void onEvent(int value);
+
+  /**
+   * Delegates to {@link #onEvent(int)} unboxing the given event.
+   */
+  @Override
+  default void onEvent(Integer event) {
+
+    onEvent(event.intValue());
+  }
+
+}
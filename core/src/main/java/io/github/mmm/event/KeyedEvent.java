@@ -0,0 +1,27 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event;
+
+/**
+ * Interface for an event about a particular thing identified by a {@link #getKey() key} (e.g. the price of a specific
+ * instrument). If {@link AbstractEventBus#setConflating(boolean) conflation} is enabled, an event with
+ * {@link ChangeType#UPDATE} replaces a previous event of the same type and {@link #getKey() key} that has not yet been
+ * dispatched.
+ */
+public interface KeyedEvent {
+
+  /**
+   * @return the key identifying the thing this event is about. Has to implement {@link Object#equals(Object) equals}
+   *         and {@link Object#hashCode() hashCode} properly.
+   */
+  Object getKey();
+
+  /**
+   * @return the {@link ChangeType} of this event. Only events with {@link ChangeType#UPDATE} (default) are conflated.
+   */
+  default ChangeType getChangeType() {
+
+    return ChangeType.UPDATE;
+  }
+
+}
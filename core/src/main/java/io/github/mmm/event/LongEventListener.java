@@ -0,0 +1,31 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event;
+
+/**
+ * {@link EventListener} for primitive {@code long} values. {@link EventSourceAdapter#fireLongEvent(long) Firing} a
+ * primitive {@code long} passes it to {@link #onEvent(long)} without boxing it into {@link Long}.
+ *
+ * @see AbstractLongEventSender
+ */
+@FunctionalInterface
+public interface LongEventListener extends EventListener<Long> {
+
+  /**
+   * This method is called if an event occurred.
+   *
+   * @param value the {@code long} value of the event.
+   * @see #onEvent(Long)
+   */
+  void onEvent(long value);
+
+  /**
+   * Delegates to {@link #onEvent(long)} unboxing the given event.
+   */
+  @Override
+  default void onEvent(Long event) {
+
+    onEvent(event.longValue());
+  }
+
+}
@@ -0,0 +1,36 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event;
+
+/**
+ * This enum contains the available policies how an {@link EventBus} with a bounded event queue behaves if an event is
+ * {@link EventBus#sendEvent(Object) sent} while the queue is full.
+ *
+ * @see AbstractEventBus#getOverflowPolicy()
+ */
+public enum OverflowPolicy {
+
+  /**
+   * The sender is blocked until there is space in the queue. If the sender is the {@link Thread} currently
+   * dispatching the events (an {@link EventListener} sending an event), the event is dispatched directly to avoid a
+   * dead-lock.
+   */
+  BLOCK,
+
+  /** The new event is discarded. */
+  DROP_NEWEST,
+
+  /** The oldest event from the queue is discarded to make space for the new event. */
+  DROP_OLDEST,
+
+  /** An {@link IllegalStateException} is thrown and the new event is discarded. */
+  FAIL,
+
+  /**
+   * The new event is dispatched directly in the {@link Thread} of the sender bypassing the queue. This slows down the
+   * senders but never loses events. However, {@link EventListener}s may then be called concurrently and events may
+   * overtake queued events.
+   */
+  CALLER_RUNS
+
+}
@@ -0,0 +1,175 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event;
+
+import java.lang.ref.Reference;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.github.mmm.event.StickyPolicy.Retention;
+
+/**
+ * Retains the events of a {@link AbstractEventBus#setSticky(Class, StickyPolicy) sticky} event type according to its
+ * {@link StickyPolicy}. Retaining is synchronized while {@link #collect(Class, List) reading} the retained events is
+ * lock-free.
+ */
+abstract class StickyCache {
+
+  /** The sticky event type. */
+  final Class<?> eventType;
+
+  private final Retention retention;
+
+  StickyCache(Class<?> eventType, Retention retention) {
+
+    super();
+    this.eventType = eventType;
+    this.retention = retention;
+  }
+
+  /**
+   * @param eventType the sticky event type.
+   * @param policy the {@link StickyPolicy}.
+   * @return the new {@link StickyCache}.
+   */
+  static StickyCache of(Class<?> eventType, StickyPolicy policy) {
+
+    if (policy.isPerKey()) {
+      return new PerKey(eventType, policy.getRetention(), policy.getCount());
+    }
+    return new Last(eventType, policy.getRetention(), policy.getCount());
+  }
+
+  /**
+   * @param event the dispatched event to retain.
+   */
+  abstract void retain(Object event);
+
+  /**
+   * @param type the {@link Class} the events have to be an instance of.
+   * @param events the {@link List} where to add the retained events.
+   */
+  abstract void collect(Class<?> type, List<Object> events);
+
+  Object wrap(Object event) {
+
+    return switch (this.retention) {
+      case STRONG -> event;
+      case SOFT -> new SoftReference<>(event);
+      case WEAK -> new WeakReference<>(event);
+    };
+  }
+
+  void collect(Object value, Class<?> type, List<Object> events) {
+
+    Object event = value;
+    if (this.retention != Retention.STRONG) {
+      event = ((Reference<?>) value).get();
+    }
+    if ((event != null) && type.isInstance(event)) {
+      events.add(event);
+    }
+  }
+
+  /**
+   * Retains the most recent events in a copy-on-write array.
+   */
+  private static final class Last extends StickyCache {
+
+    private static final Object[] EMPTY = new Object[0];
+
+    private final int count;
+
+    /** The retained (and {@link #wrap(Object) wrapped}) events from oldest to most recent. */
+    private volatile Object[] values;
+
+    private Last(Class<?> eventType, Retention retention, int count) {
+
+      super(eventType, retention);
+      this.count = count;
+      this.values = EMPTY;
+    }
+
+    @Override
+    synchronized void retain(Object event) {
+
+      Object[] oldValues = this.values;
+      int length = Math.min(oldValues.length + 1, this.count);
+      Object[] newValues = new Object[length];
+      System.arraycopy(oldValues, oldValues.length - (length - 1), newValues, 0, length - 1);
+      newValues[length - 1] = wrap(event);
+      this.values = newValues;
+    }
+
+    @Override
+    void collect(Class<?> type, List<Object> events) {
+
+      for (Object value : this.values) {
+        collect(value, type, events);
+      }
+    }
+  }
+
+  /**
+   * Retains the most recent event per {@link KeyedEvent#getKey() key} in a {@link ConcurrentHashMap}.
+   */
+  private static final class PerKey extends StickyCache {
+
+    /** Key for events that are no {@link KeyedEvent} or have no {@link KeyedEvent#getKey() key}. */
+    private static final Object NO_KEY = new Object();
+
+    private final int maxKeys;
+
+    private final Map<Object, Object> key2valueMap;
+
+    /** The keys in the order of their last update. Only accessed when synchronized. */
+    private final LinkedHashMap<Object, Boolean> keyOrder;
+
+    private PerKey(Class<?> eventType, Retention retention, int maxKeys) {
+
+      super(eventType, retention);
+      this.maxKeys = maxKeys;
+      this.key2valueMap = new ConcurrentHashMap<>();
+      this.keyOrder = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    @Override
+    synchronized void retain(Object event) {
+
+      Object key = NO_KEY;
+      if (event instanceof KeyedEvent keyedEvent) {
+        Object eventKey = keyedEvent.getKey();
+        if (eventKey != null) {
+          key = eventKey;
+        }
+        if (keyedEvent.getChangeType() == ChangeType.REMOVE) {
+          this.key2valueMap.remove(key);
+          this.keyOrder.remove(key);
+          return;
+        }
+      }
+      this.key2valueMap.put(key, wrap(event));
+      this.keyOrder.put(key, Boolean.TRUE);
+      if (this.keyOrder.size() > this.maxKeys) {
+        Iterator<Object> iterator = this.keyOrder.keySet().iterator();
+        Object eldestKey = iterator.next();
+        iterator.remove();
+        this.key2valueMap.remove(eldestKey);
+      }
+    }
+
+    @Override
+    void collect(Class<?> type, List<Object> events) {
+
+      for (Object value : this.key2valueMap.values()) {
+        collect(value, type, events);
+      }
+    }
+  }
+
+}
@@ -0,0 +1,141 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event;
+
+/**
+ * Policy which events of a particular type an {@link AbstractEventBus} retains if the type has been made
+ * {@link AbstractEventBus#setSticky(Class, StickyPolicy) sticky}. Retained events are delivered to an
+ * {@link EventListener} when it is {@link EventBus#addListener(Class, EventListener) added} so components starting
+ * late receive the current state without asking for it. The memory is always bounded by the number of
+ * retained events and can further be released by the garbage collector via {@link Retention}.
+ *
+ * @see AbstractEventBus#setSticky(Class, StickyPolicy)
+ */
+public final class StickyPolicy {
+
+  private static final StickyPolicy LAST = new StickyPolicy(1, false, Retention.STRONG);
+
+  private final int count;
+
+  private final boolean perKey;
+
+  private final Retention retention;
+
+  private StickyPolicy(int count, boolean perKey, Retention retention) {
+
+    super();
+    this.count = count;
+    this.perKey = perKey;
+    this.retention = retention;
+  }
+
+  /**
+   * @return the {@link StickyPolicy} retaining only the most recent event.
+   */
+  public static StickyPolicy last() {
+
+    return LAST;
+  }
+
+  /**
+   * @param count the maximum number of events to retain.
+   * @return the {@link StickyPolicy} retaining the given number of most recent events.
+   */
+  public static StickyPolicy last(int count) {
+
+    if (count <= 0) {
+      throw new IllegalArgumentException("Invalid count: " + count);
+    }
+    if (count == 1) {
+      return LAST;
+    }
+    return new StickyPolicy(count, false, Retention.STRONG);
+  }
+
+  /**
+   * @param maxKeys the maximum number of {@link KeyedEvent#getKey() keys} to retain. If exceeded, the event of the
+   *        least recently updated key is discarded.
+   * @return the {@link StickyPolicy} retaining the most recent event per {@link KeyedEvent#getKey() key}. An event with
+   *         {@link ChangeType#REMOVE} discards the retained event of its key. Events that do not implement
+   *         {@link KeyedEvent} share a single key.
+   */
+  public static StickyPolicy lastPerKey(int maxKeys) {
+
+    if (maxKeys <= 0) {
+      throw new IllegalArgumentException("Invalid maximum number of keys: " + maxKeys);
+    }
+    return new StickyPolicy(maxKeys, true, Retention.STRONG);
+  }
+
+  /**
+   * @param newRetention the {@link Retention} of the events.
+   * @return a copy of this {@link StickyPolicy} with the given {@link Retention}.
+   */
+  public StickyPolicy withRetention(Retention newRetention) {
+
+    if (newRetention == this.retention) {
+      return this;
+    }
+    return new StickyPolicy(this.count, this.perKey, newRetention);
+  }
+
+  /**
+   * @return the maximum number of retained events (or {@link KeyedEvent#getKey() keys} if {@link #isPerKey() per
+   *         key}).
+   */
+  public int getCount() {
+
+    return this.count;
+  }
+
+  /**
+   * @return {@code true} if the most recent event per {@link KeyedEvent#getKey() key} is retained, {@code false}
+   *         otherwise.
+   */
+  public boolean isPerKey() {
+
+    return this.perKey;
+  }
+
+  /**
+   * @return the {@link Retention} of the events.
+   */
+  public Retention getRetention() {
+
+    return this.retention;
+  }
+
+  @Override
+  public String toString() {
+
+    String mode;
+    if (this.perKey) {
+      mode = "lastPerKey(" + this.count + ")";
+    } else {
+      mode = "last(" + this.count + ")";
+    }
+    return mode + "-" + this.retention;
+  }
+
+  /**
+   * How retained events are referenced.
+   */
+  public enum Retention {
+
+    /** Events are retained until replaced by newer events. */
+    STRONG,
+
+    /**
+     * Events are referenced via {@link java.lang.ref.SoftReference} and may be discarded by the garbage collector if
+     * memory is low.
+     */
+    SOFT,
+
+    /**
+     * Events are referenced via {@link java.lang.ref.WeakReference} and are discarded by the garbage collector as soon
+     * as they are not referenced elsewhere.
+     */
+    WEAK
+  }
+
+}
@@ -0,0 +1,37 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Handle for an {@link EventListener} that has been {@link EventSource#subscribe(EventListener) subscribed}. It knows
+ * where the {@link EventListener} has been registered so {@link #close() unsubscribing} does not have to search for
+ * it. Can be used with try-with-resources.
+ */
+@FunctionalInterface
+public interface Subscription extends AutoCloseable {
+
+  /**
+   * Removes the subscribed {@link EventListener} so it will not receive any further events. Calling this method again
+   * has no effect.
+   */
+  @Override
+  void close();
+
+  /**
+   * @param unsubscribe the {@link Runnable} removing the {@link EventListener}.
+   * @return a {@link Subscription} that {@link Runnable#run() runs} the given {@link Runnable} only on the first call
+   *         of {@link #close()}.
+   */
+  static Subscription of(Runnable unsubscribe) {
+
+    AtomicBoolean closed = new AtomicBoolean();
+    return () -> {
+      if (closed.compareAndSet(false, true)) {
+        unsubscribe.run();
+      }
+    };
+  }
+
+}
@@ -0,0 +1,238 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.bridge;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.mmm.event.EventBus;
+import io.github.mmm.event.codec.EventCodec;
+
+/**
+ * Abstract base class for a bridge that exchanges events of an {@link EventBus} with another process via a
+ * {@link StandardProtocolFamily#UNIX Unix domain socket}. All I/O is done with non-blocking channels by a single
+ * {@link Selector} {@link Thread} so the threads sending or dispatching events never block on the socket.<br>
+ * Events are transferred in batched frames. Each frame starts with its total length in bytes ({@code int}) including
+ * this header followed by the number of events ({@code int}). Then for each event its length ({@code int}) and its
+ * {@link EventCodec#encode(Object, java.nio.ByteBuffer) encoded} payload follow. When done, {@link #close() close} the
+ * bridge to stop the {@link Thread} and release the socket.<br>
+ * The {@link Thread} must not be started before the bridge is fully constructed. Therefore sub-classes have to call
+ * {@link #start()} after construction, typically from a static factory method, and never from their constructor.
+ */
+public abstract class AbstractEventBridge implements AutoCloseable {
+
+  /** The default maximum size of a frame in bytes. */
+  public static final int DEFAULT_MAX_FRAME_SIZE = 64 * 1024;
+
+  /** The size of the frame header (length and number of events). */
+  static final int FRAME_HEADER = 2 * Integer.BYTES;
+
+  /** The size of the header of an event within a frame (length). */
+  static final int EVENT_HEADER = Integer.BYTES;
+
+  /** The {@link EventBus} to bridge. */
+  protected final EventBus eventBus;
+
+  /** The {@link EventCodec} for the bridged events. */
+  protected final EventCodec<Object> codec;
+
+  /** The maximum size of a frame in bytes. */
+  protected final int maxFrameSize;
+
+  /** The {@link UnixDomainSocketAddress} of the socket. */
+  protected final UnixDomainSocketAddress address;
+
+  /** The {@link Selector} used by the {@link Thread} of this bridge. */
+  protected final Selector selector;
+
+  /** Counter for the events that have been lost. */
+  protected final LongAdder lostCount;
+
+  /** The {@link Thread} of this bridge or {@code null} if not yet {@link #start() started}. */
+  private Thread thread;
+
+  private volatile boolean running;
+
+  /**
+   * The constructor.
+   *
+   * @param eventBus the {@link EventBus} to bridge.
+   * @param socketFile the {@link Path} of the Unix domain socket file.
+   * @param codec the {@link EventCodec} for the bridged events. Typically an
+   *        {@link io.github.mmm.event.codec.EventCodecRegistry}. Has to be compatible with the {@link EventCodec} on
+   *        the other side of the bridge.
+   * @param maxFrameSize the maximum size of a frame in bytes. Has to be the same on both sides of the bridge. A single
+   *        encoded event has to fit into a frame.
+   */
+  @SuppressWarnings("unchecked")
+  protected AbstractEventBridge(EventBus eventBus, Path socketFile, EventCodec<?> codec, int maxFrameSize) {
+
+    super();
+    Objects.requireNonNull(eventBus, "eventBus");
+    Objects.requireNonNull(socketFile, "socketFile");
+    Objects.requireNonNull(codec, "codec");
+    if (maxFrameSize <= FRAME_HEADER + EVENT_HEADER) {
+      throw new IllegalArgumentException("Invalid maximum frame size: " + maxFrameSize);
+    }
+    this.eventBus = eventBus;
+    this.codec = (EventCodec<Object>) codec;
+    this.maxFrameSize = maxFrameSize;
+    this.address = UnixDomainSocketAddress.of(socketFile);
+    this.lostCount = new LongAdder();
+    try {
+      this.selector = Selector.open();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    this.running = true;
+  }
+
+  /**
+   * Starts the {@link Thread} of this bridge. Has to be called once after the bridge has been fully constructed.
+   */
+  protected final synchronized void start() {
+
+    if ((this.thread != null) || !this.running) {
+      throw new IllegalStateException("Already started or closed.");
+    }
+    this.thread = Thread.ofPlatform().name(getClass().getSimpleName() + "-" + this.address.getPath().getFileName())
+        .daemon().start(this::run);
+  }
+
+  /**
+   * @return the {@link Path} of the Unix domain socket file.
+   */
+  public Path getSocketFile() {
+
+    return this.address.getPath();
+  }
+
+  /**
+   * @return the number of events that have been lost (e.g. because the backlog was full, the connection failed, or
+   *         they could not be encoded or decoded).
+   */
+  public long getLostEventCount() {
+
+    return this.lostCount.sum();
+  }
+
+  private void run() {
+
+    try {
+      while (this.running) {
+        long timeout = process();
+        if (timeout < 0) {
+          this.selector.selectNow();
+        } else {
+          this.selector.select(timeout);
+        }
+        Iterator<SelectionKey> keys = this.selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          SelectionKey key = keys.next();
+          keys.remove();
+          if (key.isValid()) {
+            handle(key);
+          }
+        }
+      }
+    } catch (IOException e) {
+      // only the selector itself can fail here - connection failures are handled by the sub-class
+      this.running = false;
+    } finally {
+      release();
+    }
+  }
+
+  private void release() {
+
+    for (SelectionKey key : this.selector.keys()) {
+      closeQuietly(key.channel());
+    }
+    closeQuietly(this.selector);
+    onClosed();
+  }
+
+  /**
+   * Called by the {@link Thread} of this bridge before each {@link Selector#select(long) select}.
+   *
+   * @return the timeout in milliseconds for the next {@link Selector#select(long) select}. {@code 0} to wait until a
+   *         channel is ready or the {@link Selector} is {@link Selector#wakeup() woken up}. A negative value to not
+   *         wait at all.
+   */
+  protected abstract long process();
+
+  /**
+   * Called by the {@link Thread} of this bridge for each {@link SelectionKey#selector() selected} {@link SelectionKey}.
+   *
+   * @param key the valid {@link SelectionKey} that is ready.
+   */
+  protected abstract void handle(SelectionKey key);
+
+  /**
+   * Called by the {@link Thread} of this bridge after all channels have been closed.
+   */
+  protected void onClosed() {
+
+    // nothing by default
+  }
+
+  /**
+   * @param closeable the {@link AutoCloseable} to close. Failures are ignored. May be {@code null}.
+   */
+  protected static void closeQuietly(AutoCloseable closeable) {
+
+    if (closeable == null) {
+      return;
+    }
+    try {
+      closeable.close();
+    } catch (Exception e) {
+      // ignore
+    }
+  }
+
+  /**
+   * Stops the {@link Thread} of this bridge and closes all its channels.
+   */
+  @Override
+  public void close() {
+
+    Thread bridgeThread;
+    boolean wasRunning;
+    synchronized (this) {
+      bridgeThread = this.thread;
+      wasRunning = this.running;
+      this.running = false;
+    }
+    if (bridgeThread == null) {
+      if (wasRunning) {
+        // never started so the channels have to be released here
+        release();
+      }
+      return;
+    }
+    this.selector.wakeup();
+    if (Thread.currentThread() != bridgeThread) {
+      boolean interrupted = false;
+      while (bridgeThread.isAlive()) {
+        try {
+          bridgeThread.join();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+}
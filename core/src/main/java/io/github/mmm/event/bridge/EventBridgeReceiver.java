@@ -0,0 +1,194 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.bridge;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.StandardProtocolFamily;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.mmm.event.EventBus;
+import io.github.mmm.event.codec.EventCodec;
+
+/**
+ * {@link AbstractEventBridge Bridge} that binds a Unix domain socket, accepts connections from any number of
+ * {@link EventBridgeSender}s and re-injects the received events into the local {@link EventBus} via
+ * {@link EventBus#sendEvent(Object) sendEvent}. Events are sent in the order they have been received per connection.
+ * The socket file is created when the receiver is {@link #bind(EventBus, Path, EventCodec) bound} and deleted when it
+ * is {@link #close() closed}.
+ *
+ * <pre>
+ * EventBridgeReceiver receiver = EventBridgeReceiver.bind(eventBus, Path.of("/run/myapp/events.sock"), registry);
+ * </pre>
+ */
+public final class EventBridgeReceiver extends AbstractEventBridge {
+
+  private final ServerSocketChannel serverChannel;
+
+  private final LongAdder receivedCount;
+
+  private EventBridgeReceiver(EventBus eventBus, Path socketFile, EventCodec<?> codec, int maxFrameSize) {
+
+    super(eventBus, socketFile, codec, maxFrameSize);
+    this.receivedCount = new LongAdder();
+    ServerSocketChannel channel = null;
+    try {
+      channel = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+      channel.bind(this.address);
+      channel.configureBlocking(false);
+      channel.register(this.selector, SelectionKey.OP_ACCEPT);
+    } catch (IOException e) {
+      closeQuietly(channel);
+      closeQuietly(this.selector);
+      throw new UncheckedIOException("Failed to bind socket " + socketFile, e);
+    }
+    this.serverChannel = channel;
+  }
+
+  /**
+   * Binds the socket and starts receiving events.
+   *
+   * @param eventBus the {@link EventBus} to send the received events to.
+   * @param socketFile the {@link Path} of the Unix domain socket file to bind. Must not exist.
+   * @param codec the {@link EventCodec} for the received events.
+   * @return the started {@link EventBridgeReceiver}.
+   */
+  public static EventBridgeReceiver bind(EventBus eventBus, Path socketFile, EventCodec<?> codec) {
+
+    return bind(eventBus, socketFile, codec, DEFAULT_MAX_FRAME_SIZE);
+  }
+
+  /**
+   * Binds the socket and starts receiving events.
+   *
+   * @param eventBus the {@link EventBus} to send the received events to.
+   * @param socketFile the {@link Path} of the Unix domain socket file to bind. Must not exist.
+   * @param codec the {@link EventCodec} for the received events.
+   * @param maxFrameSize the maximum size of a frame in bytes.
+   * @return the started {@link EventBridgeReceiver}.
+   */
+  public static EventBridgeReceiver bind(EventBus eventBus, Path socketFile, EventCodec<?> codec, int maxFrameSize) {
+
+    EventBridgeReceiver receiver = new EventBridgeReceiver(eventBus, socketFile, codec, maxFrameSize);
+    receiver.start();
+    return receiver;
+  }
+
+  /**
+   * @return the number of events that have been received and {@link EventBus#sendEvent(Object) sent} to the
+   *         {@link EventBus}.
+   */
+  public long getReceivedEventCount() {
+
+    return this.receivedCount.sum();
+  }
+
+  @Override
+  protected long process() {
+
+    return 0;
+  }
+
+  @Override
+  protected void handle(SelectionKey key) {
+
+    if (key.isAcceptable()) {
+      accept();
+    } else if (key.isReadable()) {
+      read(key);
+    }
+  }
+
+  private void accept() {
+
+    SocketChannel channel = null;
+    try {
+      channel = this.serverChannel.accept();
+      if (channel != null) {
+        channel.configureBlocking(false);
+        channel.register(this.selector, SelectionKey.OP_READ, ByteBuffer.allocateDirect(this.maxFrameSize));
+      }
+    } catch (IOException e) {
+      closeQuietly(channel);
+    }
+  }
+
+  private void read(SelectionKey key) {
+
+    SocketChannel channel = (SocketChannel) key.channel();
+    ByteBuffer buffer = (ByteBuffer) key.attachment();
+    try {
+      int bytes = channel.read(buffer);
+      buffer.flip();
+      boolean valid = readFrames(buffer);
+      buffer.compact();
+      if ((bytes < 0) || !valid) {
+        // remaining bytes are a partial frame that can never be completed
+        if (buffer.position() > 0) {
+          this.lostCount.increment();
+        }
+        closeQuietly(channel);
+      }
+    } catch (IOException e) {
+      closeQuietly(channel);
+    }
+  }
+
+  private boolean readFrames(ByteBuffer buffer) {
+
+    while (buffer.remaining() >= FRAME_HEADER) {
+      int start = buffer.position();
+      int frameLength = buffer.getInt(start);
+      if ((frameLength < FRAME_HEADER) || (frameLength > this.maxFrameSize)) {
+        return false;
+      }
+      if (buffer.remaining() < frameLength) {
+        break;
+      }
+      int count = buffer.getInt(start + Integer.BYTES);
+      int end = start + frameLength;
+      int position = start + FRAME_HEADER;
+      for (int i = 0; i < count; i++) {
+        int length = (position + EVENT_HEADER <= end) ? buffer.getInt(position) : -1;
+        position = position + EVENT_HEADER;
+        if ((length < 0) || (position + length > end)) {
+          this.lostCount.add(count - i);
+          break;
+        }
+        receive(buffer.slice(position, length).order(buffer.order()));
+        position = position + length;
+      }
+      buffer.position(end);
+    }
+    return true;
+  }
+
+  private void receive(ByteBuffer payload) {
+
+    try {
+      Object event = this.codec.decode(payload);
+      this.eventBus.sendEvent(event);
+      this.receivedCount.increment();
+    } catch (RuntimeException e) {
+      // undecodable event or rejected by the EventBus - must not stop the bridge
+      this.lostCount.increment();
+    }
+  }
+
+  @Override
+  protected void onClosed() {
+
+    try {
+      Files.deleteIfExists(getSocketFile());
+    } catch (IOException e) {
+      // ignore
+    }
+  }
+
+}
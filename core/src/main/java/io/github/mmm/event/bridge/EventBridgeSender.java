@@ -0,0 +1,323 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.bridge;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import io.github.mmm.event.EventBus;
+import io.github.mmm.event.EventListener;
+import io.github.mmm.event.Subscription;
+import io.github.mmm.event.codec.EventCodec;
+
+/**
+ * {@link AbstractEventBridge Bridge} that forwards the events of selected types sent to a local {@link EventBus} to
+ * an {@link EventBridgeReceiver} in another process. The listener registered at the {@link EventBus} only adds the
+ * event to a bounded backlog and never blocks. The {@link Thread} of the bridge encodes the events from the backlog
+ * into batched frames and writes them to the socket. If the receiver is not (yet) available or the connection is
+ * lost, the bridge reconnects periodically while events are kept in the backlog. If the backlog is full, further events
+ * are lost and counted in {@link #getLostEventCount()}.
+ *
+ * <pre>
+ * EventBridgeSender sender = EventBridgeSender.open(eventBus, Path.of("/run/myapp/events.sock"), registry,
+ *     PriceEvent.class);
+ * </pre>
+ */
+public final class EventBridgeSender extends AbstractEventBridge {
+
+  /** The default maximum number of events in the backlog. */
+  public static final int DEFAULT_MAX_BACKLOG = 64 * 1024;
+
+  private static final long RECONNECT_MILLIS = 100;
+
+  private final int maxBacklog;
+
+  private final Queue<Object> backlog;
+
+  private final AtomicInteger backlogSize;
+
+  private final AtomicBoolean wakeupPending;
+
+  private final LongAdder sentCount;
+
+  private final List<Subscription> subscriptions;
+
+  /** The current frame in read mode. Has remaining bytes while a frame has not been completely written. */
+  private final ByteBuffer frame;
+
+  /** The number of events in the current {@link #frame}. */
+  private int frameEventCount;
+
+  private volatile SocketChannel channel;
+
+  private long disconnectTime;
+
+  private EventBridgeSender(EventBus eventBus, Path socketFile, EventCodec<?> codec, int maxBacklog,
+      int maxFrameSize, int eventTypeCount) {
+
+    super(eventBus, socketFile, codec, maxFrameSize);
+    if (maxBacklog <= 0) {
+      throw new IllegalArgumentException("Invalid maximum backlog: " + maxBacklog);
+    }
+    this.maxBacklog = maxBacklog;
+    this.backlog = new ConcurrentLinkedQueue<>();
+    this.backlogSize = new AtomicInteger();
+    this.wakeupPending = new AtomicBoolean();
+    this.sentCount = new LongAdder();
+    this.frame = ByteBuffer.allocateDirect(maxFrameSize);
+    this.frame.limit(0);
+    this.disconnectTime = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(RECONNECT_MILLIS);
+    this.subscriptions = new ArrayList<>(eventTypeCount);
+  }
+
+  /**
+   * Opens a bridge that starts forwarding the events immediately.
+   *
+   * @param eventBus the {@link EventBus} to forward events from.
+   * @param socketFile the {@link Path} of the Unix domain socket file the {@link EventBridgeReceiver} is bound to.
+   * @param codec the {@link EventCodec} for the forwarded events.
+   * @param eventTypes the types of the events to forward.
+   * @return the started {@link EventBridgeSender}.
+   */
+  public static EventBridgeSender open(EventBus eventBus, Path socketFile, EventCodec<?> codec,
+      Class<?>... eventTypes) {
+
+    return open(eventBus, socketFile, codec, DEFAULT_MAX_BACKLOG, DEFAULT_MAX_FRAME_SIZE, eventTypes);
+  }
+
+  /**
+   * Opens a bridge that starts forwarding the events immediately.
+   *
+   * @param eventBus the {@link EventBus} to forward events from.
+   * @param socketFile the {@link Path} of the Unix domain socket file the {@link EventBridgeReceiver} is bound to.
+   * @param codec the {@link EventCodec} for the forwarded events.
+   * @param maxBacklog the maximum number of events waiting to be written to the socket.
+   * @param maxFrameSize the maximum size of a frame in bytes.
+   * @param eventTypes the types of the events to forward.
+   * @return the started {@link EventBridgeSender}.
+   */
+  public static EventBridgeSender open(EventBus eventBus, Path socketFile, EventCodec<?> codec, int maxBacklog,
+      int maxFrameSize, Class<?>... eventTypes) {
+
+    EventBridgeSender sender = new EventBridgeSender(eventBus, socketFile, codec, maxBacklog, maxFrameSize,
+        eventTypes.length);
+    sender.start();
+    for (Class<?> eventType : eventTypes) {
+      sender.subscriptions.add(sender.subscribe(eventType));
+    }
+    return sender;
+  }
+
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  private Subscription subscribe(Class eventType) {
+
+    EventListener<Object> listener = this::forward;
+    return this.eventBus.subscribe(eventType, listener);
+  }
+
+  private void forward(Object event) {
+
+    if (this.backlogSize.incrementAndGet() > this.maxBacklog) {
+      this.backlogSize.decrementAndGet();
+      this.lostCount.increment();
+      return;
+    }
+    this.backlog.offer(event);
+    // only wake up the selector thread once until it has processed the backlog
+    if (this.wakeupPending.compareAndSet(false, true)) {
+      this.selector.wakeup();
+    }
+  }
+
+  /**
+   * @return the number of events waiting in the backlog to be written to the socket.
+   */
+  public int getBacklog() {
+
+    return this.backlogSize.get();
+  }
+
+  /**
+   * @return the number of events that have been written to the socket.
+   */
+  public long getSentEventCount() {
+
+    return this.sentCount.sum();
+  }
+
+  /**
+   * @return {@code true} if currently connected to the {@link EventBridgeReceiver}, {@code false} otherwise.
+   */
+  public boolean isConnected() {
+
+    SocketChannel socketChannel = this.channel;
+    return (socketChannel != null) && socketChannel.isConnected();
+  }
+
+  @Override
+  protected long process() {
+
+    this.wakeupPending.set(false);
+    if (this.channel == null) {
+      long waitNanos = TimeUnit.MILLISECONDS.toNanos(RECONNECT_MILLIS) - (System.nanoTime() - this.disconnectTime);
+      if ((waitNanos > 0) || !connect()) {
+        return RECONNECT_MILLIS;
+      }
+    }
+    if (this.channel.isConnected()) {
+      flush();
+    }
+    return 0;
+  }
+
+  private boolean connect() {
+
+    SocketChannel socketChannel = null;
+    try {
+      socketChannel = SocketChannel.open(StandardProtocolFamily.UNIX);
+      socketChannel.configureBlocking(false);
+      if (socketChannel.connect(this.address)) {
+        socketChannel.register(this.selector, 0);
+      } else {
+        socketChannel.register(this.selector, SelectionKey.OP_CONNECT);
+      }
+      this.channel = socketChannel;
+      return true;
+    } catch (IOException e) {
+      // receiver not available (yet)
+      closeQuietly(socketChannel);
+      this.disconnectTime = System.nanoTime();
+      return false;
+    }
+  }
+
+  private void disconnect() {
+
+    closeQuietly(this.channel);
+    this.channel = null;
+    this.disconnectTime = System.nanoTime();
+    // the receiver can not decode a partial frame
+    this.lostCount.add(this.frameEventCount);
+    this.frameEventCount = 0;
+    this.frame.limit(0);
+  }
+
+  private void flush() {
+
+    try {
+      while (this.frame.hasRemaining() || fillFrame()) {
+        this.channel.write(this.frame);
+        SelectionKey key = this.channel.keyFor(this.selector);
+        if (this.frame.hasRemaining()) {
+          // socket buffer is full - continue when writable
+          key.interestOps(SelectionKey.OP_WRITE);
+          return;
+        }
+        key.interestOps(0);
+        this.sentCount.add(this.frameEventCount);
+        this.frameEventCount = 0;
+      }
+    } catch (IOException e) {
+      disconnect();
+    }
+  }
+
+  private boolean fillFrame() {
+
+    ByteBuffer buffer = this.frame;
+    buffer.clear();
+    buffer.position(FRAME_HEADER);
+    int count = 0;
+    Object event;
+    while ((event = this.backlog.peek()) != null) {
+      int start = buffer.position();
+      if ((count > 0) && (buffer.remaining() <= EVENT_HEADER)) {
+        break;
+      }
+      boolean encoded = false;
+      try {
+        buffer.position(start + EVENT_HEADER);
+        this.codec.encode(event, buffer);
+        buffer.putInt(start, buffer.position() - start - EVENT_HEADER);
+        encoded = true;
+      } catch (BufferOverflowException e) {
+        buffer.position(start);
+        if (count > 0) {
+          // frame is full - event remains in the backlog for the next frame
+          break;
+        }
+      } catch (RuntimeException e) {
+        buffer.position(start);
+      }
+      this.backlog.poll();
+      this.backlogSize.decrementAndGet();
+      if (encoded) {
+        count++;
+      } else {
+        this.lostCount.increment();
+      }
+    }
+    this.frameEventCount = count;
+    if (count == 0) {
+      buffer.limit(0);
+      return false;
+    }
+    buffer.putInt(0, buffer.position());
+    buffer.putInt(Integer.BYTES, count);
+    buffer.flip();
+    return true;
+  }
+
+  @Override
+  protected void handle(SelectionKey key) {
+
+    if (key.isConnectable()) {
+      try {
+        if (this.channel.finishConnect()) {
+          key.interestOps(0);
+        }
+      } catch (IOException e) {
+        disconnect();
+      }
+    }
+  }
+
+  @Override
+  protected void onClosed() {
+
+    this.channel = null;
+    this.lostCount.add(this.frameEventCount);
+    this.frameEventCount = 0;
+  }
+
+  /**
+   * Unsubscribes from the {@link EventBus}, stops the {@link Thread} of this bridge and closes the connection. Events
+   * remaining in the backlog are lost.
+   */
+  @Override
+  public void close() {
+
+    for (Subscription subscription : this.subscriptions) {
+      subscription.close();
+    }
+    super.close();
+    while (this.backlog.poll() != null) {
+      this.backlogSize.decrementAndGet();
+      this.lostCount.increment();
+    }
+  }
+
+}
@@ -0,0 +1,37 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.codec;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Interface to write events to and read them from a {@link ByteBuffer} in a binary format. This is used to persist or
+ * transfer events (e.g. in an {@link io.github.mmm.event.journal.EventJournal}). Implementations write directly into
+ * the given {@link ByteBuffer} (heap or direct) without intermediate byte arrays. Use {@link RecordEventCodec} for
+ * simple {@link Record} events and {@link EventCodecRegistry} to combine the codecs of multiple event types with
+ * schema versions.
+ *
+ * @param <E> the type of the events.
+ */
+public interface EventCodec<E> {
+
+  /**
+   * Writes the given event to the given {@link ByteBuffer} starting at its {@link ByteBuffer#position() position}.
+   *
+   * @param event the event to encode.
+   * @param buffer the {@link ByteBuffer} to write to.
+   * @throws java.nio.BufferOverflowException if the {@link ByteBuffer#remaining() remaining} space of the
+   *         {@link ByteBuffer} is not sufficient. The caller may retry with a larger {@link ByteBuffer}.
+   */
+  void encode(E event, ByteBuffer buffer);
+
+  /**
+   * Reads an event from the given {@link ByteBuffer} starting at its {@link ByteBuffer#position() position}.
+   *
+   * @param buffer the {@link ByteBuffer} to read from. Its {@link ByteBuffer#limit() limit} is the end of the encoded
+   *        event.
+   * @return the decoded event.
+   */
+  E decode(ByteBuffer buffer);
+
+}
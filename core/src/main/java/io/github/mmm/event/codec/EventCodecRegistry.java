@@ -0,0 +1,146 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.codec;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of {@link EventCodec}s for different event types that is itself an {@link EventCodec} for all registered
+ * event types. Every encoded event is prefixed with the type ID ({@code int}) and the schema version ({@code short}) it
+ * has been {@link #register(Class, int, int, EventCodec) registered} with. Events are always encoded with the most
+ * recent version of their type while events encoded with older versions can still be decoded as long as a
+ * {@link EventCodec} for that version is registered. Hence the schema of an event type can evolve:
+ *
+ * <pre>
+ * registry.register(PriceEvent.class, 1, 1, new LegacyPriceEventCodec()); // decodes the old format to new records
+ * registry.register(PriceEvent.class, 1, 2, RecordEventCodec.of(PriceEvent.class));
+ * </pre>
+ */
+public class EventCodecRegistry implements EventCodec<Object> {
+
+  private static final int MAX_VERSION = Short.MAX_VALUE;
+
+  private final Map<Class<?>, Registration> type2registrationMap;
+
+  private final Map<Long, Registration> key2registrationMap;
+
+  /**
+   * The constructor.
+   */
+  public EventCodecRegistry() {
+
+    super();
+    this.type2registrationMap = new ConcurrentHashMap<>();
+    this.key2registrationMap = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * @param <E> the type of the events.
+   * @param eventType the {@link Class} reflecting the event type. Only events of exactly this type are encoded by the
+   *        given {@link EventCodec}.
+   * @param typeId the unique ID of the event type. Has to remain stable for persisted or transferred events.
+   * @param version the schema version in the range from {@code 0} to {@code 32767}. The {@link EventCodec} with the
+   *        highest version of an event type is used for encoding.
+   * @param codec the {@link EventCodec} for the given event type and version.
+   * @return this registry for fluent API calls.
+   * @throws IllegalArgumentException if the given type ID and version are already registered or the type ID is already
+   *         registered for a different event type.
+   */
+  public synchronized <E> EventCodecRegistry register(Class<E> eventType, int typeId, int version,
+      EventCodec<E> codec) {
+
+    Objects.requireNonNull(eventType, "eventType");
+    Objects.requireNonNull(codec, "codec");
+    if ((version < 0) || (version > MAX_VERSION)) {
+      throw new IllegalArgumentException("Invalid version: " + version);
+    }
+    for (Registration registration : this.key2registrationMap.values()) {
+      if ((registration.typeId == typeId) && (registration.eventType != eventType)) {
+        throw new IllegalArgumentException("Type ID " + typeId + " is already registered for "
+            + registration.eventType.getName() + " and can not be used for " + eventType.getName());
+      }
+    }
+    Registration registration = new Registration(eventType, typeId, (short) version, codec);
+    Long key = Long.valueOf(getKey(typeId, version));
+    if (this.key2registrationMap.putIfAbsent(key, registration) != null) {
+      throw new IllegalArgumentException("Version " + version + " of type ID " + typeId + " is already registered.");
+    }
+    Registration latest = this.type2registrationMap.get(eventType);
+    if ((latest == null) || (latest.version < version)) {
+      this.type2registrationMap.put(eventType, registration);
+    }
+    return this;
+  }
+
+  private static long getKey(int typeId, int version) {
+
+    return (((long) typeId) << 16) | version;
+  }
+
+  /**
+   * @param eventType the {@link Class} reflecting the event type.
+   * @return {@code true} if an {@link EventCodec} is {@link #register(Class, int, int, EventCodec) registered} for the
+   *         given event type, {@code false} otherwise.
+   */
+  public boolean isRegistered(Class<?> eventType) {
+
+    return this.type2registrationMap.containsKey(eventType);
+  }
+
+  /**
+   * @throws IllegalArgumentException if no {@link EventCodec} is {@link #register(Class, int, int, EventCodec)
+   *         registered} for the type of the given event.
+   */
+  @Override
+  public void encode(Object event, ByteBuffer buffer) {
+
+    Registration registration = this.type2registrationMap.get(event.getClass());
+    if (registration == null) {
+      throw new IllegalArgumentException("No codec registered for " + event.getClass().getName());
+    }
+    buffer.putInt(registration.typeId);
+    buffer.putShort(registration.version);
+    registration.codec.encode(event, buffer);
+  }
+
+  /**
+   * @throws IllegalArgumentException if no {@link EventCodec} is {@link #register(Class, int, int, EventCodec)
+   *         registered} for the type ID and version of the encoded event.
+   */
+  @Override
+  public Object decode(ByteBuffer buffer) {
+
+    int typeId = buffer.getInt();
+    short version = buffer.getShort();
+    Registration registration = this.key2registrationMap.get(Long.valueOf(getKey(typeId, version)));
+    if (registration == null) {
+      throw new IllegalArgumentException("No codec registered for version " + version + " of type ID " + typeId);
+    }
+    return registration.codec.decode(buffer);
+  }
+
+  private static final class Registration {
+
+    private final Class<?> eventType;
+
+    private final int typeId;
+
+    private final short version;
+
+    private final EventCodec<Object> codec;
+
+    @SuppressWarnings("unchecked")
+    private Registration(Class<?> eventType, int typeId, short version, EventCodec<?> codec) {
+
+      super();
+      this.eventType = eventType;
+      this.typeId = typeId;
+      this.version = version;
+      this.codec = (EventCodec<Object>) codec;
+    }
+  }
+
+}
@@ -0,0 +1,284 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.codec;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.RecordComponent;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+
+/**
+ * {@link EventCodec} for {@link Record} events. The codec is generated once from the {@link Class#getRecordComponents()
+ * record components} as a chain of {@link MethodHandle}s so encoding and decoding do not use reflection. Encoding
+ * does not box primitive components and writes {@link String}s as UTF-8 directly into the {@link ByteBuffer}.
+ * Supported component types are all primitive types, {@link String}, {@link Enum}s (encoded by ordinal) and nested
+ * {@link Record}s of supported component types. {@link String}s, {@link Enum}s and {@link Record}s may be
+ * {@code null}.<br>
+ * The binary format only depends on the order and types of the components. If you change them, register the new
+ * codec with a new version in an {@link EventCodecRegistry}.
+ *
+ * @param <R> the type of the {@link Record} events.
+ */
+public final class RecordEventCodec<R extends Record> implements EventCodec<R> {
+
+  private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+
+  private final Class<R> type;
+
+  private final Component[] components;
+
+  /** The canonical constructor taking the components as {@code Object[]}. */
+  private final MethodHandle constructor;
+
+  private RecordEventCodec(Class<R> type, Lookup lookup) throws ReflectiveOperationException {
+
+    super();
+    this.type = type;
+    RecordComponent[] recordComponents = type.getRecordComponents();
+    this.components = new Component[recordComponents.length];
+    Class<?>[] componentTypes = new Class<?>[recordComponents.length];
+    for (int i = 0; i < recordComponents.length; i++) {
+      RecordComponent recordComponent = recordComponents[i];
+      Class<?> componentType = recordComponent.getType();
+      componentTypes[i] = componentType;
+      MethodHandle accessor = lookup.findVirtual(type, recordComponent.getName(),
+          MethodType.methodType(componentType));
+      this.components[i] = new Component(recordComponent.getName(), componentType, accessor, lookup);
+    }
+    this.constructor = lookup.findConstructor(type, MethodType.methodType(void.class, componentTypes))
+        .asSpreader(Object[].class, componentTypes.length)
+        .asType(MethodType.methodType(Object.class, Object[].class));
+  }
+
+  /**
+   * @param <R> the type of the {@link Record} events.
+   * @param type the {@link Class} reflecting the {@link Record}. Has to be public and exported.
+   * @return the {@link RecordEventCodec} for the given {@link Record} type.
+   * @throws IllegalArgumentException if the given {@link Record} has unsupported components or is not accessible.
+   */
+  public static <R extends Record> RecordEventCodec<R> of(Class<R> type) {
+
+    return of(type, MethodHandles.publicLookup());
+  }
+
+  /**
+   * @param <R> the type of the {@link Record} events.
+   * @param type the {@link Class} reflecting the {@link Record}.
+   * @param lookup the {@link Lookup} with access to the {@link Record} (e.g. {@link MethodHandles#lookup()} of the
+   *        caller for non-public records).
+   * @return the {@link RecordEventCodec} for the given {@link Record} type.
+   * @throws IllegalArgumentException if the given {@link Record} has unsupported components or is not accessible.
+   */
+  public static <R extends Record> RecordEventCodec<R> of(Class<R> type, Lookup lookup) {
+
+    Objects.requireNonNull(type, "type");
+    Objects.requireNonNull(lookup, "lookup");
+    if (!type.isRecord()) {
+      throw new IllegalArgumentException("Not a record: " + type.getName());
+    }
+    try {
+      return new RecordEventCodec<>(type, lookup);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalArgumentException("Record " + type.getName() + " is not accessible.", e);
+    }
+  }
+
+  /**
+   * @return the {@link Class} reflecting the {@link Record} type.
+   */
+  public Class<R> getType() {
+
+    return this.type;
+  }
+
+  @Override
+  public void encode(R event, ByteBuffer buffer) {
+
+    for (Component component : this.components) {
+      component.write(event, buffer);
+    }
+  }
+
+  @Override
+  public R decode(ByteBuffer buffer) {
+
+    Object[] args = new Object[this.components.length];
+    for (int i = 0; i < args.length; i++) {
+      args[i] = this.components[i].read(buffer);
+    }
+    try {
+      return this.type.cast(this.constructor.invokeExact(args));
+    } catch (RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IllegalStateException("Failed to create " + this.type.getName(), e);
+    }
+  }
+
+  static void writeString(String string, ByteBuffer buffer) {
+
+    if (string == null) {
+      buffer.putInt(-1);
+      return;
+    }
+    int start = buffer.position();
+    buffer.putInt(0);
+    int length = string.length();
+    for (int i = 0; i < length; i++) {
+      char c = string.charAt(i);
+      if (c < 0x80) {
+        buffer.put((byte) c);
+      } else if (c < 0x800) {
+        buffer.put((byte) (0xC0 | (c >> 6)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      } else if (Character.isHighSurrogate(c) && (i + 1 < length) && Character.isLowSurrogate(string.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, string.charAt(++i));
+        buffer.put((byte) (0xF0 | (codePoint >> 18)));
+        buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+        buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+      } else {
+        buffer.put((byte) (0xE0 | (c >> 12)));
+        buffer.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+        buffer.put((byte) (0x80 | (c & 0x3F)));
+      }
+    }
+    buffer.putInt(start, buffer.position() - start - Integer.BYTES);
+  }
+
+  static String readString(ByteBuffer buffer) {
+
+    int length = buffer.getInt();
+    if (length < 0) {
+      return null;
+    }
+    int position = buffer.position();
+    String string;
+    if (buffer.hasArray()) {
+      string = new String(buffer.array(), buffer.arrayOffset() + position, length, StandardCharsets.UTF_8);
+    } else {
+      string = StandardCharsets.UTF_8.decode(buffer.slice(position, length)).toString();
+    }
+    buffer.position(position + length);
+    return string;
+  }
+
+  /**
+   * A single {@link RecordComponent} with its {@link MethodHandle accessor} adapted to the exact primitive type so it
+   * can be invoked without boxing.
+   */
+  private static final class Component {
+
+    private final String name;
+
+    private final Class<?> type;
+
+    private final MethodHandle accessor;
+
+    private final Object[] enumConstants;
+
+    private final RecordEventCodec<?> recordCodec;
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private Component(String name, Class<?> type, MethodHandle accessor, Lookup lookup) {
+
+      super();
+      this.name = name;
+      this.type = type;
+      if (type.isPrimitive()) {
+        this.accessor = accessor.asType(MethodType.methodType(type, Object.class));
+      } else {
+        this.accessor = accessor.asType(ACCESSOR_TYPE);
+      }
+      if (type.isEnum()) {
+        this.enumConstants = type.getEnumConstants();
+      } else {
+        this.enumConstants = null;
+      }
+      if (type.isRecord()) {
+        this.recordCodec = RecordEventCodec.of((Class) type, lookup);
+      } else if (!type.isPrimitive() && (type != String.class) && !type.isEnum()) {
+        throw new IllegalArgumentException("Unsupported type " + type.getName() + " of record component " + name);
+      } else {
+        this.recordCodec = null;
+      }
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private void write(Object record, ByteBuffer buffer) {
+
+      try {
+        if (this.type == int.class) {
+          buffer.putInt((int) this.accessor.invokeExact(record));
+        } else if (this.type == long.class) {
+          buffer.putLong((long) this.accessor.invokeExact(record));
+        } else if (this.type == double.class) {
+          buffer.putDouble((double) this.accessor.invokeExact(record));
+        } else if (this.type == boolean.class) {
+          buffer.put((boolean) this.accessor.invokeExact(record) ? (byte) 1 : (byte) 0);
+        } else if (this.type == float.class) {
+          buffer.putFloat((float) this.accessor.invokeExact(record));
+        } else if (this.type == short.class) {
+          buffer.putShort((short) this.accessor.invokeExact(record));
+        } else if (this.type == byte.class) {
+          buffer.put((byte) this.accessor.invokeExact(record));
+        } else if (this.type == char.class) {
+          buffer.putChar((char) this.accessor.invokeExact(record));
+        } else {
+          Object value = this.accessor.invokeExact(record);
+          if (this.type == String.class) {
+            writeString((String) value, buffer);
+          } else if (this.enumConstants != null) {
+            buffer.putInt((value == null) ? -1 : ((Enum<?>) value).ordinal());
+          } else if (value == null) {
+            buffer.put((byte) 0);
+          } else {
+            buffer.put((byte) 1);
+            ((RecordEventCodec) this.recordCodec).encode((Record) value, buffer);
+          }
+        }
+      } catch (RuntimeException | Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new IllegalStateException("Failed to read record component " + this.name, e);
+      }
+    }
+
+    private Object read(ByteBuffer buffer) {
+
+      if (this.type == int.class) {
+        return Integer.valueOf(buffer.getInt());
+      } else if (this.type == long.class) {
+        return Long.valueOf(buffer.getLong());
+      } else if (this.type == double.class) {
+        return Double.valueOf(buffer.getDouble());
+      } else if (this.type == boolean.class) {
+        return Boolean.valueOf(buffer.get() != 0);
+      } else if (this.type == float.class) {
+        return Float.valueOf(buffer.getFloat());
+      } else if (this.type == short.class) {
+        return Short.valueOf(buffer.getShort());
+      } else if (this.type == byte.class) {
+        return Byte.valueOf(buffer.get());
+      } else if (this.type == char.class) {
+        return Character.valueOf(buffer.getChar());
+      } else if (this.type == String.class) {
+        return readString(buffer);
+      } else if (this.enumConstants != null) {
+        int ordinal = buffer.getInt();
+        if (ordinal < 0) {
+          return null;
+        }
+        return this.enumConstants[ordinal];
+      } else if (buffer.get() == 0) {
+        return null;
+      }
+      return this.recordCodec.decode(buffer);
+    }
+  }
+
+}
@@ -0,0 +1,469 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.impl;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.github.mmm.base.exception.GlobalExceptionHandler;
+import io.github.mmm.event.AbstractEventBus;
+import io.github.mmm.event.BatchEventListener;
+import io.github.mmm.event.EventBus;
+import io.github.mmm.event.EventListener;
+import io.github.mmm.event.OverflowPolicy;
+
+/**
+ * Implementation of {@link EventBus} that dispatches events asynchronously so {@link #sendEvent(Object)} returns
+ * immediately and a slow {@link EventListener} never stalls the sender. The events are dispatched via a configurable
+ * {@link Executor} according to the {@link DispatchMode}. In any case each {@link EventListener} receives the events
+ * in the order they have been {@link #sendEvent(Object) sent}.<br>
+ * When done, {@link #close() close} the {@link AsyncEventBus} to process all pending events and release its resources.
+ */
+public class AsyncEventBus extends AbstractEventBus implements AutoCloseable {
+
+  private static final int MIN_MAILBOX_SWEEP_THRESHOLD = 64;
+
+  private final Executor executor;
+
+  private final DispatchMode mode;
+
+  private final boolean shutdownExecutor;
+
+  /** @see #triggerDispatchEvents() */
+  private final AtomicInteger wip;
+
+  /** The number of events (or listener invocations) that have been accepted but not yet completed. */
+  private final AtomicLong pending;
+
+  /** @see DispatchMode#PER_LISTENER */
+  private final Map<EventListener<?>, SerialExecutor> mailboxes;
+
+  private int mailboxSweepThreshold;
+
+  private volatile boolean closed;
+
+  /**
+   * The constructor for a bus dispatching all events serially on its own daemon {@link Thread}.
+   */
+  public AsyncEventBus() {
+
+    this(Executors.newSingleThreadExecutor(Thread.ofPlatform().name("EventBus").daemon().factory()),
+        DispatchMode.SERIAL, true, null);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param executor the {@link Executor} used to dispatch the events serially.
+   */
+  public AsyncEventBus(Executor executor) {
+
+    this(executor, DispatchMode.SERIAL);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param executor the {@link Executor} used to dispatch the events.
+   * @param mode the {@link DispatchMode}.
+   */
+  public AsyncEventBus(Executor executor, DispatchMode mode) {
+
+    this(executor, mode, false, null);
+  }
+
+  /**
+   * The constructor for a bounded event queue.
+   *
+   * @param executor the {@link Executor} used to dispatch the events.
+   * @param mode the {@link DispatchMode}.
+   * @param capacity the maximum number of events in the queue waiting to be dispatched. Use {@code 0} for an unbounded
+   *        queue.
+   * @param overflowPolicy the {@link OverflowPolicy} applied if the bounded queue is full.
+   */
+  public AsyncEventBus(Executor executor, DispatchMode mode, int capacity, OverflowPolicy overflowPolicy) {
+
+    this(executor, mode, false, null, capacity, overflowPolicy);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param executor the {@link Executor} used to dispatch the events.
+   * @param mode the {@link DispatchMode}.
+   * @param errorHandler the {@link GlobalExceptionHandler} instance.
+   */
+  protected AsyncEventBus(Executor executor, DispatchMode mode, GlobalExceptionHandler errorHandler) {
+
+    this(executor, mode, false, errorHandler);
+  }
+
+  private AsyncEventBus(Executor executor, DispatchMode mode, boolean shutdownExecutor,
+      GlobalExceptionHandler errorHandler) {
+
+    this(executor, mode, shutdownExecutor, errorHandler, 0, null);
+  }
+
+  private AsyncEventBus(Executor executor, DispatchMode mode, boolean shutdownExecutor,
+      GlobalExceptionHandler errorHandler, int capacity, OverflowPolicy overflowPolicy) {
+
+    super(errorHandler, capacity, overflowPolicy);
+    Objects.requireNonNull(executor, "executor");
+    Objects.requireNonNull(mode, "mode");
+    this.executor = executor;
+    this.mode = mode;
+    this.shutdownExecutor = shutdownExecutor;
+    this.wip = new AtomicInteger();
+    this.pending = new AtomicLong();
+    if (mode == DispatchMode.PER_LISTENER) {
+      this.mailboxes = new ConcurrentHashMap<>();
+      this.mailboxSweepThreshold = MIN_MAILBOX_SWEEP_THRESHOLD;
+    } else {
+      this.mailboxes = null;
+    }
+  }
+
+  /**
+   * @return a new {@link AsyncEventBus} that invokes the {@link EventListener}s in {@link DispatchMode#PER_LISTENER}
+   *         mode on virtual {@link Thread}s. The virtual threads are released when the bus gets {@link #close()
+   *         closed}.
+   */
+  public static AsyncEventBus ofVirtualThreads() {
+
+    return new AsyncEventBus(Executors.newVirtualThreadPerTaskExecutor(), DispatchMode.PER_LISTENER, true, null);
+  }
+
+  /**
+   * @return the {@link DispatchMode}.
+   */
+  public DispatchMode getMode() {
+
+    return this.mode;
+  }
+
+  /**
+   * @return {@code true} if this bus has been {@link #close() closed} and does not accept new events,
+   *         {@code false} otherwise.
+   */
+  public boolean isClosed() {
+
+    return this.closed;
+  }
+
+  /**
+   * @throws IllegalStateException if this bus has already been {@link #close() closed}.
+   */
+  @Override
+  public void sendEvent(Object event) {
+
+    Objects.requireNonNull(event);
+    // increment before checking closed so close() can never miss an accepted event
+    this.pending.incrementAndGet();
+    if (this.closed) {
+      release();
+      throw new IllegalStateException("EventBus has been closed.");
+    }
+    // a rejected event is released via handleRejectedEvent, an accepted one when dispatched even if dispatching or
+    // triggering the dispatch fails afterwards
+    super.sendEvent(event);
+  }
+
+  @Override
+  public void sendEvents(Collection<?> events) {
+
+    if (getCapacity() > 0) {
+      // sent one by one via sendEvent(Object)
+      super.sendEvents(events);
+      return;
+    }
+    for (Object event : events) {
+      Objects.requireNonNull(event);
+    }
+    int count = events.size();
+    this.pending.addAndGet(count);
+    if (this.closed) {
+      release(count);
+      throw new IllegalStateException("EventBus has been closed.");
+    }
+    // the unbounded queue accepts all events that are released when dispatched
+    super.sendEvents(events);
+  }
+
+  @Override
+  public boolean trySendEvent(Object event) {
+
+    Objects.requireNonNull(event);
+    this.pending.incrementAndGet();
+    if (this.closed) {
+      release();
+      return false;
+    }
+    // a rejected event is released via handleRejectedEvent
+    return super.trySendEvent(event);
+  }
+
+  @Override
+  protected void enqueueInternalEvent(Object event) {
+
+    this.pending.incrementAndGet();
+    if (this.closed) {
+      release();
+      throw new IllegalStateException("EventBus has been closed.");
+    }
+    super.enqueueInternalEvent(event);
+  }
+
+  @Override
+  protected void handleRejectedEvent(Object event) {
+
+    release();
+  }
+
+  @Override
+  protected void handleDroppedEvent(Object event) {
+
+    release();
+  }
+
+  @Override
+  protected void handleConflatedEvent(Object event) {
+
+    release();
+  }
+
+  @Override
+  protected void triggerDispatchEvents() {
+
+    if (this.wip.getAndIncrement() == 0) {
+      try {
+        this.executor.execute(this::drain);
+      } catch (RejectedExecutionException e) {
+        this.wip.set(0);
+        throw e;
+      }
+    }
+  }
+
+  private void drain() {
+
+    int missed = 1;
+    try {
+      do {
+        dispatchEvents();
+        if (this.mailboxes != null) {
+          sweepMailboxes();
+        }
+        missed = this.wip.addAndGet(-missed);
+      } while (missed != 0);
+    } catch (RuntimeException | Error e) {
+      // only possible if handleUndispatchedEvent or the error handler failed - give up the drainer role and resubmit
+      // so the remaining events are not stranded until the next event is sent
+      this.wip.set(0);
+      if (getQueueDepth() > 0) {
+        try {
+          triggerDispatchEvents();
+        } catch (RejectedExecutionException rejected) {
+          e.addSuppressed(rejected);
+        }
+      }
+      throw e;
+    }
+  }
+
+  @Override
+  protected <E> void dispatchEvent(E event) {
+
+    try {
+      super.dispatchEvent(event);
+    } finally {
+      release();
+    }
+  }
+
+  @Override
+  protected <E> void dispatchBatch(List<E> batch) {
+
+    try {
+      super.dispatchBatch(batch);
+    } finally {
+      release(batch.size());
+    }
+  }
+
+  @Override
+  protected <E> boolean dispatchBatch(List<E> batch, BatchEventListener<? super E> listener) {
+
+    if (this.mailboxes == null) {
+      return super.dispatchBatch(batch, listener);
+    }
+    submit(listener, () -> {
+      try {
+        AsyncEventBus.super.dispatchBatch(batch, listener);
+      } finally {
+        release();
+      }
+    });
+    return true;
+  }
+
+  @Override
+  protected <E> boolean dispatchEvent(E event, EventListener<? super E> listener) {
+
+    if (this.mailboxes == null) {
+      return super.dispatchEvent(event, listener);
+    }
+    submit(listener, () -> {
+      try {
+        AsyncEventBus.super.dispatchEvent(event, listener);
+      } finally {
+        release();
+      }
+    });
+    return true;
+  }
+
+  /**
+   * Submits the given task to the mailbox of the given {@link EventListener}. Besides {@link #drain()} this may also
+   * be called concurrently by a sender if the {@link OverflowPolicy#CALLER_RUNS caller runs} the dispatching.
+   */
+  private void submit(EventListener<?> listener, Runnable task) {
+
+    this.pending.incrementAndGet();
+    while (true) {
+      SerialExecutor mailbox = this.mailboxes.computeIfAbsent(listener, l -> new SerialExecutor(this.executor));
+      if (mailbox.tryExecute(task)) {
+        return;
+      }
+      // retired by sweepMailboxes concurrently so it is replaced by a new mailbox
+      this.mailboxes.remove(listener, mailbox);
+    }
+  }
+
+  /**
+   * Removes idle mailboxes of {@link EventListener}s to avoid memory leaks. An idle mailbox is
+   * {@link SerialExecutor#retire() retired} atomically so a concurrent {@link #submit(EventListener, Runnable)
+   * submitter} never uses it and a mailbox can never be removed while busy. Amortized as the threshold grows with the
+   * number of mailboxes.
+   */
+  private void sweepMailboxes() {
+
+    if (this.mailboxes.size() > this.mailboxSweepThreshold) {
+      this.mailboxes.values().removeIf(SerialExecutor::retire);
+      this.mailboxSweepThreshold = Math.max(MIN_MAILBOX_SWEEP_THRESHOLD, this.mailboxes.size() * 2);
+    }
+  }
+
+  private void release() {
+
+    release(1);
+  }
+
+  private void release(int count) {
+
+    if (this.pending.addAndGet(-count) == 0) {
+      synchronized (this.pending) {
+        this.pending.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Waits until all events {@link #sendEvent(Object) sent} so far have been dispatched and all resulting
+   * {@link EventListener} invocations have completed. Unlike {@link #close(Duration)} this bus remains open.
+   *
+   * @param timeout the maximum {@link Duration} to wait.
+   * @return {@code true} if all pending events have been processed, {@code false} if the deadline has been reached
+   *         before.
+   * @throws InterruptedException if the current {@link Thread} was interrupted while waiting.
+   */
+  public boolean drain(Duration timeout) throws InterruptedException {
+
+    long deadline = System.nanoTime() + timeout.toNanos();
+    synchronized (this.pending) {
+      while (this.pending.get() > 0) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return false;
+        }
+        long millis = Math.max(1, remaining / 1_000_000);
+        this.pending.wait(millis);
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Closes this bus so further {@link #sendEvent(Object) sent} events are rejected and waits until all pending events
+   * have been dispatched or the given deadline is reached. An {@link Executor} created by this bus itself is shut down
+   * afterwards.
+   *
+   * @param timeout the maximum {@link Duration} to wait.
+   * @return {@code true} if all pending events have been processed, {@code false} if the deadline has been reached
+   *         before (remaining events will still be processed in the background).
+   * @throws InterruptedException if the current {@link Thread} was interrupted while waiting.
+   */
+  public boolean close(Duration timeout) throws InterruptedException {
+
+    this.closed = true;
+    boolean drained = drain(timeout);
+    if (this.shutdownExecutor && (this.executor instanceof ExecutorService executorService)) {
+      executorService.shutdown();
+    }
+    return drained;
+  }
+
+  /**
+   * Closes this bus and waits until all pending events have been dispatched.
+   *
+   * @see #close(Duration)
+   */
+  @Override
+  public void close() {
+
+    boolean interrupted = false;
+    while (true) {
+      try {
+        close(Duration.ofDays(1));
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * The available modes how an {@link AsyncEventBus} dispatches the events.
+   */
+  public enum DispatchMode {
+
+    /**
+     * All events are dispatched one after the other by a single task of the {@link Executor} that invokes all
+     * {@link EventListener}s sequentially. This guarantees a global FIFO order but a slow {@link EventListener} delays
+     * all others.
+     */
+    SERIAL,
+
+    /**
+     * The events are taken from the queue in order, but every {@link EventListener} has its own mailbox processed by
+     * its own task of the {@link Executor} (e.g. a virtual {@link Thread}). Each {@link EventListener} receives the
+     * events in FIFO order and is never invoked concurrently, but different {@link EventListener}s run in parallel so a
+     * slow {@link EventListener} only delays itself.
+     */
+    PER_LISTENER
+
+  }
+
+}
@@ -2,16 +2,23 @@
  * http://www.apache.org/licenses/LICENSE-2.0 */
 package io.github.mmm.event.impl;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import io.github.mmm.base.exception.GlobalExceptionHandler;
 import io.github.mmm.event.AbstractEventBus;
 import io.github.mmm.event.EventBus;
+import io.github.mmm.event.OverflowPolicy;
 
 /**
- * This is the default implementation of {@link EventBus}.
+ * This is the default implementation of {@link EventBus}. It dispatches the events synchronously in the
+ * {@link Thread} sending them. If multiple threads send events concurrently, exactly one of them becomes the drainer
+ * that dispatches all queued events in global FIFO order while the others simply hand off their events and return
+ * immediately.
  */
 public class EventBusImpl extends AbstractEventBus {
 
-  private volatile boolean dispatching;
+  /** Number of {@link #triggerDispatchEvents() dispatch requests} not yet consumed by the active drainer. */
+  private final AtomicInteger wip;
 
   /**
    * The constructor.
@@ -28,19 +35,54 @@ public class EventBusImpl extends AbstractEventBus {
    */
   protected EventBusImpl(GlobalExceptionHandler errorHandler) {
 
-    super(errorHandler);
+    this(errorHandler, 0, null);
+  }
+
+  /**
+   * The constructor for a bounded event queue.
+   *
+   * @param capacity the maximum number of events in the queue waiting to be dispatched. Use {@code 0} for an unbounded
+   *        queue.
+   * @param overflowPolicy the {@link OverflowPolicy} applied if the bounded queue is full.
+   */
+  public EventBusImpl(int capacity, OverflowPolicy overflowPolicy) {
+
+    this(null, capacity, overflowPolicy);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param errorHandler the {@link GlobalExceptionHandler} instance.
+   * @param capacity the maximum number of events in the queue waiting to be dispatched. Use {@code 0} for an unbounded
+   *        queue.
+   * @param overflowPolicy the {@link OverflowPolicy} applied if the bounded queue is full.
+   */
+  protected EventBusImpl(GlobalExceptionHandler errorHandler, int capacity, OverflowPolicy overflowPolicy) {
+
+    super(errorHandler, capacity, overflowPolicy);
+    this.wip = new AtomicInteger();
   }
 
   @Override
   protected void triggerDispatchEvents() {
 
-    // not synchronized - may call dispatchEvents() parallel
-    // since we are using a concurrent queue, events will get properly dispatched
-    // in the worst case and event could overtake if all goes badly wrong...
-    if (!this.dispatching) {
-      this.dispatching = true;
-      dispatchEvents();
-      this.dispatching = false;
+    // work-passing: only the thread incrementing from zero becomes the drainer, all others have already queued their
+    // event and return. The drainer only stops after it has consumed all requests so no event gets stranded.
+    if (this.wip.getAndIncrement() != 0) {
+      return;
+    }
+    int missed = 1;
+    try {
+      do {
+        dispatchEvents();
+        missed = this.wip.addAndGet(-missed);
+      } while (missed != 0);
+    } catch (RuntimeException | Error e) {
+      // only possible if handleUndispatchedEvent or the error handler failed - give up the drainer role so the bus
+      // does not get stuck, remaining events are dispatched by the next sender
+      this.wip.set(0);
+      throw e;
     }
   }
 
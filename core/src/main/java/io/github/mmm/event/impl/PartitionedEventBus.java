@@ -0,0 +1,338 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.impl;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import io.github.mmm.base.exception.GlobalExceptionHandler;
+import io.github.mmm.event.AbstractEventBus;
+import io.github.mmm.event.EventBus;
+import io.github.mmm.event.EventListener;
+
+/**
+ * Implementation of {@link EventBus} that scales dispatching across multiple cores while keeping the order of related
+ * events. For every event a key is {@link #setKeyExtractor(Class, Function) extracted} (e.g. the ID of the entity the
+ * event is about) and the event is hashed onto one of a fixed number of lanes. Each lane dispatches its events one
+ * after the other so all events with the same key are received in strict FIFO order while events with different keys
+ * are dispatched in parallel. The registered {@link EventListener}s are shared by all lanes and therefore have to be
+ * thread-safe.<br>
+ * Events of a type without {@link #setKeyExtractor(Class, Function) key extractor} use their {@link Class} as key so
+ * all events of the same type stay in order. Events are routed to their lane directly without the central queue of
+ * {@link AbstractEventBus} so {@link #getOverflowPolicy() overflow policies} do not apply.
+ */
+public class PartitionedEventBus extends AbstractEventBus implements AutoCloseable {
+
+  private final SerialExecutor[] lanes;
+
+  private final Executor executor;
+
+  private final boolean shutdownExecutor;
+
+  private final Map<Class<?>, Function<Object, ?>> keyExtractorMap;
+
+  /** Key extractors resolved for concrete event types including the "no extractor" case. */
+  private final Map<Class<?>, Function<Object, ?>> resolvedKeyExtractorMap;
+
+  private final AtomicLong pending;
+
+  private volatile boolean closed;
+
+  /**
+   * The constructor with one lane per available processor, each running on its own daemon {@link Thread}.
+   */
+  public PartitionedEventBus() {
+
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param laneCount the number of lanes, each running on its own daemon {@link Thread}.
+   */
+  public PartitionedEventBus(int laneCount) {
+
+    this(Executors.newFixedThreadPool(laneCount, Thread.ofPlatform().name("EventBus-lane-", 0).daemon().factory()),
+        laneCount, true, null);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param executor the {@link Executor} running the lanes (e.g. with virtual threads).
+   * @param laneCount the number of lanes.
+   */
+  public PartitionedEventBus(Executor executor, int laneCount) {
+
+    this(executor, laneCount, false, null);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param executor the {@link Executor} running the lanes (e.g. with virtual threads).
+   * @param laneCount the number of lanes.
+   * @param errorHandler the {@link GlobalExceptionHandler} instance.
+   */
+  protected PartitionedEventBus(Executor executor, int laneCount, GlobalExceptionHandler errorHandler) {
+
+    this(executor, laneCount, false, errorHandler);
+  }
+
+  private PartitionedEventBus(Executor executor, int laneCount, boolean shutdownExecutor,
+      GlobalExceptionHandler errorHandler) {
+
+    super(errorHandler);
+    Objects.requireNonNull(executor, "executor");
+    if (laneCount < 1) {
+      throw new IllegalArgumentException("Invalid lane count: " + laneCount);
+    }
+    this.executor = executor;
+    this.shutdownExecutor = shutdownExecutor;
+    this.lanes = new SerialExecutor[laneCount];
+    for (int i = 0; i < laneCount; i++) {
+      this.lanes[i] = new SerialExecutor(executor);
+    }
+    this.keyExtractorMap = new ConcurrentHashMap<>();
+    this.resolvedKeyExtractorMap = new ConcurrentHashMap<>();
+    this.pending = new AtomicLong();
+  }
+
+  /**
+   * @return the number of lanes.
+   */
+  public int getLaneCount() {
+
+    return this.lanes.length;
+  }
+
+  /**
+   * Registers the function to extract the partition key from events of the given type (including sub-types unless
+   * they have their own key extractor). Events with {@link Object#equals(Object) equal} keys are always dispatched in
+   * FIFO order. This should be configured before events of the given type are sent.
+   *
+   * @param <E> the type of the events.
+   * @param eventType the {@link Class} reflecting the event type.
+   * @param keyExtractor the {@link Function} to extract the partition key from an event. May return {@code null} for
+   *        events that shall be dispatched in order with all events of the same type.
+   */
+  @SuppressWarnings("unchecked")
+  public <E> void setKeyExtractor(Class<E> eventType, Function<? super E, ?> keyExtractor) {
+
+    Objects.requireNonNull(eventType, "eventType");
+    Objects.requireNonNull(keyExtractor, "keyExtractor");
+    this.keyExtractorMap.put(eventType, (Function<Object, ?>) keyExtractor);
+    this.resolvedKeyExtractorMap.clear();
+  }
+
+  private Function<Object, ?> getKeyExtractor(Class<?> eventType) {
+
+    Function<Object, ?> keyExtractor = this.resolvedKeyExtractorMap.get(eventType);
+    if (keyExtractor == null) {
+      keyExtractor = Function.identity();
+      for (Class<?> type : getTypeClosure(eventType)) {
+        Function<Object, ?> extractor = this.keyExtractorMap.get(type);
+        if (extractor != null) {
+          keyExtractor = extractor;
+          break;
+        }
+      }
+      this.resolvedKeyExtractorMap.put(eventType, keyExtractor);
+    }
+    return keyExtractor;
+  }
+
+  private SerialExecutor getLane(Object event) {
+
+    Class<?> eventType = event.getClass();
+    Function<Object, ?> keyExtractor = getKeyExtractor(eventType);
+    Object key = null;
+    if (keyExtractor != Function.identity()) {
+      key = keyExtractor.apply(event);
+    }
+    if (key == null) {
+      key = eventType;
+    }
+    int hash = key.hashCode();
+    hash = hash ^ (hash >>> 16);
+    return this.lanes[Math.floorMod(hash, this.lanes.length)];
+  }
+
+  /**
+   * @throws IllegalStateException if this bus has already been {@link #close() closed}.
+   */
+  @Override
+  public void sendEvent(Object event) {
+
+    if (!submit(event)) {
+      throw new IllegalStateException("EventBus has been closed.");
+    }
+    recordSent(event);
+  }
+
+  /**
+   * As the lanes are unbounded the event is only rejected if this bus has already been {@link #close() closed}.
+   */
+  @Override
+  public boolean trySendEvent(Object event) {
+
+    if (!submit(event)) {
+      return false;
+    }
+    recordSent(event);
+    return true;
+  }
+
+  /**
+   * Passes the internal event to its lane as events are never added to the queue.
+   */
+  @Override
+  protected void enqueueInternalEvent(Object event) {
+
+    if (!submit(event)) {
+      throw new IllegalStateException("EventBus has been closed.");
+    }
+  }
+
+  private boolean submit(Object event) {
+
+    Objects.requireNonNull(event);
+    // increment before checking closed so close() can never miss an accepted event
+    this.pending.incrementAndGet();
+    if (this.closed) {
+      release();
+      return false;
+    }
+    SerialExecutor lane;
+    try {
+      lane = getLane(event);
+    } catch (RuntimeException | Error e) {
+      release();
+      throw e;
+    }
+    lane.execute(() -> {
+      try {
+        dispatchEvent(event);
+      } catch (Throwable e) {
+        // a lane must never die
+        this.errorHandler.handleError(event, e);
+      } finally {
+        release();
+      }
+    });
+    return true;
+  }
+
+  /**
+   * Sends the events one by one as they may be routed to different lanes.
+   */
+  @Override
+  public void sendEvents(Collection<?> events) {
+
+    for (Object event : events) {
+      sendEvent(event);
+    }
+  }
+
+  /**
+   * @throws UnsupportedOperationException if {@code conflating} is {@code true} as events are passed to their lane
+   *         directly without the queue of {@link AbstractEventBus}.
+   */
+  @Override
+  public void setConflating(boolean conflating) {
+
+    if (conflating) {
+      throw new UnsupportedOperationException("Conflation is not supported by " + getClass().getSimpleName());
+    }
+  }
+
+  @Override
+  protected void triggerDispatchEvents() {
+
+    // nothing to do, events are never added to the queue but directly passed to their lane
+  }
+
+  private void release() {
+
+    if (this.pending.decrementAndGet() == 0) {
+      synchronized (this.pending) {
+        this.pending.notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Waits until all events {@link #sendEvent(Object) sent} so far have been dispatched.
+   *
+   * @param timeout the maximum {@link Duration} to wait.
+   * @return {@code true} if all pending events have been dispatched, {@code false} if the deadline has been reached
+   *         before.
+   * @throws InterruptedException if the current {@link Thread} was interrupted while waiting.
+   */
+  public boolean drain(Duration timeout) throws InterruptedException {
+
+    long deadline = System.nanoTime() + timeout.toNanos();
+    synchronized (this.pending) {
+      while (this.pending.get() > 0) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining <= 0) {
+          return false;
+        }
+        this.pending.wait(Math.max(1, remaining / 1_000_000));
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Closes this bus so further {@link #sendEvent(Object) sent} events are rejected and waits until all pending events
+   * have been dispatched or the given deadline is reached. An {@link Executor} created by this bus itself is shut down
+   * afterwards.
+   *
+   * @param timeout the maximum {@link Duration} to wait.
+   * @return {@code true} if all pending events have been dispatched, {@code false} if the deadline has been reached
+   *         before.
+   * @throws InterruptedException if the current {@link Thread} was interrupted while waiting.
+   */
+  public boolean close(Duration timeout) throws InterruptedException {
+
+    this.closed = true;
+    boolean drained = drain(timeout);
+    if (this.shutdownExecutor && (this.executor instanceof ExecutorService executorService)) {
+      executorService.shutdown();
+    }
+    return drained;
+  }
+
+  /**
+   * Closes this bus and waits until all pending events have been dispatched.
+   *
+   * @see #close(Duration)
+   */
+  @Override
+  public void close() {
+
+    boolean interrupted = false;
+    while (true) {
+      try {
+        close(Duration.ofDays(1));
+        break;
+      } catch (InterruptedException e) {
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+}
@@ -0,0 +1,561 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.github.mmm.base.exception.GlobalExceptionHandler;
+import io.github.mmm.event.AbstractEventBus;
+import io.github.mmm.event.EventBus;
+import io.github.mmm.event.OverflowPolicy;
+
+/**
+ * Implementation of {@link EventBus} backed by a ring buffer of preallocated slots (in the style of the LMAX
+ * Disruptor). Unlike the queue of {@link AbstractEventBus} {@link #sendEvent(Object) sending} an event does not
+ * allocate anything. Producers claim a sequence number, store the event in the according slot and publish it. A single
+ * dedicated consumer {@link Thread} dispatches the events in the order of their sequence numbers. If the ring is full,
+ * producers wait until the consumer has freed a slot. How producers and the consumer wait is determined by the
+ * {@link WaitStrategy} allowing to trade CPU for latency.<br>
+ * Events sent from within an {@link io.github.mmm.event.EventListener} (on the consumer {@link Thread}) never wait
+ * for the ring but are dispatched directly after the current event. The consumer {@link Thread} is not started by the
+ * constructor but via {@link #start()}:
+ *
+ * <pre>
+ * RingBufferEventBus eventBus = new RingBufferEventBus().start();
+ * </pre>
+ *
+ * When done, {@link #close() close} the bus to stop the consumer {@link Thread}.
+ */
+public class RingBufferEventBus extends AbstractEventBus implements AutoCloseable {
+
+  /** The default capacity. */
+  public static final int DEFAULT_CAPACITY = 1024;
+
+  private static final VarHandle CLAIMED;
+
+  private static final VarHandle CONSUMED;
+
+  private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+  static {
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      CLAIMED = lookup.findVarHandle(RingBufferEventBus.class, "claimed", long.class);
+      CONSUMED = lookup.findVarHandle(RingBufferEventBus.class, "consumed", long.class);
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final Object[] slots;
+
+  /** The round ({@code sequence >>> shift}) that has been published per slot. */
+  private final int[] available;
+
+  private final int mask;
+
+  private final int shift;
+
+  private final WaitStrategy waitStrategy;
+
+  private final ReentrantLock lock;
+
+  private final Condition condition;
+
+  /** The consumer {@link Thread} or {@code null} if not yet {@link #start() started}. */
+  private volatile Thread consumer;
+
+  /** Events sent by the consumer {@link Thread} itself (from a listener). */
+  private final ArrayDeque<Object> reentrantEvents;
+
+  /** Internal events {@link #enqueueInternalEvent(Object) enqueued} by other threads bypassing the ring. */
+  private final Queue<Object> internalEvents;
+
+  /** The next sequence to claim by a producer. */
+  private volatile long claimed;
+
+  /** The last sequence consumed by the consumer. */
+  private volatile long consumed;
+
+  /** The number of threads currently blocked in {@link WaitStrategy#BLOCKING}. */
+  private volatile int blocked;
+
+  private volatile boolean running;
+
+  /**
+   * The constructor using {@link #DEFAULT_CAPACITY} and {@link WaitStrategy#PARKING}.
+   */
+  public RingBufferEventBus() {
+
+    this(DEFAULT_CAPACITY, WaitStrategy.PARKING);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param capacity the minimum capacity of the ring. Will be rounded up to the next power of two.
+   * @param waitStrategy the {@link WaitStrategy}.
+   */
+  public RingBufferEventBus(int capacity, WaitStrategy waitStrategy) {
+
+    this(capacity, waitStrategy, null);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param capacity the minimum capacity of the ring. Will be rounded up to the next power of two.
+   * @param waitStrategy the {@link WaitStrategy}.
+   * @param errorHandler the {@link GlobalExceptionHandler} instance.
+   */
+  protected RingBufferEventBus(int capacity, WaitStrategy waitStrategy, GlobalExceptionHandler errorHandler) {
+
+    super(errorHandler);
+    Objects.requireNonNull(waitStrategy, "waitStrategy");
+    if ((capacity < 1) || (capacity > (1 << 30))) {
+      throw new IllegalArgumentException("Invalid capacity: " + capacity);
+    }
+    int size = Integer.highestOneBit(capacity);
+    if (size < capacity) {
+      size = size << 1;
+    }
+    this.slots = new Object[size];
+    this.available = new int[size];
+    Arrays.fill(this.available, -1);
+    this.mask = size - 1;
+    this.shift = Integer.numberOfTrailingZeros(size);
+    this.waitStrategy = waitStrategy;
+    this.lock = new ReentrantLock();
+    this.condition = this.lock.newCondition();
+    this.reentrantEvents = new ArrayDeque<>();
+    this.internalEvents = new ConcurrentLinkedQueue<>();
+    this.consumed = -1;
+    this.running = true;
+  }
+
+  /**
+   * Starts the consumer {@link Thread} dispatching the events. Events sent before are kept in the ring and dispatched
+   * once started (producers wait if the ring gets full). Calling this method again has no effect.
+   *
+   * @return this bus for fluent usage.
+   */
+  public synchronized RingBufferEventBus start() {
+
+    if (this.consumer == null) {
+      this.consumer = Thread.ofPlatform().name("RingBufferEventBus").daemon().start(this::consume);
+    }
+    return this;
+  }
+
+  /**
+   * @return the capacity of the ring (number of slots). As the ring is always bounded this is never {@code 0}.
+   */
+  @Override
+  public int getCapacity() {
+
+    return this.slots.length;
+  }
+
+  /**
+   * @return {@link OverflowPolicy#BLOCK} as producers wait according to the {@link WaitStrategy} until a slot of the
+   *         ring is free.
+   */
+  @Override
+  public OverflowPolicy getOverflowPolicy() {
+
+    return OverflowPolicy.BLOCK;
+  }
+
+  /**
+   * @return the {@link WaitStrategy}.
+   */
+  public WaitStrategy getWaitStrategy() {
+
+    return this.waitStrategy;
+  }
+
+  /**
+   * @return the number of claimed events in the ring that have not been consumed yet.
+   */
+  @Override
+  protected int getQueueDepth() {
+
+    return (int) ((long) CLAIMED.getVolatile(this) - 1 - this.consumed);
+  }
+
+  /**
+   * @throws IllegalStateException if this bus has been {@link #close() closed}.
+   */
+  @Override
+  public void sendEvent(Object event) {
+
+    Objects.requireNonNull(event);
+    if (Thread.currentThread() == this.consumer) {
+      this.reentrantEvents.add(event);
+      recordSent(event);
+      return;
+    }
+    requireRunning();
+    long sequence = (long) CLAIMED.getAndAdd(this, 1L);
+    // re-check after claiming: if close() happened concurrently the consumer may already have terminated
+    boolean accepted = this.running;
+    long wrapPoint = sequence - this.slots.length;
+    int counter = 0;
+    while (wrapPoint > this.consumed) {
+      counter = this.waitStrategy.idle(counter, this);
+    }
+    if (accepted) {
+      publish(sequence, event);
+      recordSent(event);
+    } else {
+      // publish an empty slot so a consumer still running does not wait for this sequence
+      publish(sequence, null);
+      requireRunning();
+    }
+  }
+
+  /**
+   * Claims a contiguous range of sequences for the events so they are dispatched in a row.
+   */
+  @Override
+  public void sendEvents(Collection<?> events) {
+
+    Object[] array = events.toArray();
+    for (Object event : array) {
+      Objects.requireNonNull(event);
+    }
+    if (Thread.currentThread() == this.consumer) {
+      Collections.addAll(this.reentrantEvents, array);
+      for (Object event : array) {
+        recordSent(event);
+      }
+      return;
+    }
+    if (array.length == 0) {
+      return;
+    }
+    requireRunning();
+    long sequence = (long) CLAIMED.getAndAdd(this, (long) array.length);
+    boolean accepted = this.running;
+    int counter = 0;
+    for (Object event : array) {
+      long wrapPoint = sequence - this.slots.length;
+      while (wrapPoint > this.consumed) {
+        counter = this.waitStrategy.idle(counter, this);
+      }
+      if (accepted) {
+        publish(sequence, event);
+        recordSent(event);
+      } else {
+        publish(sequence, null);
+      }
+      sequence++;
+    }
+    if (!accepted) {
+      requireRunning();
+    }
+  }
+
+  /**
+   * Publishes the event only if a slot is free without waiting.
+   */
+  @Override
+  public boolean trySendEvent(Object event) {
+
+    Objects.requireNonNull(event);
+    if (Thread.currentThread() == this.consumer) {
+      this.reentrantEvents.add(event);
+      recordSent(event);
+      return true;
+    }
+    if (!this.running) {
+      return false;
+    }
+    long sequence;
+    do {
+      sequence = this.claimed;
+      if (sequence - this.slots.length > this.consumed) {
+        return false;
+      }
+    } while (!CLAIMED.compareAndSet(this, sequence, sequence + 1));
+    if (this.running) {
+      publish(sequence, event);
+      recordSent(event);
+      return true;
+    } else {
+      publish(sequence, null);
+      return false;
+    }
+  }
+
+  private void requireRunning() {
+
+    if (!this.running) {
+      throw new IllegalStateException("EventBus has been closed.");
+    }
+  }
+
+  private void publish(long sequence, Object event) {
+
+    int index = (int) sequence & this.mask;
+    this.slots[index] = event;
+    AVAILABLE.setRelease(this.available, index, (int) (sequence >>> this.shift));
+    if (this.blocked > 0) {
+      signalAll();
+    }
+  }
+
+  private boolean isAvailable(long sequence) {
+
+    int index = (int) sequence & this.mask;
+    return ((int) AVAILABLE.getAcquire(this.available, index) == (int) (sequence >>> this.shift));
+  }
+
+  /**
+   * @throws UnsupportedOperationException if {@code conflating} is {@code true} as events are written to the ring
+   *         buffer directly without the queue of {@link AbstractEventBus}.
+   */
+  @Override
+  public void setConflating(boolean conflating) {
+
+    if (conflating) {
+      throw new UnsupportedOperationException("Conflation is not supported by " + getClass().getSimpleName());
+    }
+  }
+
+  /**
+   * Passes the internal event to the consumer {@link Thread} without claiming a slot so it never waits for the ring.
+   */
+  @Override
+  protected void enqueueInternalEvent(Object event) {
+
+    if (Thread.currentThread() == this.consumer) {
+      this.reentrantEvents.add(event);
+      return;
+    }
+    requireRunning();
+    this.internalEvents.add(event);
+    if (this.blocked > 0) {
+      signalAll();
+    }
+  }
+
+  @Override
+  protected void triggerDispatchEvents() {
+
+    // nothing to do, events are never added to the queue but published to the ring
+  }
+
+  private void consume() {
+
+    long next = 0;
+    int counter = 0;
+    while (true) {
+      if (isAvailable(next)) {
+        int index = (int) next & this.mask;
+        Object event = this.slots[index];
+        this.slots[index] = null;
+        CONSUMED.setRelease(this, next);
+        if (this.blocked > 0) {
+          signalAll();
+        }
+        next++;
+        counter = 0;
+        if (event != null) {
+          dispatchSafely(event);
+          dispatchReentrantEvents();
+        }
+        dispatchInternalEvents();
+      } else if (dispatchInternalEvents()) {
+        counter = 0;
+      } else if (!this.running && ((long) CLAIMED.getVolatile(this) == next)) {
+        return;
+      } else {
+        counter = this.waitStrategy.idle(counter, this);
+      }
+    }
+  }
+
+  private void dispatchReentrantEvents() {
+
+    Object reentrantEvent = this.reentrantEvents.poll();
+    while (reentrantEvent != null) {
+      dispatchSafely(reentrantEvent);
+      reentrantEvent = this.reentrantEvents.poll();
+    }
+  }
+
+  /**
+   * @return {@code true} if at least one {@link #enqueueInternalEvent(Object) internal event} has been dispatched,
+   *         {@code false} otherwise.
+   */
+  private boolean dispatchInternalEvents() {
+
+    Object internalEvent = this.internalEvents.poll();
+    if (internalEvent == null) {
+      return false;
+    }
+    do {
+      dispatchSafely(internalEvent);
+      dispatchReentrantEvents();
+      internalEvent = this.internalEvents.poll();
+    } while (internalEvent != null);
+    return true;
+  }
+
+  private void dispatchSafely(Object event) {
+
+    try {
+      dispatchEvent(event);
+    } catch (Throwable e) {
+      // the consumer thread must never die
+      this.errorHandler.handleError(event, e);
+    }
+  }
+
+  private void block() {
+
+    this.lock.lock();
+    try {
+      this.blocked++;
+      // timed wait as safety net since publishing does not acquire the lock
+      this.condition.await(1, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      this.blocked--;
+      this.lock.unlock();
+    }
+  }
+
+  private void signalAll() {
+
+    this.lock.lock();
+    try {
+      this.condition.signalAll();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  /**
+   * Closes this bus so further {@link #sendEvent(Object) sent} events are rejected. All events already published are
+   * still dispatched before the consumer {@link Thread} terminates (it is {@link #start() started} if this has not
+   * happened before). Events sent concurrently to closing are either dispatched or rejected with an
+   * {@link IllegalStateException}.
+   */
+  @Override
+  public void close() {
+
+    this.running = false;
+    if (this.blocked > 0) {
+      signalAll();
+    }
+    Thread thread = start().consumer;
+    if (Thread.currentThread() != thread) {
+      boolean interrupted = false;
+      while (thread.isAlive()) {
+        try {
+          thread.join();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * The available strategies how to wait for the ring buffer (the consumer for new events and the producers for free
+   * slots).
+   */
+  public enum WaitStrategy {
+
+    /** Busy spin with {@link Thread#onSpinWait()}. Lowest latency but burns a CPU core permanently. */
+    BUSY_SPIN {
+
+      @Override
+      int idle(int counter, RingBufferEventBus bus) {
+
+        Thread.onSpinWait();
+        return counter;
+      }
+    },
+
+    /** Spins a short time and then {@link Thread#yield() yields}. Low latency but still high CPU usage. */
+    YIELDING {
+
+      @Override
+      int idle(int counter, RingBufferEventBus bus) {
+
+        if (counter < SPIN_TRIES) {
+          Thread.onSpinWait();
+        } else {
+          Thread.yield();
+        }
+        return counter + 1;
+      }
+    },
+
+    /** Spins, then yields and finally {@link LockSupport#parkNanos(long) parks} for short periods. Balanced default. */
+    PARKING {
+
+      @Override
+      int idle(int counter, RingBufferEventBus bus) {
+
+        if (counter < SPIN_TRIES) {
+          Thread.onSpinWait();
+        } else if (counter < SPIN_TRIES + YIELD_TRIES) {
+          Thread.yield();
+        } else {
+          LockSupport.parkNanos(PARK_NANOS);
+          return counter;
+        }
+        return counter + 1;
+      }
+    },
+
+    /**
+     * Blocks on a {@link Condition} that is signalled when a slot is published or consumed. Lowest CPU usage but
+     * highest latency as signalling requires a lock.
+     */
+    BLOCKING {
+
+      @Override
+      int idle(int counter, RingBufferEventBus bus) {
+
+        bus.block();
+        return counter;
+      }
+    };
+
+    private static final int SPIN_TRIES = 100;
+
+    private static final int YIELD_TRIES = 100;
+
+    private static final long PARK_NANOS = 50_000;
+
+    /**
+     * @param counter the number of times this method has been called while waiting for the current condition.
+     * @param bus the {@link RingBufferEventBus}.
+     * @return the new counter.
+     */
+    abstract int idle(int counter, RingBufferEventBus bus);
+
+  }
+
+}
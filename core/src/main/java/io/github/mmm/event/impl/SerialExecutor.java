@@ -0,0 +1,97 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.impl;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link Executor} that runs the submitted tasks one after the other in FIFO order on an underlying {@link Executor}.
+ * At most one task is running at a time and a {@link Thread} of the underlying {@link Executor} is only occupied while
+ * tasks are pending. Tasks must not throw exceptions.
+ */
+final class SerialExecutor implements Executor, Runnable {
+
+  private final Executor executor;
+
+  private final Queue<Runnable> tasks;
+
+  /**
+   * Number of {@link #execute(Runnable) submitted} tasks not yet consumed by {@link #run()} or {@code -1} if
+   * {@link #retire() retired}.
+   */
+  private final AtomicInteger wip;
+
+  /**
+   * The constructor.
+   *
+   * @param executor the underlying {@link Executor}.
+   */
+  SerialExecutor(Executor executor) {
+
+    super();
+    this.executor = executor;
+    this.tasks = new ConcurrentLinkedQueue<>();
+    this.wip = new AtomicInteger();
+  }
+
+  @Override
+  public void execute(Runnable task) {
+
+    this.tasks.add(task);
+    if (this.wip.getAndIncrement() == 0) {
+      this.executor.execute(this);
+    }
+  }
+
+  @Override
+  public void run() {
+
+    int missed = 1;
+    do {
+      Runnable task = this.tasks.poll();
+      while (task != null) {
+        task.run();
+        task = this.tasks.poll();
+      }
+      missed = this.wip.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  /**
+   * Like {@link #execute(Runnable)} but fails if this executor has been {@link #retire() retired}.
+   *
+   * @param task the task to execute.
+   * @return {@code true} if the task will be executed, {@code false} if this executor has been {@link #retire()
+   *         retired} and the task has to be submitted elsewhere.
+   */
+  boolean tryExecute(Runnable task) {
+
+    this.tasks.add(task);
+    int count;
+    do {
+      count = this.wip.get();
+      if (count < 0) {
+        return false;
+      }
+    } while (!this.wip.compareAndSet(count, count + 1));
+    if (count == 0) {
+      this.executor.execute(this);
+    }
+    return true;
+  }
+
+  /**
+   * Retires this executor if it is idle so it never accepts a task via {@link #tryExecute(Runnable)} anymore.
+   *
+   * @return {@code true} if this executor was idle (no task pending or running) and has been retired, {@code false}
+   *         otherwise.
+   */
+  boolean retire() {
+
+    return this.wip.compareAndSet(0, -1);
+  }
+
+}
@@ -0,0 +1,521 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import io.github.mmm.event.EventBus;
+import io.github.mmm.event.codec.EventCodec;
+
+/**
+ * Implementation of {@link EventBus} that exchanges events with other JVMs on the same host via memory-mapped ring
+ * files. Events are always dispatched to the local listeners like with {@link EventBusImpl}. Additionally events of
+ * the types selected via {@link #publishTo(Path, int, Class...) publishTo} are
+ * {@link EventCodec#encode(Object, ByteBuffer) encoded} into a ring file that has exactly one writer. Any number of
+ * other buses (typically in other JVMs) can {@link #receiveFrom(Path) receive} from that ring file. Each of them polls
+ * the ring with a dedicated {@link Thread} and dispatches the {@link EventCodec#decode(ByteBuffer) decoded} events to
+ * its own local listeners so remote events are subscribed exactly like local ones via
+ * {@link #addListener(Class, io.github.mmm.event.EventListener) addListener}.<br>
+ * Writing and reading the ring only accesses mapped memory and therefore does not perform any system calls. The
+ * writer never waits for readers. A reader that falls behind by more than the capacity of the ring is overrun: it
+ * skips to the most recent event and the loss is counted in {@link #getOverrunCount()}. Readers only receive events
+ * published after they started. When done, {@link #close() close} the bus to stop the reader {@link Thread}s and
+ * unlock the ring file.
+ *
+ * <pre>
+ * // JVM 1
+ * SharedMemoryEventBus bus = new SharedMemoryEventBus(registry);
+ * bus.publishTo(ringFile, 1 &lt;&lt; 20, PriceEvent.class);
+ * bus.sendEvent(new PriceEvent("ACME", 101.25));
+ * // JVM 2
+ * SharedMemoryEventBus bus = new SharedMemoryEventBus(registry);
+ * bus.addListener(PriceEvent.class, this::onPrice);
+ * bus.receiveFrom(ringFile);
+ * </pre>
+ */
+public class SharedMemoryEventBus extends EventBusImpl implements AutoCloseable {
+
+  /** The minimum capacity of a ring file in bytes. */
+  public static final int MIN_CAPACITY = 4096;
+
+  private static final int MAGIC = 0x6D6D6D45;
+
+  private static final int MAGIC_OFFSET = 0;
+
+  private static final int CAPACITY_OFFSET = 8;
+
+  /** Position up to which the writer may be overwriting the ring. Own cache line to avoid false sharing. */
+  private static final int TAIL_INTENT_OFFSET = 64;
+
+  /** Position up to which the events are completely written. */
+  private static final int TAIL_OFFSET = 128;
+
+  private static final int DATA_OFFSET = 192;
+
+  private static final int RECORD_HEADER = Integer.BYTES;
+
+  private static final int RECORD_ALIGNMENT = Long.BYTES;
+
+  private static final int SPIN_TRIES = 100;
+
+  private static final int YIELD_TRIES = 100;
+
+  private static final long PARK_NANOS = 50_000;
+
+  private static final VarHandle LONG_VIEW = MethodHandles.byteBufferViewVarHandle(long[].class,
+      ByteOrder.nativeOrder());
+
+  private final EventCodec<Object> codec;
+
+  private final List<Receiver> receivers;
+
+  private final LongAdder overrunCount;
+
+  private volatile Writer writer;
+
+  private volatile boolean closed;
+
+  /**
+   * The constructor.
+   *
+   * @param codec the {@link EventCodec} for the exchanged events. Typically an
+   *        {@link io.github.mmm.event.codec.EventCodecRegistry} so multiple event types can be exchanged. Has to be
+   *        compatible with the {@link EventCodec} of the other buses.
+   */
+  @SuppressWarnings("unchecked")
+  public SharedMemoryEventBus(EventCodec<?> codec) {
+
+    super();
+    Objects.requireNonNull(codec, "codec");
+    this.codec = (EventCodec<Object>) codec;
+    this.receivers = new CopyOnWriteArrayList<>();
+    this.overrunCount = new LongAdder();
+  }
+
+  /**
+   * Makes this bus the single writer of the given ring file. Afterwards all events {@link #sendEvent(Object) sent} to
+   * this bus that are instances of the given event types are also written to the ring file. If the file already
+   * exists with the same capacity (e.g. after a restart of the writer), readers that are still attached continue
+   * seamlessly.
+   *
+   * @param ringFile the {@link Path} of the ring file to create or reuse. Should be located on a memory file-system
+   *        such as {@code /dev/shm} to avoid disk I/O of the operating system.
+   * @param capacity the capacity of the ring in bytes. Has to be a power of two and at least {@link #MIN_CAPACITY}. A
+   *        single encoded event may use at most an eighth of it.
+   * @param eventTypes the event types to publish. Events are published if they are an instance of any of these types.
+   * @throws IllegalStateException if this bus is already publishing or the ring file already has a writer.
+   * @throws UncheckedIOException if the ring file could not be opened.
+   */
+  public synchronized void publishTo(Path ringFile, int capacity, Class<?>... eventTypes) {
+
+    Objects.requireNonNull(ringFile, "ringFile");
+    if ((capacity < MIN_CAPACITY) || (Integer.bitCount(capacity) != 1)) {
+      throw new IllegalArgumentException("Capacity has to be a power of two and at least " + MIN_CAPACITY);
+    }
+    if (this.closed) {
+      throw new IllegalStateException("EventBus has been closed.");
+    }
+    if (this.writer != null) {
+      throw new IllegalStateException("EventBus is already publishing to " + this.writer.ringFile);
+    }
+    this.writer = new Writer(ringFile, capacity, Set.of(eventTypes));
+  }
+
+  /**
+   * Starts a {@link Thread} receiving the events from the given ring file and dispatching them to the listeners of
+   * this bus. Received events are not {@link #publishTo(Path, int, Class...) published} again.
+   *
+   * @param ringFile the {@link Path} of the ring file to receive from. Has to be created by the writer before.
+   * @throws UncheckedIOException if the ring file could not be opened.
+   */
+  public void receiveFrom(Path ringFile) {
+
+    Objects.requireNonNull(ringFile, "ringFile");
+    if (this.closed) {
+      throw new IllegalStateException("EventBus has been closed.");
+    }
+    Receiver receiver = new Receiver(ringFile);
+    this.receivers.add(receiver);
+    receiver.thread.start();
+  }
+
+  /**
+   * @return the number of times a {@link #receiveFrom(Path) receiver} has been overrun by the writer and therefore
+   *         lost events.
+   */
+  public long getOverrunCount() {
+
+    return this.overrunCount.sum();
+  }
+
+  /**
+   * Also publishes the event to the {@link #publishTo(Path, int, Class...) ring file} if its type is published and it
+   * has not been {@link #receiveFrom(Path) received} from another ring file. As the event has already been accepted
+   * locally, a failure to publish it is passed to the {@link #errorHandler}.
+   */
+  @Override
+  protected void recordSent(Object event) {
+
+    super.recordSent(event);
+    Writer ringWriter = this.writer;
+    if ((ringWriter != null) && ringWriter.isPublished(event.getClass()) && !isReceived(event)) {
+      try {
+        ringWriter.write(event);
+      } catch (RuntimeException e) {
+        this.errorHandler.handleError(event, e);
+      }
+    }
+  }
+
+  private boolean isReceived(Object event) {
+
+    for (Receiver receiver : this.receivers) {
+      if ((receiver.received == event) && (receiver.thread == Thread.currentThread())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Stops all {@link #receiveFrom(Path) receivers} and releases the ring file written by this bus. Events can still be
+   * sent to the local listeners.
+   */
+  @Override
+  public void close() {
+
+    this.closed = true;
+    boolean interrupted = false;
+    for (Receiver receiver : this.receivers) {
+      receiver.running = false;
+      while ((receiver.thread != Thread.currentThread()) && receiver.thread.isAlive()) {
+        try {
+          receiver.thread.join();
+        } catch (InterruptedException e) {
+          interrupted = true;
+        }
+      }
+    }
+    this.receivers.clear();
+    synchronized (this) {
+      if (this.writer != null) {
+        this.writer.close();
+        this.writer = null;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static int align(int length) {
+
+    return (length + RECORD_ALIGNMENT - 1) & -RECORD_ALIGNMENT;
+  }
+
+  private static int getMaxPayload(int capacity) {
+
+    return (capacity / 8) - RECORD_HEADER;
+  }
+
+  private static void closeQuietly(FileChannel channel, Exception error) {
+
+    if (channel == null) {
+      return;
+    }
+    try {
+      channel.close();
+    } catch (IOException e) {
+      error.addSuppressed(e);
+    }
+  }
+
+  /**
+   * The single writer of a ring file. A record consists of its payload length ({@code int}) followed by the payload
+   * and is aligned to 8 bytes. Records never wrap around the end of the ring: if a record does not fit, the remainder
+   * of the ring is filled with a padding record with negative length. Before overwriting the ring the writer announces
+   * the new tail as {@code tailIntent} so readers can detect if a record has been overwritten while they copied it.
+   */
+  private final class Writer {
+
+    private final Path ringFile;
+
+    private final FileChannel channel;
+
+    private final FileLock lock;
+
+    private final MappedByteBuffer ring;
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final ByteBuffer buffer;
+
+    private final Set<Class<?>> eventTypes;
+
+    /** Cache if a concrete event type is an instance of any of the {@link #eventTypes}. */
+    private final Map<Class<?>, Boolean> publishedTypeMap;
+
+    private long tail;
+
+    private Writer(Path ringFile, int capacity, Set<Class<?>> eventTypes) {
+
+      super();
+      this.ringFile = ringFile;
+      this.capacity = capacity;
+      this.mask = capacity - 1;
+      this.buffer = ByteBuffer.allocateDirect(getMaxPayload(capacity)).order(ByteOrder.nativeOrder());
+      this.eventTypes = eventTypes;
+      this.publishedTypeMap = new ConcurrentHashMap<>();
+      FileChannel fileChannel = null;
+      try {
+        fileChannel = FileChannel.open(ringFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        this.channel = fileChannel;
+        this.lock = tryLock(fileChannel);
+        this.ring = fileChannel.map(MapMode.READ_WRITE, 0, DATA_OFFSET + capacity);
+        this.ring.order(ByteOrder.nativeOrder());
+      } catch (IOException e) {
+        closeQuietly(fileChannel, e);
+        throw new UncheckedIOException("Failed to open ring file " + ringFile, e);
+      } catch (RuntimeException e) {
+        closeQuietly(fileChannel, e);
+        throw e;
+      }
+      if ((this.ring.getInt(MAGIC_OFFSET) == MAGIC) && (this.ring.getLong(CAPACITY_OFFSET) == capacity)) {
+        this.tail = (long) LONG_VIEW.getVolatile(this.ring, TAIL_OFFSET);
+        LONG_VIEW.setVolatile(this.ring, TAIL_INTENT_OFFSET, this.tail);
+      } else {
+        this.ring.putInt(MAGIC_OFFSET, 0);
+        this.ring.putLong(CAPACITY_OFFSET, capacity);
+        LONG_VIEW.setVolatile(this.ring, TAIL_INTENT_OFFSET, 0L);
+        LONG_VIEW.setVolatile(this.ring, TAIL_OFFSET, 0L);
+        // publish the magic last so readers never see a partially initialized header
+        this.ring.putInt(MAGIC_OFFSET, MAGIC);
+        VarHandle.fullFence();
+      }
+    }
+
+    private boolean isPublished(Class<?> type) {
+
+      Boolean published = this.publishedTypeMap.get(type);
+      if (published == null) {
+        published = Boolean.FALSE;
+        for (Class<?> eventType : this.eventTypes) {
+          if (eventType.isAssignableFrom(type)) {
+            published = Boolean.TRUE;
+            break;
+          }
+        }
+        this.publishedTypeMap.put(type, published);
+      }
+      return published.booleanValue();
+    }
+
+    private FileLock tryLock(FileChannel fileChannel) throws IOException {
+
+      FileLock fileLock;
+      try {
+        fileLock = fileChannel.tryLock();
+      } catch (OverlappingFileLockException e) {
+        fileLock = null;
+      }
+      if (fileLock == null) {
+        throw new IllegalStateException("Ring file " + this.ringFile + " already has a writer.");
+      }
+      return fileLock;
+    }
+
+    private synchronized void write(Object event) {
+
+      ByteBuffer payload = this.buffer;
+      payload.clear();
+      try {
+        SharedMemoryEventBus.this.codec.encode(event, payload);
+      } catch (BufferOverflowException e) {
+        throw new IllegalArgumentException("Encoded event exceeds the maximum size of " + payload.capacity()
+            + " bytes for ring file " + this.ringFile, e);
+      }
+      int length = payload.position();
+      int recordLength = align(RECORD_HEADER + length);
+      int index = (int) (this.tail & this.mask);
+      int padding = this.capacity - index;
+      if (padding >= recordLength) {
+        padding = 0;
+      }
+      long newTail = this.tail + padding + recordLength;
+      // announce before overwriting - a volatile write alone does not keep the following plain writes after it
+      LONG_VIEW.setVolatile(this.ring, TAIL_INTENT_OFFSET, newTail);
+      VarHandle.storeStoreFence();
+      if (padding > 0) {
+        this.ring.putInt(DATA_OFFSET + index, -padding);
+        index = 0;
+      }
+      this.ring.putInt(DATA_OFFSET + index, length);
+      this.ring.put(DATA_OFFSET + index + RECORD_HEADER, payload, 0, length);
+      this.tail = newTail;
+      LONG_VIEW.setRelease(this.ring, TAIL_OFFSET, newTail);
+    }
+
+    private void close() {
+
+      try {
+        this.lock.release();
+        this.channel.close();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to close ring file " + this.ringFile, e);
+      }
+    }
+  }
+
+  /**
+   * A reader of a ring file running in its own {@link Thread}.
+   */
+  private final class Receiver {
+
+    private final Path ringFile;
+
+    private final MappedByteBuffer ring;
+
+    private final int capacity;
+
+    private final int mask;
+
+    private final ByteBuffer buffer;
+
+    private final Thread thread;
+
+    /** The tail of the ring when this receiver was created. */
+    private final long startPosition;
+
+    private volatile boolean running;
+
+    /** The event currently {@link #dispatch() dispatched} by this receiver so it is not published again. */
+    private Object received;
+
+    private Receiver(Path ringFile) {
+
+      super();
+      this.ringFile = ringFile;
+      try (FileChannel channel = FileChannel.open(ringFile, StandardOpenOption.READ)) {
+        // the mapping remains valid after the channel has been closed
+        MappedByteBuffer header = channel.map(MapMode.READ_ONLY, 0, DATA_OFFSET);
+        header.order(ByteOrder.nativeOrder());
+        long ringCapacity = header.getLong(CAPACITY_OFFSET);
+        if ((header.getInt(MAGIC_OFFSET) != MAGIC) || (ringCapacity < MIN_CAPACITY)
+            || (ringCapacity > Integer.MAX_VALUE) || (Long.bitCount(ringCapacity) != 1)) {
+          throw new IllegalArgumentException("Not a valid ring file: " + ringFile);
+        }
+        this.capacity = (int) ringCapacity;
+        this.ring = channel.map(MapMode.READ_ONLY, 0, DATA_OFFSET + ringCapacity);
+        this.ring.order(ByteOrder.nativeOrder());
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to open ring file " + ringFile, e);
+      }
+      this.mask = this.capacity - 1;
+      this.buffer = ByteBuffer.allocateDirect(getMaxPayload(this.capacity)).order(ByteOrder.nativeOrder());
+      // start at the current tail so all events published after receiveFrom returned are received
+      this.startPosition = (long) LONG_VIEW.getAcquire(this.ring, TAIL_OFFSET);
+      this.running = true;
+      this.thread = Thread.ofPlatform().name("SharedMemoryEventBus-" + ringFile.getFileName()).daemon()
+          .unstarted(this::receive);
+    }
+
+    private void receive() {
+
+      long position = this.startPosition;
+      int counter = 0;
+      while (this.running) {
+        long tail = (long) LONG_VIEW.getAcquire(this.ring, TAIL_OFFSET);
+        if (position == tail) {
+          counter = idle(counter);
+          continue;
+        }
+        counter = 0;
+        if ((tail - position > this.capacity) || (tail < position)) {
+          // overrun (or the writer has re-initialized the ring)
+          SharedMemoryEventBus.this.overrunCount.increment();
+          position = tail;
+          continue;
+        }
+        int index = (int) (position & this.mask);
+        int length = this.ring.getInt(DATA_OFFSET + index);
+        boolean valid;
+        if (length < 0) {
+          valid = (-length == this.capacity - index);
+        } else {
+          valid = (length <= this.buffer.capacity()) && (index + RECORD_HEADER + length <= this.capacity);
+          if (valid) {
+            this.buffer.clear();
+            this.buffer.put(0, this.ring, DATA_OFFSET + index + RECORD_HEADER, length);
+            this.buffer.limit(length);
+          }
+        }
+        VarHandle.loadLoadFence();
+        long tailIntent = (long) LONG_VIEW.getVolatile(this.ring, TAIL_INTENT_OFFSET);
+        if (!valid || (tailIntent - position > this.capacity)) {
+          // the record has been overwritten while reading it
+          SharedMemoryEventBus.this.overrunCount.increment();
+          position = (long) LONG_VIEW.getAcquire(this.ring, TAIL_OFFSET);
+          continue;
+        }
+        if (length < 0) {
+          position = position - length;
+        } else {
+          position = position + align(RECORD_HEADER + length);
+          dispatch();
+        }
+      }
+    }
+
+    private void dispatch() {
+
+      try {
+        Object event = SharedMemoryEventBus.this.codec.decode(this.buffer);
+        this.received = event;
+        SharedMemoryEventBus.super.sendEvent(event);
+      } catch (RuntimeException e) {
+        // keep receiving - a single undecodable event must not stop the receiver
+        SharedMemoryEventBus.this.errorHandler.handleError(this.ringFile, e);
+      } finally {
+        this.received = null;
+      }
+    }
+
+    private int idle(int counter) {
+
+      if (counter < SPIN_TRIES) {
+        Thread.onSpinWait();
+      } else if (counter < SPIN_TRIES + YIELD_TRIES) {
+        Thread.yield();
+      } else {
+        LockSupport.parkNanos(PARK_NANOS);
+        return counter;
+      }
+      return counter + 1;
+    }
+  }
+
+}
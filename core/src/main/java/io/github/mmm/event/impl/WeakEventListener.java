@@ -2,6 +2,8 @@
  * http://www.apache.org/licenses/LICENSE-2.0 */
 package io.github.mmm.event.impl;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.util.Objects;
 
@@ -12,6 +14,11 @@ import io.github.mmm.event.EventSourceAdapter;
 /**
  * {@link EventListener} that wraps an original {@link EventListener} using a {@link WeakReference} so that the original
  * can be gargabe collected without being {@link io.github.mmm.event.EventSource#removeListener(EventListener) removed}.
+ * If {@link #WeakEventListener(EventSource, EventListener, boolean) created with cleanup} (for thread-safe
+ * {@link EventSource}s), the {@link WeakReference} is registered with a shared {@link ReferenceQueue} and a background
+ * {@link Thread} promptly {@link EventSource#removeListener(EventListener) removes} the collected listeners from their
+ * {@link EventSource}. Otherwise they are only removed when an event is received or the listeners are
+ * {@link #trim(int, EventListener[]) trimmed}.
  *
  * @param <E> the type of the {@link EventListener#onEvent(Object) handled} events.
  * @since 1.0.0
@@ -32,11 +39,29 @@ public class WeakEventListener<E> implements EventListener<E> {
    */
   public WeakEventListener(EventSource<E, ?> source, EventListener<E> listener) {
 
+    this(source, listener, false);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param source the {@link EventSourceAdapter}.
+   * @param listener the original listener to wrap.
+   * @param cleanup - {@code true} to remove this {@link WeakEventListener} from the given {@link EventSource} from a
+   *        background {@link Thread} after the original listener has been garbage collected, {@code false} otherwise.
+   *        Must only be {@code true} if the {@link EventSource} is thread-safe.
+   */
+  public WeakEventListener(EventSource<E, ?> source, EventListener<E> listener, boolean cleanup) {
+
     super();
     Objects.requireNonNull(source, "source");
     Objects.requireNonNull(listener, "listener");
     this.source = source;
-    this.ref = new WeakReference<>(listener);
+    if (cleanup) {
+      this.ref = new ListenerReference<>(listener, this);
+    } else {
+      this.ref = new WeakReference<>(listener);
+    }
   }
 
   /**
@@ -94,4 +119,60 @@ public class WeakEventListener<E> implements EventListener<E> {
     }
     return count;
   }
+
+  /**
+   * {@link WeakReference} registered with the {@link Cleaner#QUEUE shared queue} pointing back to its
+   * {@link WeakEventListener}.
+   */
+  private static final class ListenerReference<E> extends WeakReference<EventListener<E>> {
+
+    private final WeakEventListener<E> weakListener;
+
+    private ListenerReference(EventListener<E> listener, WeakEventListener<E> weakListener) {
+
+      super(listener, Cleaner.QUEUE);
+      this.weakListener = weakListener;
+    }
+  }
+
+  /**
+   * Background {@link Thread} removing garbage collected {@link WeakEventListener}s from their {@link EventSource}.
+   * Initialized lazily when the first {@link ListenerReference} is created.
+   */
+  private static final class Cleaner {
+
+    private static final ReferenceQueue<EventListener<?>> QUEUE = new ReferenceQueue<>();
+
+    static {
+      Thread.ofPlatform().name("EventListenerCleaner").daemon().start(Cleaner::run);
+    }
+
+    private static void run() {
+
+      while (true) {
+        try {
+          Reference<? extends EventListener<?>> reference = QUEUE.remove();
+          while (reference != null) {
+            remove(reference);
+            reference = QUEUE.poll();
+          }
+        } catch (InterruptedException e) {
+          // ignore, we run forever as daemon
+        } catch (Throwable e) {
+          Thread current = Thread.currentThread();
+          current.getUncaughtExceptionHandler().uncaughtException(current, e);
+        }
+      }
+    }
+
+    /**
+     * @param reference the {@link ListenerReference} that has been enqueued.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static void remove(Reference<? extends EventListener<?>> reference) {
+
+      WeakEventListener weakListener = ((ListenerReference) reference).weakListener;
+      weakListener.source.removeListener(weakListener);
+    }
+  }
 }
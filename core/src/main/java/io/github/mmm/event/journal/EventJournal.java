@@ -0,0 +1,391 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.journal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+import io.github.mmm.event.codec.EventCodec;
+
+/**
+ * Persistent journal of events stored in a directory as a sequence of memory-mapped segment files. Every
+ * {@link #append(Object) appended} event gets a unique sequence number and is
+ * {@link EventCodec#encode(Object, ByteBuffer) encoded} directly into the mapped segment. When a segment is full, a new
+ * segment is started and the oldest segments beyond the configured maximum are deleted. Via
+ * {@link #replay(long, Consumer)} the events can be read back (e.g. to reconstruct state after a restart) sequentially
+ * from the mapped files without copying.<br>
+ * Each segment file is named after the sequence number of its first event and contains records consisting of the
+ * length of the encoded event as {@code int} followed by the encoded event. A length of {@code 0} marks the end of the
+ * segment. As the length is written after the encoded event and a {@code 0} behind it, a partially written record is
+ * never replayed.
+ *
+ * @see io.github.mmm.event.AbstractEventBus#setJournal(EventJournal)
+ */
+public class EventJournal implements AutoCloseable {
+
+  /** The default {@link #getSegmentSize() segment size} (64 MiB). */
+  public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+  private static final String SEGMENT_SUFFIX = ".journal";
+
+  private static final int HEADER_SIZE = Integer.BYTES;
+
+  private final Path directory;
+
+  private final EventCodec<Object> codec;
+
+  private final int segmentSize;
+
+  private final FsyncPolicy fsyncPolicy;
+
+  private final int maxSegments;
+
+  /** The sequence numbers of the first events of the existing segments in ascending order. */
+  private final Deque<Long> segments;
+
+  /** The current segment events are appended to. */
+  private MappedByteBuffer buffer;
+
+  private long nextSequence;
+
+  private boolean closed;
+
+  /**
+   * The constructor with {@link #DEFAULT_SEGMENT_SIZE}, {@link FsyncPolicy#ON_ROLL} and unlimited retention.
+   *
+   * @param directory the {@link Path} to the directory containing the segment files. Will be created if it does not
+   *        exist.
+   * @param codec the {@link EventCodec} to encode and decode the events.
+   */
+  public EventJournal(Path directory, EventCodec<?> codec) {
+
+    this(directory, codec, DEFAULT_SEGMENT_SIZE, FsyncPolicy.ON_ROLL, 0);
+  }
+
+  /**
+   * The constructor.
+   *
+   * @param directory the {@link Path} to the directory containing the segment files. Will be created if it does not
+   *        exist. Existing segments are opened and new events are appended after the last event.
+   * @param codec the {@link EventCodec} to encode and decode the events.
+   * @param segmentSize the size of each segment file in bytes. Limits the maximum size of an encoded event.
+   * @param fsyncPolicy the {@link FsyncPolicy}.
+   * @param maxSegments the maximum number of segments to retain or {@code 0} for unlimited retention. If a new segment
+   *        is started, the oldest segments beyond this limit are deleted.
+   */
+  @SuppressWarnings("unchecked")
+  public EventJournal(Path directory, EventCodec<?> codec, int segmentSize, FsyncPolicy fsyncPolicy,
+      int maxSegments) {
+
+    super();
+    Objects.requireNonNull(directory, "directory");
+    Objects.requireNonNull(codec, "codec");
+    Objects.requireNonNull(fsyncPolicy, "fsyncPolicy");
+    if (segmentSize <= HEADER_SIZE) {
+      throw new IllegalArgumentException("Invalid segment size: " + segmentSize);
+    }
+    if (maxSegments < 0) {
+      throw new IllegalArgumentException("Invalid maximum number of segments: " + maxSegments);
+    }
+    this.directory = directory;
+    this.codec = (EventCodec<Object>) codec;
+    this.segmentSize = segmentSize;
+    this.fsyncPolicy = fsyncPolicy;
+    this.maxSegments = maxSegments;
+    this.segments = new ArrayDeque<>();
+    try {
+      Files.createDirectories(directory);
+      this.segments.addAll(findSegments(directory));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (this.segments.isEmpty()) {
+      startSegment(0);
+    } else {
+      openLastSegment();
+    }
+  }
+
+  private static List<Long> findSegments(Path directory) throws IOException {
+
+    List<Long> result = new ArrayList<>();
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+      for (Path file : stream) {
+        String name = file.getFileName().toString();
+        try {
+          result.add(Long.valueOf(name.substring(0, name.length() - SEGMENT_SUFFIX.length())));
+        } catch (NumberFormatException e) {
+          // not a segment of this journal
+        }
+      }
+    }
+    Collections.sort(result);
+    return result;
+  }
+
+  private Path getSegmentPath(long firstSequence) {
+
+    return this.directory.resolve(String.format("%020d", firstSequence) + SEGMENT_SUFFIX);
+  }
+
+  private MappedByteBuffer map(long firstSequence, MapMode mode) throws IOException {
+
+    Path path = getSegmentPath(firstSequence);
+    if (mode == MapMode.READ_ONLY) {
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+        return channel.map(mode, 0, channel.size());
+      }
+    }
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE)) {
+      return channel.map(mode, 0, Math.max(channel.size(), this.segmentSize));
+    }
+  }
+
+  private void startSegment(long firstSequence) {
+
+    try {
+      this.buffer = map(firstSequence, MapMode.READ_WRITE);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    if (this.segments.isEmpty() || (this.segments.getLast().longValue() != firstSequence)) {
+      this.segments.addLast(Long.valueOf(firstSequence));
+    }
+    while ((this.maxSegments > 0) && (this.segments.size() > this.maxSegments)) {
+      try {
+        Files.deleteIfExists(getSegmentPath(this.segments.removeFirst().longValue()));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+  }
+
+  private void openLastSegment() {
+
+    long firstSequence = this.segments.getLast().longValue();
+    startSegment(firstSequence);
+    int position = 0;
+    long sequence = firstSequence;
+    int length = readLength(this.buffer, position);
+    while (length > 0) {
+      position = position + HEADER_SIZE + length;
+      sequence++;
+      length = readLength(this.buffer, position);
+    }
+    this.buffer.position(position);
+    this.nextSequence = sequence;
+  }
+
+  /**
+   * @return the length of the record at the given position or {@code 0} if there is no further record.
+   */
+  private static int readLength(ByteBuffer segment, int position) {
+
+    if (position + HEADER_SIZE > segment.limit()) {
+      return 0;
+    }
+    int length = segment.getInt(position);
+    if ((length < 0) || (length > segment.limit() - position - HEADER_SIZE)) {
+      // corrupt or torn record
+      return 0;
+    }
+    return length;
+  }
+
+  /**
+   * @return the size of each segment file in bytes.
+   */
+  public int getSegmentSize() {
+
+    return this.segmentSize;
+  }
+
+  /**
+   * @return the {@link FsyncPolicy}.
+   */
+  public FsyncPolicy getFsyncPolicy() {
+
+    return this.fsyncPolicy;
+  }
+
+  /**
+   * @return the sequence number the next {@link #append(Object) appended} event will get.
+   */
+  public synchronized long getNextSequence() {
+
+    return this.nextSequence;
+  }
+
+  /**
+   * @return the sequence number of the oldest event that is still retained.
+   */
+  public synchronized long getFirstSequence() {
+
+    return this.segments.getFirst().longValue();
+  }
+
+  /**
+   * @param event the event to append.
+   * @return the sequence number of the appended event.
+   * @throws IllegalArgumentException if the encoded event does not fit into a segment.
+   * @throws IllegalStateException if this journal has been {@link #close() closed}.
+   */
+  public synchronized long append(Object event) {
+
+    Objects.requireNonNull(event);
+    if (this.closed) {
+      throw new IllegalStateException("EventJournal has been closed.");
+    }
+    int start = this.buffer.position();
+    if (!write(event, start)) {
+      if (this.fsyncPolicy != FsyncPolicy.NEVER) {
+        this.buffer.force();
+      }
+      startSegment(this.nextSequence);
+      start = 0;
+      if (!write(event, start)) {
+        throw new IllegalArgumentException("Event does not fit into segment of " + this.segmentSize + " bytes: "
+            + event.getClass().getName());
+      }
+    }
+    if (this.fsyncPolicy == FsyncPolicy.ALWAYS) {
+      this.buffer.force(start, this.buffer.position() - start);
+    }
+    return this.nextSequence++;
+  }
+
+  private boolean write(Object event, int start) {
+
+    if (this.buffer.capacity() - start <= HEADER_SIZE) {
+      return false;
+    }
+    this.buffer.position(start + HEADER_SIZE);
+    try {
+      this.codec.encode(event, this.buffer);
+    } catch (BufferOverflowException e) {
+      this.buffer.position(start);
+      return false;
+    } catch (RuntimeException | Error e) {
+      // discard the partially encoded record so the next append overwrites it
+      this.buffer.position(start);
+      throw e;
+    }
+    int length = this.buffer.position() - start - HEADER_SIZE;
+    if (length == 0) {
+      this.buffer.position(start);
+      throw new IllegalStateException("Codec did not write any data for " + event.getClass().getName());
+    }
+    int end = start + HEADER_SIZE + length;
+    if (this.buffer.capacity() - end >= HEADER_SIZE) {
+      // a failed encode may have left garbage behind the record that must not be read as the next length
+      this.buffer.putInt(end, 0);
+    }
+    // write the length last so a partially written record is never visible
+    this.buffer.putInt(start, length);
+    return true;
+  }
+
+  /**
+   * Reads all retained events starting from the given sequence number in the order they have been
+   * {@link #append(Object) appended} and passes them to the given {@link Consumer}. Events appended concurrently while
+   * replaying are not considered.
+   *
+   * @param fromSequence the sequence number of the first event to replay. Use {@code 0} to replay all retained events.
+   * @param consumer the {@link Consumer} receiving the {@link EventCodec#decode(ByteBuffer) decoded} events.
+   * @return the number of replayed events.
+   */
+  public long replay(long fromSequence, Consumer<Object> consumer) {
+
+    Long[] firstSequences;
+    long endSequence;
+    synchronized (this) {
+      firstSequences = this.segments.toArray(Long[]::new);
+      endSequence = this.nextSequence;
+    }
+    long count = 0;
+    for (int i = 0; i < firstSequences.length; i++) {
+      long firstSequence = firstSequences[i].longValue();
+      long segmentEnd = endSequence;
+      if (i + 1 < firstSequences.length) {
+        segmentEnd = firstSequences[i + 1].longValue();
+      }
+      if (segmentEnd <= fromSequence) {
+        continue;
+      }
+      MappedByteBuffer segment;
+      try {
+        segment = map(firstSequence, MapMode.READ_ONLY);
+      } catch (NoSuchFileException e) {
+        // deleted concurrently due to retention
+        continue;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+      count += replay(segment, firstSequence, segmentEnd, fromSequence, consumer);
+    }
+    return count;
+  }
+
+  private long replay(ByteBuffer segment, long firstSequence, long endSequence, long fromSequence,
+      Consumer<Object> consumer) {
+
+    long count = 0;
+    int position = 0;
+    long sequence = firstSequence;
+    while (sequence < endSequence) {
+      int length = readLength(segment, position);
+      if (length == 0) {
+        break;
+      }
+      if (sequence >= fromSequence) {
+        consumer.accept(this.codec.decode(segment.slice(position + HEADER_SIZE, length)));
+        count++;
+      }
+      position = position + HEADER_SIZE + length;
+      sequence++;
+    }
+    return count;
+  }
+
+  /**
+   * Forces all appended events to the storage device.
+   */
+  public synchronized void flush() {
+
+    if (!this.closed) {
+      this.buffer.force();
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+
+    if (this.closed) {
+      return;
+    }
+    this.closed = true;
+    if (this.fsyncPolicy != FsyncPolicy.NEVER) {
+      this.buffer.force();
+    }
+    this.buffer = null;
+  }
+
+}
@@ -0,0 +1,21 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.journal;
+
+/**
+ * This enum contains the available policies when an {@link EventJournal} forces its data to the storage device. Data
+ * that has been appended is visible to other processes immediately via the page cache but may be lost if the operating
+ * system crashes before it has been written to disk.
+ */
+public enum FsyncPolicy {
+
+  /** The data is never forced explicitly and written to disk whenever the operating system decides. */
+  NEVER,
+
+  /** The data is forced when a segment is completed and when the {@link EventJournal} is closed. */
+  ON_ROLL,
+
+  /** The data is forced after every appended event. This is the safest but by far the slowest policy. */
+  ALWAYS
+
+}
@@ -0,0 +1,103 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.metrics;
+
+import java.util.function.IntSupplier;
+
+import io.github.mmm.event.AbstractEventBus;
+import io.github.mmm.event.EventBus;
+import io.github.mmm.event.EventListener;
+
+/**
+ * Interface (SPI) to observe the sending and dispatching of events. An implementation can be
+ * {@link AbstractEventBus#setMetrics(EventMetrics) set on an event bus} or {@link EventMetricsAccess#set(EventMetrics)
+ * globally for event senders}. If no {@link EventMetrics} is configured, nothing is measured at all. All methods are
+ * called on the hot path (potentially from multiple threads concurrently) and therefore have to be fast and
+ * thread-safe. All methods are no-ops by default so implementations only need to override what they are interested in.
+ *
+ * @see InMemoryEventMetrics
+ */
+public interface EventMetrics {
+
+  /**
+   * @param eventType the {@link Class} of the event that has been sent.
+   */
+  default void onEventSent(Class<?> eventType) {
+
+  }
+
+  /**
+   * @param eventType the {@link Class} of the event that has been dispatched to at least one {@link EventListener}.
+   */
+  default void onEventDispatched(Class<?> eventType) {
+
+  }
+
+  /**
+   * @param eventType the {@link Class} of the event that has not been dispatched as no {@link EventListener} was
+   *        registered or all of them failed.
+   */
+  default void onEventUndispatched(Class<?> eventType) {
+
+  }
+
+  /**
+   * @param eventType the {@link Class} of the event.
+   * @param listener the {@link EventListener} that has been {@link EventListener#onEvent(Object) invoked}
+   *        successfully.
+   * @param durationNanos the duration of the invocation in nanoseconds.
+   */
+  default void onListenerInvoked(Class<?> eventType, EventListener<?> listener, long durationNanos) {
+
+  }
+
+  /**
+   * @param eventType the {@link Class} of the event.
+   * @param listener the {@link EventListener} that failed.
+   * @param error the {@link Throwable} thrown by the {@link EventListener}.
+   */
+  default void onListenerError(Class<?> eventType, EventListener<?> listener, Throwable error) {
+
+  }
+
+  /**
+   * @param eventCount the number of events that have been taken from the queue of an event bus in a single drain.
+   */
+  default void onDrain(int eventCount) {
+
+  }
+
+  /**
+   * Called when this {@link EventMetrics} is {@link AbstractEventBus#setMetrics(EventMetrics) set on an event bus}.
+   * Registering the same {@link EventBus} again replaces its previous registration.
+   *
+   * @param eventBus the {@link EventBus} owning the queue.
+   * @param queueDepth the {@link IntSupplier} providing the current number of events in the queue of the event bus.
+   *        May be expensive and should therefore only be called when the metrics are read.
+   * @return the {@link Registration} to {@link Registration#close() unregister} the queue when the event bus is no
+   *         longer observed by this {@link EventMetrics}.
+   */
+  default Registration registerQueue(EventBus eventBus, IntSupplier queueDepth) {
+
+    return Registration.NONE;
+  }
+
+  /**
+   * Handle for a queue {@link EventMetrics#registerQueue(EventBus, IntSupplier) registered} at {@link EventMetrics}.
+   */
+  @FunctionalInterface
+  interface Registration extends AutoCloseable {
+
+    /** {@link Registration} that has nothing to unregister. */
+    Registration NONE = () -> {
+      // nothing to do
+    };
+
+    /**
+     * Unregisters the queue so it is no longer reported. Calling this method again has no effect.
+     */
+    @Override
+    void close();
+  }
+
+}
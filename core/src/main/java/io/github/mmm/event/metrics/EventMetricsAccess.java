@@ -0,0 +1,37 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.metrics;
+
+import io.github.mmm.event.AbstractConcurrentEventSender;
+import io.github.mmm.event.AbstractEventSender;
+
+/**
+ * Class giving global access to the {@link EventMetrics} used for all event senders (e.g. {@link AbstractEventSender}
+ * and {@link AbstractConcurrentEventSender}). As there are typically lots of small event senders, they do not carry
+ * their own {@link EventMetrics}.
+ */
+public final class EventMetricsAccess {
+
+  private static volatile EventMetrics metrics;
+
+  private EventMetricsAccess() {
+
+  }
+
+  /**
+   * @return the global {@link EventMetrics} or {@code null} if disabled (default).
+   */
+  public static EventMetrics get() {
+
+    return metrics;
+  }
+
+  /**
+   * @param eventMetrics the global {@link EventMetrics} to set or {@code null} to disable.
+   */
+  public static void set(EventMetrics eventMetrics) {
+
+    metrics = eventMetrics;
+  }
+
+}
@@ -0,0 +1,193 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+import io.github.mmm.event.EventBus;
+import io.github.mmm.event.EventListener;
+
+/**
+ * Simple implementation of {@link EventMetrics} that aggregates all metrics in memory. Counters are
+ * {@link LongAdder}s and latencies are recorded in {@link LatencyHistogram}s so recording is lock-free. Use
+ * {@link #snapshot()} to read the metrics, e.g. to expose them to your monitoring system.
+ */
+public class InMemoryEventMetrics implements EventMetrics {
+
+  private final Map<Class<?>, EventTypeCounters> eventType2countersMap;
+
+  private final Map<Class<?>, LatencyHistogram> listenerType2latencyMap;
+
+  private final LatencyHistogram drainSizes;
+
+  private final Map<EventBus, IntSupplier> eventBus2queueMap;
+
+  /**
+   * The constructor.
+   */
+  public InMemoryEventMetrics() {
+
+    super();
+    this.eventType2countersMap = new ConcurrentHashMap<>();
+    this.listenerType2latencyMap = new ConcurrentHashMap<>();
+    this.drainSizes = new LatencyHistogram();
+    this.eventBus2queueMap = new ConcurrentHashMap<>();
+  }
+
+  private EventTypeCounters getCounters(Class<?> eventType) {
+
+    EventTypeCounters counters = this.eventType2countersMap.get(eventType);
+    if (counters == null) {
+      counters = this.eventType2countersMap.computeIfAbsent(eventType, t -> new EventTypeCounters());
+    }
+    return counters;
+  }
+
+  private LatencyHistogram getLatency(EventListener<?> listener) {
+
+    EventListener<?> rawListener = listener.unwrap();
+    if (rawListener == null) {
+      rawListener = listener;
+    }
+    Class<?> listenerType = rawListener.getClass();
+    LatencyHistogram histogram = this.listenerType2latencyMap.get(listenerType);
+    if (histogram == null) {
+      histogram = this.listenerType2latencyMap.computeIfAbsent(listenerType, t -> new LatencyHistogram());
+    }
+    return histogram;
+  }
+
+  @Override
+  public void onEventSent(Class<?> eventType) {
+
+    getCounters(eventType).sent.increment();
+  }
+
+  @Override
+  public void onEventDispatched(Class<?> eventType) {
+
+    getCounters(eventType).dispatched.increment();
+  }
+
+  @Override
+  public void onEventUndispatched(Class<?> eventType) {
+
+    getCounters(eventType).undispatched.increment();
+  }
+
+  @Override
+  public void onListenerInvoked(Class<?> eventType, EventListener<?> listener, long durationNanos) {
+
+    getLatency(listener).record(durationNanos);
+  }
+
+  @Override
+  public void onListenerError(Class<?> eventType, EventListener<?> listener, Throwable error) {
+
+    getCounters(eventType).errors.increment();
+  }
+
+  @Override
+  public void onDrain(int eventCount) {
+
+    this.drainSizes.record(eventCount);
+  }
+
+  @Override
+  public Registration registerQueue(EventBus eventBus, IntSupplier queueDepth) {
+
+    this.eventBus2queueMap.put(eventBus, queueDepth);
+    return () -> this.eventBus2queueMap.remove(eventBus, queueDepth);
+  }
+
+  /**
+   * @return an immutable {@link Snapshot} of the current metrics.
+   */
+  public Snapshot snapshot() {
+
+    Map<Class<?>, EventTypeSnapshot> eventTypes = new HashMap<>();
+    for (Map.Entry<Class<?>, EventTypeCounters> entry : this.eventType2countersMap.entrySet()) {
+      EventTypeCounters counters = entry.getValue();
+      eventTypes.put(entry.getKey(), new EventTypeSnapshot(counters.sent.sum(), counters.dispatched.sum(),
+          counters.undispatched.sum(), counters.errors.sum()));
+    }
+    Map<Class<?>, LatencyHistogram.Snapshot> listenerLatencies = new HashMap<>();
+    for (Map.Entry<Class<?>, LatencyHistogram> entry : this.listenerType2latencyMap.entrySet()) {
+      listenerLatencies.put(entry.getKey(), entry.getValue().snapshot());
+    }
+    Map<EventBus, Integer> queueDepths = new HashMap<>();
+    for (Map.Entry<EventBus, IntSupplier> entry : this.eventBus2queueMap.entrySet()) {
+      queueDepths.put(entry.getKey(), Integer.valueOf(entry.getValue().getAsInt()));
+    }
+    return new Snapshot(Map.copyOf(eventTypes), Map.copyOf(listenerLatencies), this.drainSizes.snapshot(),
+        Map.copyOf(queueDepths));
+  }
+
+  private static final class EventTypeCounters {
+
+    private final LongAdder sent = new LongAdder();
+
+    private final LongAdder dispatched = new LongAdder();
+
+    private final LongAdder undispatched = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+  }
+
+  /**
+   * Immutable snapshot of the counters for a particular event type.
+   *
+   * @param sent the number of {@link EventMetrics#onEventSent(Class) sent} events.
+   * @param dispatched the number of {@link EventMetrics#onEventDispatched(Class) dispatched} events.
+   * @param undispatched the number of {@link EventMetrics#onEventUndispatched(Class) undispatched} events.
+   * @param errors the number of {@link EventMetrics#onListenerError(Class, EventListener, Throwable) listener errors}.
+   */
+  public static record EventTypeSnapshot(long sent, long dispatched, long undispatched, long errors) {
+  }
+
+  /**
+   * Immutable snapshot of {@link InMemoryEventMetrics}.
+   *
+   * @param eventTypes the {@link EventTypeSnapshot}s per event type.
+   * @param listenerLatencies the {@link LatencyHistogram.Snapshot latencies} (in nanoseconds) per
+   *        {@link EventListener} {@link Class}.
+   * @param drainSizes the {@link LatencyHistogram.Snapshot histogram} of the number of events per
+   *        {@link EventMetrics#onDrain(int) drain}.
+   * @param queueDepths the number of events currently waiting in the queue per
+   *        {@link EventMetrics#registerQueue(EventBus, IntSupplier) registered} {@link EventBus}.
+   */
+  public static record Snapshot(Map<Class<?>, EventTypeSnapshot> eventTypes,
+      Map<Class<?>, LatencyHistogram.Snapshot> listenerLatencies, LatencyHistogram.Snapshot drainSizes,
+      Map<EventBus, Integer> queueDepths) {
+
+    /**
+     * @return the total number of events currently waiting in the queues of all {@link #queueDepths() event buses}.
+     */
+    public int queueDepth() {
+
+      int queueDepth = 0;
+      for (Integer depth : this.queueDepths.values()) {
+        queueDepth += depth.intValue();
+      }
+      return queueDepth;
+    }
+
+    /**
+     * @param eventType the {@link Class} reflecting the event type.
+     * @return the {@link EventTypeSnapshot} for the given event type. Will be empty if no such event occurred.
+     */
+    public EventTypeSnapshot getEventType(Class<?> eventType) {
+
+      EventTypeSnapshot snapshot = this.eventTypes.get(eventType);
+      if (snapshot == null) {
+        snapshot = new EventTypeSnapshot(0, 0, 0, 0);
+      }
+      return snapshot;
+    }
+  }
+
+}
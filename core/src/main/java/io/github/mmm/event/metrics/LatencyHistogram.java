@@ -0,0 +1,182 @@
+/* Copyright (c) The m-m-m Team, Licensed under the Apache License, Version 2.0
+ * http://www.apache.org/licenses/LICENSE-2.0 */
+package io.github.mmm.event.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of non-negative values such as latencies in nanoseconds. Like an HDR histogram the values are
+ * counted in log-linear buckets: every power of two is split into {@value #SUB_BUCKET_COUNT} sub-buckets so the
+ * relative error of a value derived from the histogram is below 7% across the entire range of {@code long} while the
+ * memory is fixed. {@link #record(long) Recording} a value updates its bucket, the sum and the maximum with three
+ * independent atomic operations and never blocks.
+ */
+public final class LatencyHistogram {
+
+  private static final int SUB_BUCKET_BITS = 4;
+
+  private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+  private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+  private final AtomicLongArray counts;
+
+  private final LongAdder sum;
+
+  private final LongAccumulator max;
+
+  /**
+   * The constructor.
+   */
+  public LatencyHistogram() {
+
+    super();
+    this.counts = new AtomicLongArray(BUCKET_COUNT);
+    this.sum = new LongAdder();
+    this.max = new LongAccumulator(Math::max, 0);
+  }
+
+  /**
+   * @param value the value to record. Negative values are recorded as {@code 0}.
+   */
+  public void record(long value) {
+
+    if (value < 0) {
+      value = 0;
+    }
+    this.counts.incrementAndGet(getBucketIndex(value));
+    this.sum.add(value);
+    this.max.accumulate(value);
+  }
+
+  /**
+   * @return an immutable {@link Snapshot} of the current state of this histogram. As recording is not blocked, values
+   *         recorded concurrently may or may not be included.
+   */
+  public Snapshot snapshot() {
+
+    long[] snapshotCounts = new long[BUCKET_COUNT];
+    long count = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      long bucketCount = this.counts.get(i);
+      snapshotCounts[i] = bucketCount;
+      count += bucketCount;
+    }
+    return new Snapshot(snapshotCounts, count, this.sum.sum(), this.max.get());
+  }
+
+  static int getBucketIndex(long value) {
+
+    if (value < SUB_BUCKET_COUNT) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int shift = exponent - SUB_BUCKET_BITS;
+    int subBucket = (int) (value >>> shift) - SUB_BUCKET_COUNT;
+    return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+  }
+
+  static long getBucketUpperBound(int index) {
+
+    if (index < SUB_BUCKET_COUNT) {
+      return index;
+    }
+    int shift = (index / SUB_BUCKET_COUNT) - 1;
+    long subBucket = (index % SUB_BUCKET_COUNT) + SUB_BUCKET_COUNT;
+    long lowerBound = subBucket << shift;
+    return lowerBound + ((1L << shift) - 1);
+  }
+
+  /**
+   * Immutable snapshot of a {@link LatencyHistogram}.
+   */
+  public static final class Snapshot {
+
+    private final long[] counts;
+
+    private final long count;
+
+    private final long sum;
+
+    private final long max;
+
+    private Snapshot(long[] counts, long count, long sum, long max) {
+
+      super();
+      this.counts = counts;
+      this.count = count;
+      this.sum = sum;
+      this.max = max;
+    }
+
+    /**
+     * @return the number of recorded values.
+     */
+    public long getCount() {
+
+      return this.count;
+    }
+
+    /**
+     * @return the sum of all recorded values.
+     */
+    public long getSum() {
+
+      return this.sum;
+    }
+
+    /**
+     * @return the maximum recorded value or {@code 0} if empty.
+     */
+    public long getMax() {
+
+      return this.max;
+    }
+
+    /**
+     * @return the arithmetic mean of all recorded values or {@code 0} if empty.
+     */
+    public double getMean() {
+
+      if (this.count == 0) {
+        return 0;
+      }
+      return (double) this.sum / this.count;
+    }
+
+    /**
+     * @param percentile the percentile in the range from {@code 0} to {@code 100} (e.g. {@code 99.9}).
+     * @return the value that is greater than or equal to the given percentage of all recorded values (with the
+     *         precision of the buckets) or {@code 0} if empty.
+     */
+    public long getValueAtPercentile(double percentile) {
+
+      if (this.count == 0) {
+        return 0;
+      }
+      long threshold = (long) Math.ceil((Math.min(Math.max(percentile, 0), 100) / 100) * this.count);
+      if (threshold < 1) {
+        threshold = 1;
+      }
+      long total = 0;
+      for (int i = 0; i < this.counts.length; i++) {
+        total += this.counts[i];
+        if (total >= threshold) {
+          return Math.min(getBucketUpperBound(i), this.max);
+        }
+      }
+      return this.max;
+    }
+
+    @Override
+    public String toString() {
+
+      return "count=" + this.count + ", mean=" + (long) getMean() + ", p50=" + getValueAtPercentile(50) + ", p99="
+          + getValueAtPercentile(99) + ", max=" + this.max;
+    }
+
+  }
+
+}
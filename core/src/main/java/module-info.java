@@ -62,12 +62,25 @@ module io.github.mmm.event {
 
   requires io.github.mmm.base;
 
+  requires jdk.jfr;
+
   // requires org.slf4j;
 
   uses io.github.mmm.event.EventBus;
 
   provides io.github.mmm.event.EventBus //
-      with io.github.mmm.event.impl.EventBusImpl;
+      with io.github.mmm.event.impl.EventBusImpl, io.github.mmm.event.impl.AsyncEventBus;
 
   exports io.github.mmm.event;
+
+  exports io.github.mmm.event.bridge;
+
+  exports io.github.mmm.event.codec;
+
+  exports io.github.mmm.event.journal;
+
+  exports io.github.mmm.event.metrics;
+
+  // for configurable EventBus implementations such as AsyncEventBus
+  exports io.github.mmm.event.impl;
 }
@@ -0,0 +1,207 @@
+package io.github.mmm.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.mmm.event.impl.WeakEventListener;
+
+/**
+ * Test of {@link AbstractConcurrentEventSender}.
+ */
+public class AbstractConcurrentEventSenderTest extends Assertions {
+
+  /**
+   * Tests adding, firing and removing listeners from a single thread.
+   */
+  @Test
+  public void testSimple() {
+
+    // given
+    TestSender sender = new TestSender();
+    List<String> events = new ArrayList<>();
+    EventListener<String> listener1 = e -> events.add("1:" + e);
+    EventListener<String> listener2 = e -> events.add("2:" + e);
+
+    // when + then
+    assertThat(sender.fireEvent("a")).isFalse();
+    sender.addListener(listener1);
+    sender.addListener(listener2);
+    assertThat(sender.getListenerCount()).isEqualTo(2);
+    assertThat(sender.fireEvent("b")).isTrue();
+    assertThat(sender.removeListener(listener1)).isTrue();
+    assertThat(sender.removeListener(listener1)).isFalse();
+    assertThat(sender.fireEvent("c")).isTrue();
+    assertThat(sender.removeListener(listener2)).isTrue();
+    assertThat(sender.hasListeners()).isFalse();
+    assertThat(sender.fireEvent("d")).isFalse();
+    assertThat(events).containsExactly("1:b", "2:b", "2:c");
+  }
+
+  /**
+   * Tests that a {@link Subscription} removes exactly the registration it was created for.
+   */
+  @Test
+  public void testSubscription() {
+
+    // given
+    TestSender sender = new TestSender();
+    List<String> events = new ArrayList<>();
+    EventListener<String> listener = e -> events.add(e);
+    Subscription weakSubscription = sender.subscribe(listener, true);
+    Subscription subscription = sender.subscribe(listener);
+
+    // when + then
+    assertThat(sender.getListenerCount()).isEqualTo(2);
+    weakSubscription.close();
+    assertThat(sender.getListenerCount()).isEqualTo(1);
+    assertThat(sender.fireEvent("a")).isTrue();
+    subscription.close();
+    subscription.close();
+    assertThat(sender.hasListeners()).isFalse();
+    assertThat(sender.fireEvent("b")).isFalse();
+    assertThat(events).containsExactly("a");
+  }
+
+  /**
+   * Tests that {@link AbstractConcurrentEventSender#fireEventLazy(java.util.function.Supplier)} only creates the event
+   * if there is a listener.
+   */
+  @Test
+  public void testFireEventLazy() {
+
+    // given
+    TestSender sender = new TestSender();
+    List<String> events = new ArrayList<>();
+    AtomicInteger created = new AtomicInteger();
+
+    // when + then
+    assertThat(sender.fireEventLazy(() -> "a" + created.incrementAndGet())).isFalse();
+    assertThat(created.get()).isEqualTo(0);
+    sender.addListener(events::add);
+    assertThat(sender.fireEventLazy(() -> "b" + created.incrementAndGet())).isTrue();
+    assertThat(created.get()).isEqualTo(1);
+    assertThat(events).containsExactly("b1");
+  }
+
+  /**
+   * Tests that listeners can be added and removed while events are fired from other threads.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  public void testConcurrent() throws Exception {
+
+    // given
+    int threadCount = 4;
+    int iterations = 2000;
+    TestSender sender = new TestSender();
+    AtomicInteger received = new AtomicInteger();
+    EventListener<String> permanent = e -> received.incrementAndGet();
+    sender.addListener(permanent);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<>();
+    for (int t = 0; t < threadCount; t++) {
+      threads.add(new Thread(() -> {
+        await(start);
+        for (int i = 0; i < iterations; i++) {
+          EventListener<String> temporary = e -> {
+          };
+          sender.addListener(temporary);
+          sender.fireEvent("event");
+          assertThat(sender.removeListener(temporary)).isTrue();
+        }
+      }));
+    }
+
+    // when
+    threads.forEach(Thread::start);
+    start.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    // then
+    assertThat(received.get()).isEqualTo(threadCount * iterations);
+    assertThat(sender.getListenerCount()).isEqualTo(1);
+  }
+
+  private static void await(CountDownLatch latch) {
+
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  /**
+   * Tests that garbage collected weak listeners are removed automatically without firing an event.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  public void testWeakListenerCleanup() throws Exception {
+
+    // given
+    TestSender sender = new TestSender();
+    EventListener<String> strongListener = e -> {
+    };
+    sender.addListener(strongListener);
+    for (int i = 0; i < 10; i++) {
+      // new instance each time (non-capturing lambdas are cached and never collected)
+      sender.addWeakListener(new EventListener<>() {
+
+        @Override
+        public void onEvent(String event) {
+
+        }
+      });
+    }
+    assertThat(sender.getListenerCount()).isEqualTo(11);
+
+    // when
+    long deadline = System.currentTimeMillis() + 10000;
+    while ((sender.getListenerCount() > 1) && (System.currentTimeMillis() < deadline)) {
+      System.gc();
+      Thread.sleep(10);
+    }
+
+    // then
+    assertThat(sender.getListenerCount()).isEqualTo(1);
+    assertThat(sender.removeListener(strongListener)).isTrue();
+  }
+
+  /**
+   * Tests that closing a {@link Subscription} removes exactly its own registration even if the same
+   * {@link EventListener} has also been registered weakly.
+   */
+  @Test
+  public void testSubscriptionRemovesExactRegistration() {
+
+    // given
+    TestSender sender = new TestSender();
+    EventListener<String> listener = e -> {
+    };
+    Subscription weakSubscription = sender.subscribe(listener, true);
+    Subscription strongSubscription = sender.subscribe(listener, false);
+
+    // when
+    strongSubscription.close();
+
+    // then
+    assertThat(sender.getListenerCount()).isEqualTo(1);
+    assertThat(sender.getListeners()[0]).isInstanceOf(WeakEventListener.class);
+    weakSubscription.close();
+    assertThat(sender.getListenerCount()).isEqualTo(0);
+  }
+
+  private static class TestSender extends AbstractConcurrentEventSender<String, EventListener<String>> {
+
+  }
+
+}
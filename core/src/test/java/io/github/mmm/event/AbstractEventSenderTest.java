@@ -0,0 +1,142 @@
+package io.github.mmm.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.mmm.event.impl.WeakEventListener;
+
+/**
+ * Test of {@link AbstractEventSender}.
+ */
+public class AbstractEventSenderTest extends Assertions {
+
+  /**
+   * Tests {@link AbstractEventSender#beginUpdate() nested updates} with the default {@link EventMerger}.
+   */
+  @Test
+  public void testUpdate() {
+
+    // given
+    TestSender sender = new TestSender(EventMerger.last());
+    List<Change> events = new ArrayList<>();
+    sender.addListener(events::add);
+
+    // when
+    try (AbstractEventSender.Update update = sender.beginUpdate()) {
+      assertThat(sender.fireEvent(new Change("a", ChangeType.ADD))).isFalse();
+      try (AbstractEventSender.Update nested = sender.beginUpdate()) {
+        sender.fireEvent(new Change("b", ChangeType.UPDATE));
+      }
+      assertThat(events).isEmpty();
+      sender.fireEvent(new Change("c", ChangeType.REMOVE));
+      update.close();
+      update.close();
+    }
+    sender.fireEvent(new Change("d", ChangeType.ADD));
+
+    // then
+    assertThat(events).containsExactly(new Change("c", ChangeType.REMOVE), new Change("d", ChangeType.ADD));
+    assertThatThrownBy(() -> sender.endUpdate()).isInstanceOf(IllegalStateException.class);
+  }
+
+  /**
+   * Tests {@link EventMerger#ofChangeType(java.util.function.BiFunction)}.
+   */
+  @Test
+  public void testUpdateWithChangeType() {
+
+    // given
+    TestSender sender = new TestSender(EventMerger.ofChangeType((e, t) -> new Change(e.item, t)));
+    List<Change> events = new ArrayList<>();
+    sender.addListener(events::add);
+
+    // when
+    try (AbstractEventSender.Update update = sender.beginUpdate()) {
+      sender.fireEvent(new Change("a", ChangeType.ADD));
+      sender.fireEvent(new Change("a", ChangeType.REMOVE));
+    }
+    try (AbstractEventSender.Update update = sender.beginUpdate()) {
+      sender.fireEvent(new Change("b", ChangeType.ADD));
+      sender.fireEvent(new Change("b", ChangeType.UPDATE));
+    }
+    try (AbstractEventSender.Update update = sender.beginUpdate()) {
+      sender.fireEvent(new Change("c", ChangeType.UPDATE));
+      sender.fireEvent(new Change("c", ChangeType.UPDATE));
+    }
+    try (AbstractEventSender.Update update = sender.beginUpdate()) {
+      sender.fireEvent(new Change("d", ChangeType.ADD));
+      sender.fireEvent(new Change("e", ChangeType.REMOVE));
+    }
+    try (AbstractEventSender.Update update = sender.beginUpdate()) {
+      sender.fireEvent(new Change("f", ChangeType.UPDATE));
+      sender.fireEvent(new Change("g", ChangeType.UPDATE));
+    }
+
+    // then
+    // different keys are merged into an UPDATE so the ADD of d is not lost silently
+    assertThat(events).containsExactly(new Change("b", ChangeType.ADD), new Change("c", ChangeType.UPDATE),
+        new Change("e", ChangeType.UPDATE), new Change("g", ChangeType.UPDATE));
+  }
+
+  private record Change(String item, ChangeType type) implements KeyedEvent {
+
+    @Override
+    public Object getKey() {
+
+      return this.item;
+    }
+
+    @Override
+    public ChangeType getChangeType() {
+
+      return this.type;
+    }
+  }
+
+  /**
+   * Tests that closing a {@link Subscription} removes exactly its own registration even if the same
+   * {@link EventListener} has also been registered weakly.
+   */
+  @Test
+  public void testSubscriptionRemovesExactRegistration() {
+
+    // given
+    TestSender sender = new TestSender(EventMerger.last());
+    EventListener<Change> listener = e -> {
+    };
+    Subscription weakSubscription = sender.subscribe(listener, true);
+    Subscription strongSubscription = sender.subscribe(listener, false);
+    sender.subscribe(e -> {
+    });
+
+    // when
+    strongSubscription.close();
+
+    // then
+    assertThat(sender.getEventAdapter().getListenerCount()).isEqualTo(2);
+    assertThat(sender.getEventAdapter().getRawListener(0)).isInstanceOf(WeakEventListener.class);
+    weakSubscription.close();
+    assertThat(sender.getEventAdapter().getListenerCount()).isEqualTo(1);
+  }
+
+  private static class TestSender extends AbstractEventSender<Change, EventListener<Change>> {
+
+    private final EventMerger<Change> merger;
+
+    private TestSender(EventMerger<Change> merger) {
+
+      super();
+      this.merger = merger;
+    }
+
+    @Override
+    protected EventMerger<Change> getEventMerger() {
+
+      return this.merger;
+    }
+  }
+
+}
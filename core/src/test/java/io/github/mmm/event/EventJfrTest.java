@@ -0,0 +1,76 @@
+package io.github.mmm.event;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.mmm.event.impl.EventBusImpl;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Test of {@link EventJfr}.
+ */
+public class EventJfrTest extends Assertions {
+
+  /**
+   * Tests that {@link EventJfr.ListenerInvocation} and {@link EventJfr.Dispatch} are recorded.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  public void testRecording() throws Exception {
+
+    // given
+    EventBus eventBus = new EventBusImpl();
+    EventListener<String> listener = new TestListener();
+    eventBus.addListener(String.class, listener);
+    Path file = Files.createTempFile("mmm-event", ".jfr");
+    try (Recording recording = new Recording()) {
+      recording.enable("io.github.mmm.event.ListenerInvocation").withThreshold(Duration.ZERO);
+      recording.enable("io.github.mmm.event.Dispatch").withThreshold(Duration.ZERO);
+      recording.start();
+
+      // when
+      eventBus.sendEvent("event");
+      recording.stop();
+      recording.dump(file);
+    }
+
+    // then
+    List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+    Files.delete(file);
+    RecordedEvent invocation = find(events, "io.github.mmm.event.ListenerInvocation");
+    assertThat(invocation.<RecordedClass> getValue("eventType").getName()).isEqualTo("java.lang.String");
+    assertThat(invocation.<RecordedClass> getValue("listenerType").getName()).isEqualTo(listener.getClass().getName());
+    assertThat(invocation.getThread().getJavaName()).isEqualTo(Thread.currentThread().getName());
+    RecordedEvent dispatch = find(events, "io.github.mmm.event.Dispatch");
+    assertThat(dispatch.getInt("eventCount")).isEqualTo(1);
+    assertThat(dispatch.getLong("queueWaitTime")).isGreaterThan(0L);
+  }
+
+  private static class TestListener implements EventListener<String> {
+
+    @Override
+    public void onEvent(String event) {
+
+    }
+  }
+
+  private static RecordedEvent find(List<RecordedEvent> events, String name) {
+
+    for (RecordedEvent event : events) {
+      if (event.getEventType().getName().equals(name)) {
+        return event;
+      }
+    }
+    throw new AssertionError("No JFR event " + name + " in " + events);
+  }
+
+}
@@ -0,0 +1,90 @@
+package io.github.mmm.event;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of {@link AbstractIntEventSender}, {@link AbstractLongEventSender}, and {@link AbstractDoubleEventSender}.
+ */
+public class PrimitiveEventSenderTest extends Assertions {
+
+  /**
+   * Tests {@link AbstractIntEventSender} with primitive and generic listeners.
+   */
+  @Test
+  public void testInt() {
+
+    // given
+    IntSender sender = new IntSender();
+    List<Object> events = new ArrayList<>();
+    IntEventListener primitiveListener = value -> events.add("int:" + value);
+    EventListener<Integer> boxedListener = event -> events.add(event);
+
+    // when + then
+    assertThat(sender.fireEvent(0)).isFalse();
+    sender.addListener(primitiveListener);
+    assertThat(sender.fireEvent(1)).isTrue();
+    sender.addListener(boxedListener);
+    assertThat(sender.fireEvent(2)).isTrue();
+    assertThat(sender.fireEvent(Integer.valueOf(3))).isTrue();
+    sender.removeListener(primitiveListener);
+    assertThat(sender.fireEvent(4)).isTrue();
+    assertThat(events).containsExactly("int:1", "int:2", Integer.valueOf(2), "int:3", Integer.valueOf(3),
+        Integer.valueOf(4));
+  }
+
+  /**
+   * Tests {@link AbstractLongEventSender}.
+   */
+  @Test
+  public void testLong() {
+
+    // given
+    LongSender sender = new LongSender();
+    List<Object> events = new ArrayList<>();
+    sender.addListener((LongEventListener) value -> events.add("long:" + value));
+    sender.addListener(event -> events.add(event));
+
+    // when
+    boolean dispatched = sender.fireEvent(Long.MAX_VALUE);
+
+    // then
+    assertThat(dispatched).isTrue();
+    assertThat(events).containsExactly("long:" + Long.MAX_VALUE, Long.valueOf(Long.MAX_VALUE));
+  }
+
+  /**
+   * Tests {@link AbstractDoubleEventSender}.
+   */
+  @Test
+  public void testDouble() {
+
+    // given
+    DoubleSender sender = new DoubleSender();
+    List<Object> events = new ArrayList<>();
+    sender.addListener((DoubleEventListener) value -> events.add("double:" + value));
+
+    // when
+    boolean dispatched = sender.fireEvent(-0.5);
+
+    // then
+    assertThat(dispatched).isTrue();
+    assertThat(events).containsExactly("double:-0.5");
+  }
+
+  private static class IntSender extends AbstractIntEventSender<EventListener<Integer>> {
+
+  }
+
+  private static class LongSender extends AbstractLongEventSender<EventListener<Long>> {
+
+  }
+
+  private static class DoubleSender extends AbstractDoubleEventSender<EventListener<Double>> {
+
+  }
+
+}
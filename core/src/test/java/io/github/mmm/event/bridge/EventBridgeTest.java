@@ -0,0 +1,92 @@
+package io.github.mmm.event.bridge;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.mmm.event.codec.EventCodec;
+import io.github.mmm.event.impl.EventBusImpl;
+
+/**
+ * Test of {@link EventBridgeSender} and {@link EventBridgeReceiver}. Both sides run in the same JVM but only share the
+ * Unix domain socket.
+ */
+public class EventBridgeTest extends Assertions {
+
+  private static final EventCodec<String> CODEC = new EventCodec<>() {
+
+    @Override
+    public void encode(String event, ByteBuffer buffer) {
+
+      buffer.put(event.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String decode(ByteBuffer buffer) {
+
+      return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+  };
+
+  /**
+   * Tests forwarding events including events sent before the receiver was available.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  public void testForward() throws Exception {
+
+    // given
+    Path directory = Files.createTempDirectory("bridge");
+    Path socketFile = directory.resolve("events.sock");
+    EventBusImpl localBus = new EventBusImpl();
+    EventBusImpl remoteBus = new EventBusImpl();
+    List<String> events = new CopyOnWriteArrayList<>();
+    remoteBus.addListener(String.class, events::add);
+    try (EventBridgeSender sender = EventBridgeSender.open(localBus, socketFile, CODEC, 3,
+        AbstractEventBridge.DEFAULT_MAX_FRAME_SIZE, String.class)) {
+      localBus.sendEvents("a", "b", "c", "lost");
+      localBus.sendEvent(Integer.valueOf(42));
+      assertThat(sender.getBacklog()).isEqualTo(3);
+      assertThat(sender.getLostEventCount()).isEqualTo(1);
+
+      // when
+      try (EventBridgeReceiver receiver = EventBridgeReceiver.bind(remoteBus, socketFile, CODEC)) {
+        await(() -> events.size() == 3);
+        localBus.sendEvent("d");
+        await(() -> events.size() == 4);
+
+        // then
+        assertThat(events).containsExactly("a", "b", "c", "d");
+        assertThat(sender.isConnected()).isTrue();
+        assertThat(sender.getSentEventCount()).isEqualTo(4);
+        assertThat(sender.getBacklog()).isEqualTo(0);
+        assertThat(receiver.getReceivedEventCount()).isEqualTo(4);
+        assertThat(receiver.getLostEventCount()).isEqualTo(0);
+      }
+      assertThat(Files.exists(socketFile)).isFalse();
+    } finally {
+      Files.delete(directory);
+    }
+  }
+
+  private static void await(BooleanSupplier condition) throws InterruptedException {
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (!condition.getAsBoolean()) {
+      if (System.nanoTime() > deadline) {
+        throw new IllegalStateException("Timeout");
+      }
+      Thread.sleep(1);
+    }
+  }
+
+}
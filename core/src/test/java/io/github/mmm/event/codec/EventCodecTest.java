@@ -0,0 +1,91 @@
+package io.github.mmm.event.codec;
+
+import java.lang.invoke.MethodHandles;
+import java.nio.ByteBuffer;
+import java.time.DayOfWeek;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test of {@link RecordEventCodec} and {@link EventCodecRegistry}.
+ */
+public class EventCodecTest extends Assertions {
+
+  /**
+   * Tests {@link RecordEventCodec} with all supported component types using heap and direct {@link ByteBuffer}s.
+   */
+  @Test
+  public void testRecordCodec() {
+
+    // given
+    RecordEventCodec<AllTypes> codec = RecordEventCodec.of(AllTypes.class, MethodHandles.lookup());
+    AllTypes event = new AllTypes(true, (byte) -1, (short) 300, 'x', 42, Long.MIN_VALUE, 1.5f, Math.PI,
+        "Grüße 😀", null, DayOfWeek.FRIDAY, null, new Price("ACME", 99.5), null);
+
+    for (ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.allocate(256), ByteBuffer.allocateDirect(256) }) {
+      // when
+      codec.encode(event, buffer);
+      buffer.flip();
+      AllTypes decoded = codec.decode(buffer);
+
+      // then
+      assertThat(decoded).isEqualTo(event);
+      assertThat(buffer.remaining()).isEqualTo(0);
+    }
+  }
+
+  /**
+   * Tests {@link EventCodecRegistry} with multiple event types and schema versions.
+   */
+  @Test
+  public void testRegistry() {
+
+    // given
+    EventCodec<Price> legacyCodec = new EventCodec<>() {
+
+      @Override
+      public void encode(Price event, ByteBuffer buffer) {
+
+        RecordEventCodec.writeString(event.symbol(), buffer);
+        buffer.putInt((int) (event.value() * 100));
+      }
+
+      @Override
+      public Price decode(ByteBuffer buffer) {
+
+        return new Price(RecordEventCodec.readString(buffer), buffer.getInt() / 100.0);
+      }
+    };
+    EventCodecRegistry legacyRegistry = new EventCodecRegistry().register(Price.class, 1, 1, legacyCodec);
+    EventCodecRegistry registry = new EventCodecRegistry().register(Price.class, 1, 1, legacyCodec)
+        .register(Price.class, 1, 2, RecordEventCodec.of(Price.class, MethodHandles.lookup()))
+        .register(Signal.class, 2, 0, RecordEventCodec.of(Signal.class, MethodHandles.lookup()));
+    ByteBuffer buffer = ByteBuffer.allocate(256);
+
+    // when
+    legacyRegistry.encode(new Price("OLD", 1.25), buffer);
+    registry.encode(new Price("NEW", 2.5), buffer);
+    registry.encode(new Signal(7), buffer);
+    buffer.flip();
+
+    // then
+    assertThat(registry.decode(buffer)).isEqualTo(new Price("OLD", 1.25));
+    assertThat(registry.decode(buffer)).isEqualTo(new Price("NEW", 2.5));
+    assertThat(registry.decode(buffer)).isEqualTo(new Signal(7));
+    assertThatThrownBy(() -> registry.encode("unregistered", buffer)).isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> registry.register(Signal.class, 1, 3, RecordEventCodec.of(Signal.class,
+        MethodHandles.lookup()))).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static record Price(String symbol, double value) {
+  }
+
+  private static record Signal(int code) {
+  }
+
+  private static record AllTypes(boolean bool, byte b, short s, char c, int i, long l, float f, double d, String string,
+      String nullString, DayOfWeek day, DayOfWeek nullDay, Price price, Price nullPrice) {
+  }
+
+}
@@ -0,0 +1,262 @@
+package io.github.mmm.event.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.mmm.event.EventBus;
+import io.github.mmm.event.EventListener;
+import io.github.mmm.event.OverflowPolicy;
+import io.github.mmm.event.StickyPolicy;
+import io.github.mmm.event.impl.AsyncEventBus.DispatchMode;
+
+/**
+ * Test of {@link AsyncEventBus}.
+ */
+public class AsyncEventBusTest extends EventBusTest {
+
+  /**
+   * @return the {@link EventBus} instance to test. Uses a direct {@link java.util.concurrent.Executor} so the generic
+   *         synchronous tests of {@link EventBusTest} apply.
+   */
+  @Override
+  protected EventBus getEventBus() {
+
+    return new AsyncEventBus(Runnable::run);
+  }
+
+  /**
+   * Tests {@link AsyncEventBus#ofVirtualThreads()} where a slow listener does not block other listeners and each
+   * listener receives the events in FIFO order.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  public void testVirtualThreadsPerListener() throws Exception {
+
+    // given
+    int eventCount = 100;
+    CountDownLatch blocker = new CountDownLatch(1);
+    List<Integer> slowEvents = Collections.synchronizedList(new ArrayList<>());
+    List<Integer> fastEvents = Collections.synchronizedList(new ArrayList<>());
+    CountDownLatch fastDone = new CountDownLatch(eventCount);
+    EventListener<Integer> slowListener = e -> {
+      await(blocker);
+      slowEvents.add(e);
+    };
+    EventListener<Integer> fastListener = e -> {
+      fastEvents.add(e);
+      fastDone.countDown();
+    };
+    try (AsyncEventBus eventBus = AsyncEventBus.ofVirtualThreads()) {
+      eventBus.addListener(Integer.class, slowListener);
+      eventBus.addListener(Integer.class, fastListener);
+
+      // when
+      for (int i = 0; i < eventCount; i++) {
+        eventBus.sendEvent(Integer.valueOf(i));
+      }
+
+      // then
+      assertThat(fastDone.await(10, TimeUnit.SECONDS)).isTrue();
+      assertThat(slowEvents).isEmpty();
+      assertThat(eventBus.drain(Duration.ofMillis(10))).isFalse();
+      blocker.countDown();
+      assertThat(eventBus.drain(Duration.ofSeconds(10))).isTrue();
+    }
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < eventCount; i++) {
+      expected.add(Integer.valueOf(i));
+    }
+    assertThat(fastEvents).isEqualTo(expected);
+    assertThat(slowEvents).isEqualTo(expected);
+  }
+
+  /**
+   * Tests that {@link AsyncEventBus#close(Duration)} processes pending events and rejects further events.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  public void testClose() throws Exception {
+
+    // given
+    AsyncEventBus eventBus = new AsyncEventBus();
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    eventBus.addListener(String.class, e -> events.add(e));
+    eventBus.sendEvent("a");
+    eventBus.sendEvent("b");
+
+    // when
+    boolean drained = eventBus.close(Duration.ofSeconds(10));
+
+    // then
+    assertThat(drained).isTrue();
+    assertThat(eventBus.isClosed()).isTrue();
+    assertThat(events).containsExactly("a", "b");
+    assertThatThrownBy(() -> eventBus.sendEvent("c")).isInstanceOf(IllegalStateException.class);
+  }
+
+  /**
+   * Tests the {@link OverflowPolicy overflow policies} of a bounded queue while dispatching is stalled.
+   */
+  @Test
+  public void testOverflowPolicies() {
+
+    assertThat(sendToFullQueue(OverflowPolicy.DROP_NEWEST)).containsExactly("a", "b");
+    assertThat(sendToFullQueue(OverflowPolicy.DROP_OLDEST)).containsExactly("c", "d");
+    assertThat(sendToFullQueue(OverflowPolicy.CALLER_RUNS)).containsExactly("c", "d", "a", "b");
+    assertThatThrownBy(() -> sendToFullQueue(OverflowPolicy.FAIL)).isInstanceOf(IllegalStateException.class);
+  }
+
+  private List<String> sendToFullQueue(OverflowPolicy policy) {
+
+    // given
+    Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    AsyncEventBus eventBus = new AsyncEventBus(tasks::add, DispatchMode.SERIAL, 2, policy);
+    List<String> events = new ArrayList<>();
+    eventBus.addListener(String.class, e -> events.add(e));
+
+    // when
+    eventBus.sendEvent("a");
+    eventBus.sendEvent("b");
+    boolean accepted = eventBus.trySendEvent("c");
+    if (!accepted) {
+      assertThat(eventBus.getRejectedEventCount()).isEqualTo(1L);
+      eventBus.sendEvent("c");
+    }
+    eventBus.sendEvent("d");
+    tasks.forEach(Runnable::run);
+
+    // then
+    if (policy.name().startsWith("DROP")) {
+      assertThat(eventBus.getDroppedEventCount()).isEqualTo(2L);
+    } else {
+      assertThat(eventBus.getDroppedEventCount()).isEqualTo(0L);
+    }
+    return events;
+  }
+
+  /**
+   * Tests that retained events of a {@link AsyncEventBus#setSticky(Class, StickyPolicy) sticky} type are delivered to
+   * a late {@link EventListener} via the dispatching of the bus and not in the {@link Thread} adding it.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  public void testSticky() throws Exception {
+
+    for (DispatchMode mode : DispatchMode.values()) {
+      // given
+      Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+      AsyncEventBus eventBus = new AsyncEventBus(tasks::add, mode);
+      eventBus.setSticky(String.class, StickyPolicy.last());
+      List<String> events = new ArrayList<>();
+      eventBus.sendEvent("a");
+      runAll(tasks);
+
+      // when
+      eventBus.addListener(String.class, events::add);
+      List<String> eventsAfterAdd = List.copyOf(events);
+      runAll(tasks);
+
+      // then
+      assertThat(eventsAfterAdd).isEmpty();
+      assertThat(events).containsExactly("a");
+      assertThat(eventBus.drain(Duration.ZERO)).isTrue();
+    }
+  }
+
+  /**
+   * Tests that a failing drain gives up its role and resubmits so the remaining events are still dispatched.
+   */
+  @Test
+  public void testDrainFailure() {
+
+    // given
+    Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    AsyncEventBus eventBus = new AsyncEventBus(tasks::add) {
+      @Override
+      protected void handleUndispatchedEvent(Object event) {
+
+        throw new IllegalStateException("Undispatched: " + event);
+      }
+    };
+    List<Object> events = new ArrayList<>();
+    eventBus.addListener(String.class, events::add);
+    eventBus.sendEvent(Integer.valueOf(1));
+    eventBus.sendEvent("a");
+
+    // when
+    assertThatThrownBy(() -> tasks.poll().run()).isInstanceOf(IllegalStateException.class);
+    runAll(tasks);
+    eventBus.sendEvent("b");
+    runAll(tasks);
+
+    // then
+    assertThat(events).containsExactly("a", "b");
+    assertThat(tasks).isEmpty();
+  }
+
+  /**
+   * Tests that an event queued before the {@link java.util.concurrent.Executor} rejected the dispatch is still
+   * dispatched and counted as pending exactly once.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  public void testRejectedExecution() throws Exception {
+
+    // given
+    Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    AtomicBoolean reject = new AtomicBoolean(true);
+    AsyncEventBus eventBus = new AsyncEventBus(task -> {
+      if (reject.getAndSet(false)) {
+        throw new RejectedExecutionException();
+      }
+      tasks.add(task);
+    });
+    List<Object> events = new ArrayList<>();
+    eventBus.addListener(String.class, events::add);
+
+    // when
+    assertThatThrownBy(() -> eventBus.sendEvent("a")).isInstanceOf(RejectedExecutionException.class);
+    eventBus.sendEvent("b");
+    runAll(tasks);
+    eventBus.sendEvent("c");
+
+    // then
+    assertThat(events).containsExactly("a", "b");
+    assertThat(eventBus.drain(Duration.ZERO)).isFalse();
+    runAll(tasks);
+    assertThat(eventBus.drain(Duration.ZERO)).isTrue();
+  }
+
+  private static void runAll(Queue<Runnable> tasks) {
+
+    Runnable task = tasks.poll();
+    while (task != null) {
+      task.run();
+      task = tasks.poll();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+}
@@ -2,14 +2,22 @@ package io.github.mmm.event.impl;
 
 import static org.junit.jupiter.api.Assertions.assertSame;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.LinkedList;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
 
 import io.github.mmm.base.exception.GlobalExceptionHandler;
+import io.github.mmm.event.BatchEventListener;
+import io.github.mmm.event.ChangeType;
 import io.github.mmm.event.EventBus;
 import io.github.mmm.event.EventListener;
+import io.github.mmm.event.KeyedEvent;
+import io.github.mmm.event.OverflowPolicy;
+import io.github.mmm.event.StickyPolicy;
+import io.github.mmm.event.Subscription;
 
 /**
  * Test of {@link EventBusImpl}.
@@ -25,6 +33,83 @@ public class EventBusImplTest extends EventBusTest {
     return new EventBusImpl();
   }
 
+  /**
+   * Tests that a {@link BatchEventListener} receives consecutive events of the same type at once.
+   */
+  @Test
+  public void testBatchListener() {
+
+    // given
+    EventBus eventBus = getEventBus();
+    List<List<String>> batches = new ArrayList<>();
+    List<Object> events = new ArrayList<>();
+    BatchEventListener<String> batchListener = batch -> batches.add(new ArrayList<>(batch));
+    eventBus.addListener(String.class, batchListener);
+    eventBus.addListener(Object.class, events::add);
+
+    // when
+    eventBus.sendEvents("a", "b", "c", Integer.valueOf(1), "d");
+    eventBus.sendEvent("e");
+
+    // then
+    assertThat(batches).containsExactly(List.of("a", "b", "c"), List.of("d"), List.of("e"));
+    assertThat(events).containsExactly("a", "b", "c", Integer.valueOf(1), "d", "e");
+  }
+
+  /**
+   * Tests {@link EventBus#addListener(Class, EventListener, boolean) weak listeners}.
+   */
+  @Test
+  public void testWeakListener() {
+
+    // given
+    EventBus eventBus = getEventBus();
+    List<String> events = new ArrayList<>();
+    EventListener<String> listener = events::add;
+    eventBus.addListener(String.class, listener, true);
+
+    // when
+    eventBus.sendEvent("a");
+    boolean removed = eventBus.removeListener(String.class, listener);
+    eventBus.sendEvent("b");
+
+    // then
+    assertThat(removed).isTrue();
+    assertThat(events).containsExactly("a");
+  }
+
+  /**
+   * Tests {@link EventBus#subscribe(Class, EventListener) subscriptions} and removing a listener from all event types.
+   */
+  @Test
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  public void testSubscription() {
+
+    // given
+    EventBus eventBus = getEventBus();
+    List<Object> events = new ArrayList<>();
+    EventListener<Object> listener = events::add;
+    EventListener<String> stringListener = events::add;
+    Subscription subscription = eventBus.subscribe(String.class, stringListener);
+    eventBus.addListener(Integer.class, (EventListener) listener);
+    eventBus.addListener(Long.class, (EventListener) listener);
+
+    // when
+    eventBus.sendEvent("a");
+    subscription.close();
+    subscription.close();
+    eventBus.sendEvent("b");
+    eventBus.sendEvent(Integer.valueOf(1));
+    boolean removed = eventBus.removeListener(null, listener);
+    eventBus.sendEvent(Integer.valueOf(2));
+    eventBus.sendEvent(Long.valueOf(3));
+
+    // then
+    assertThat(removed).isTrue();
+    assertThat(eventBus.removeListener(null, listener)).isFalse();
+    assertThat(events).containsExactly("a", Integer.valueOf(1));
+  }
+
   /**
    * Tests the error handling of {@link EventBusImpl}.
    */
@@ -71,4 +156,175 @@ public class EventBusImplTest extends EventBusTest {
     assertThat(errorList).hasSize(2);
   }
 
+  /**
+   * Tests that concurrent producers never strand events in the queue, that only a single thread is dispatching at a
+   * time and that the events of each producer are received in FIFO order.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  public void testConcurrentProducers() throws Exception {
+
+    // given
+    int producerCount = 8;
+    int eventsPerProducer = 5000;
+    EventBus eventBus = new EventBusImpl();
+    int[] lastReceived = new int[producerCount];
+    int[] concurrentDispatchers = new int[1];
+    int[] received = new int[1];
+    Arrays.fill(lastReceived, -1);
+    EventListener<int[]> listener = e -> {
+      if (++concurrentDispatchers[0] != 1) {
+        throw new IllegalStateException("Concurrent dispatching detected!");
+      }
+      int producer = e[0];
+      assertThat(e[1]).isEqualTo(lastReceived[producer] + 1);
+      lastReceived[producer] = e[1];
+      received[0]++;
+      concurrentDispatchers[0]--;
+    };
+    eventBus.addListener(int[].class, listener);
+    List<Thread> producers = new ArrayList<>();
+    for (int p = 0; p < producerCount; p++) {
+      int producer = p;
+      producers.add(new Thread(() -> {
+        for (int i = 0; i < eventsPerProducer; i++) {
+          eventBus.sendEvent(new int[] { producer, i });
+        }
+      }));
+    }
+
+    // when
+    producers.forEach(Thread::start);
+    for (Thread producer : producers) {
+      producer.join();
+    }
+
+    // then
+    assertThat(received[0]).isEqualTo(producerCount * eventsPerProducer);
+    for (int p = 0; p < producerCount; p++) {
+      assertThat(lastReceived[p]).isEqualTo(eventsPerProducer - 1);
+    }
+  }
+
+  /**
+   * Tests {@link EventBusImpl#setConflating(boolean) conflation} of {@link KeyedEvent}s still waiting in the queue.
+   */
+  @Test
+  public void testConflation() {
+
+    // given
+    EventBusImpl eventBus = new EventBusImpl();
+    eventBus.setConflating(true);
+    List<Object> events = new ArrayList<>();
+    eventBus.addListener(Price.class, events::add);
+    EventListener<String> producer = e -> {
+      // sent while dispatching so all events are queued
+      eventBus.sendEvent(new Price("A", 1, ChangeType.ADD));
+      eventBus.sendEvent(new Price("A", 2, ChangeType.UPDATE));
+      eventBus.sendEvent(new Price("B", 1, ChangeType.UPDATE));
+      eventBus.sendEvent(new Price("A", 3, ChangeType.UPDATE));
+      eventBus.sendEvent(new Price("A", 4, ChangeType.REMOVE));
+      eventBus.sendEvent(new Price("A", 5, ChangeType.UPDATE));
+      eventBus.sendEvent(new Price("B", 2, ChangeType.UPDATE));
+      eventBus.sendEvent(new Price("A", 6, ChangeType.UPDATE));
+    };
+    eventBus.addListener(String.class, producer);
+
+    // when
+    eventBus.sendEvent("start");
+
+    // then
+    assertThat(events).containsExactly(new Price("A", 1, ChangeType.ADD), new Price("A", 3, ChangeType.UPDATE),
+        new Price("B", 2, ChangeType.UPDATE), new Price("A", 4, ChangeType.REMOVE),
+        new Price("A", 6, ChangeType.UPDATE));
+    assertThat(eventBus.getConflatedEventCount()).isEqualTo(3);
+  }
+
+  /**
+   * Tests {@link EventBusImpl#setSticky(Class, StickyPolicy) sticky} event types delivered to late listeners.
+   */
+  @Test
+  public void testSticky() {
+
+    // given
+    EventBusImpl eventBus = new EventBusImpl();
+    eventBus.setSticky(String.class, StickyPolicy.last());
+    eventBus.setSticky(Integer.class, StickyPolicy.last(2));
+    eventBus.setSticky(Price.class, StickyPolicy.lastPerKey(2));
+    assertThat(eventBus.hasListeners(String.class)).isTrue();
+    eventBus.sendEvents("a", "b");
+    eventBus.sendEvents(Integer.valueOf(1), Integer.valueOf(2), Integer.valueOf(3));
+    eventBus.sendEvent(new Price("A", 1, ChangeType.ADD));
+    eventBus.sendEvent(new Price("B", 1, ChangeType.ADD));
+    eventBus.sendEvent(new Price("A", 2, ChangeType.UPDATE));
+    eventBus.sendEvent(new Price("C", 1, ChangeType.ADD));
+    eventBus.sendEvent(new Price("C", 2, ChangeType.REMOVE));
+    List<Object> strings = new ArrayList<>();
+    List<Object> numbers = new ArrayList<>();
+    List<Object> prices = new ArrayList<>();
+
+    // when
+    eventBus.addListener(String.class, strings::add);
+    eventBus.addListener(Number.class, numbers::add);
+    eventBus.addListener(Price.class, prices::add);
+    eventBus.sendEvent("c");
+
+    // then
+    assertThat(strings).containsExactly("b", "c");
+    assertThat(numbers).containsExactly(Integer.valueOf(2), Integer.valueOf(3));
+    // B was evicted by C as A was updated more recently, then C was removed
+    assertThat(prices).containsExactly(new Price("A", 2, ChangeType.UPDATE));
+    assertThat(eventBus.getStickyEvents(Object.class)).contains("c", Integer.valueOf(2), Integer.valueOf(3));
+    eventBus.setSticky(String.class, null);
+    assertThat(eventBus.getStickyEvents(String.class)).isEmpty();
+  }
+
+  /**
+   * Tests that the delivery of {@link EventBusImpl#setSticky(Class, StickyPolicy) sticky} events to listeners added
+   * during dispatch bypasses the {@link OverflowPolicy} and never reaches a {@link BatchEventListener}.
+   */
+  @Test
+  public void testStickyDeliveryDuringDispatch() {
+
+    // given
+    EventBusImpl eventBus = new EventBusImpl(1, OverflowPolicy.DROP_NEWEST);
+    eventBus.setSticky(String.class, StickyPolicy.last());
+    List<List<Object>> batches = new ArrayList<>();
+    BatchEventListener<Object> batchListener = batch -> batches.add(new ArrayList<>(batch));
+    eventBus.addListener(Object.class, batchListener);
+    eventBus.sendEvent("a");
+    List<String> late1 = new ArrayList<>();
+    List<String> late2 = new ArrayList<>();
+    eventBus.addListener(Long.class, event -> {
+      eventBus.sendEvent("b");
+      eventBus.addListener(String.class, late1::add);
+      eventBus.addListener(String.class, late2::add);
+    });
+
+    // when
+    eventBus.sendEvent(Long.valueOf(1));
+
+    // then
+    assertThat(late1).containsExactly("a", "b");
+    assertThat(late2).containsExactly("a", "b");
+    assertThat(batches).containsExactly(List.of("a"), List.of(Long.valueOf(1)), List.of("b"));
+    assertThat(eventBus.getDroppedEventCount()).isZero();
+  }
+
+  private static record Price(String key, int value, ChangeType type) implements KeyedEvent {
+
+    @Override
+    public Object getKey() {
+
+      return this.key;
+    }
+
+    @Override
+    public ChangeType getChangeType() {
+
+      return this.type;
+    }
+  }
+
 }
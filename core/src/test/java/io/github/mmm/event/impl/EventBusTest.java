@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.Disabled;
@@ -75,6 +76,121 @@ public abstract class EventBusTest extends Assertions {
     assertThat(removed).isFalse();
   }
 
+  /**
+   * Tests {@link EventBus#hasListeners(Class)}.
+   */
+  @Test
+  public void testHasListeners() {
+
+    // given
+    EventBus eventBus = getEventBus();
+    EventListener<CharSequence> listener = e -> {
+    };
+
+    // when + then
+    assertThat(eventBus.hasListeners(String.class)).isFalse();
+    eventBus.addListener(CharSequence.class, listener);
+    assertThat(eventBus.hasListeners(String.class)).isTrue();
+    assertThat(eventBus.hasListeners(Integer.class)).isFalse();
+    eventBus.removeListener(listener);
+    assertThat(eventBus.hasListeners(String.class)).isFalse();
+  }
+
+  /**
+   * Tests {@link EventBus#sendEvent(Class, java.util.function.Supplier)}.
+   */
+  @Test
+  public void testSendEventSupplier() {
+
+    // given
+    EventBus eventBus = getEventBus();
+    List<Object> events = new LinkedList<>();
+    AtomicInteger created = new AtomicInteger();
+    EventListener<String> listener = events::add;
+
+    // when + then
+    assertThat(eventBus.sendEvent(String.class, () -> "a" + created.incrementAndGet())).isFalse();
+    assertThat(created.get()).isEqualTo(0);
+    eventBus.addListener(String.class, listener);
+    assertThat(eventBus.sendEvent(String.class, () -> "b" + created.incrementAndGet())).isTrue();
+    assertThat(created.get()).isEqualTo(1);
+    assertThat(events).containsExactly("b1");
+  }
+
+  /**
+   * Tests that events are dispatched to listeners registered for super-classes and that listeners added or removed
+   * after an event type has already been dispatched are considered.
+   */
+  @Test
+  public void testHierarchy() {
+
+    // given
+    EventBus eventBus = getEventBus();
+    List<String> events = new LinkedList<>();
+    EventListener<Object> objectListener = e -> events.add("Object:" + e);
+    EventListener<Number> numberListener = e -> events.add("Number:" + e);
+    EventListener<Integer> integerListener = e -> events.add("Integer:" + e);
+    eventBus.addListener(Object.class, objectListener);
+    eventBus.addListener(Integer.class, integerListener);
+
+    // when + then
+    eventBus.sendEvent(Integer.valueOf(1));
+    assertThat(events).containsExactly("Integer:1", "Object:1");
+    events.clear();
+    eventBus.addListener(Number.class, numberListener);
+    eventBus.sendEvent(Integer.valueOf(2));
+    eventBus.sendEvent(Long.valueOf(3));
+    assertThat(events).containsExactly("Integer:2", "Number:2", "Object:2", "Number:3", "Object:3");
+    events.clear();
+    assertThat(eventBus.removeListener(Integer.class, integerListener)).isTrue();
+    eventBus.sendEvent(Integer.valueOf(4));
+    assertThat(events).containsExactly("Number:4", "Object:4");
+  }
+
+  /**
+   * Tests that events are dispatched to listeners registered for (generic) interfaces.
+   */
+  @Test
+  @SuppressWarnings({ "rawtypes", "unchecked" })
+  public void testInterface() {
+
+    // given
+    EventBus eventBus = getEventBus();
+    List<String> events = new LinkedList<>();
+    EventListener<CharSequence> charSequenceListener = e -> events.add("CharSequence:" + e);
+    EventListener comparableListener = e -> events.add("Comparable:" + e);
+    eventBus.addListener(CharSequence.class, charSequenceListener);
+    eventBus.addListener(Comparable.class, comparableListener);
+
+    // when
+    eventBus.sendEvent("foo");
+    eventBus.sendEvent(new StringBuilder("bar"));
+    eventBus.sendEvent(Integer.valueOf(42));
+
+    // then
+    assertThat(events).containsExactlyInAnyOrder("CharSequence:foo", "Comparable:foo", "CharSequence:bar",
+        "Comparable:bar", "Comparable:42");
+  }
+
+  /**
+   * Tests {@link EventBus#sendEvents(Object...)}.
+   */
+  @Test
+  public void testSendEvents() {
+
+    // given
+    EventBus eventBus = getEventBus();
+    List<Object> events = new LinkedList<>();
+    eventBus.addListener(Object.class, events::add);
+
+    // when
+    eventBus.sendEvents("a", Integer.valueOf(1), "b");
+    eventBus.sendEvents(List.of("c", "d"));
+
+    // then
+    assertThat(events).containsExactly("a", Integer.valueOf(1), "b", "c", "d");
+  }
+
   /**
    * Tests the event bus in a real concurrent usage scenario.
    *
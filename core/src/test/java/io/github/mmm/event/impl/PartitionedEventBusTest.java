@@ -0,0 +1,116 @@
+package io.github.mmm.event.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.Test;
+
+import io.github.mmm.event.EventBus;
+
+/**
+ * Test of {@link PartitionedEventBus}.
+ */
+public class PartitionedEventBusTest extends EventBusTest {
+
+  /**
+   * @return the {@link EventBus} instance to test. Uses a direct {@link java.util.concurrent.Executor} so the generic
+   *         synchronous tests of {@link EventBusTest} apply.
+   */
+  @Override
+  protected EventBus getEventBus() {
+
+    return new PartitionedEventBus(Runnable::run, 4);
+  }
+
+  /**
+   * Tests that events with the same key are received in FIFO order while being dispatched by multiple lanes.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  public void testPerKeyOrdering() throws Exception {
+
+    // given
+    int keyCount = 16;
+    int eventCount = 1000;
+    Map<Integer, List<Integer>> received = new ConcurrentHashMap<>();
+    Map<String, Boolean> lanes = new ConcurrentHashMap<>();
+    try (PartitionedEventBus eventBus = new PartitionedEventBus(4)) {
+      eventBus.setKeyExtractor(EntityEvent.class, EntityEvent::id);
+      eventBus.addListener(EntityEvent.class, e -> {
+        lanes.put(Thread.currentThread().getName(), Boolean.TRUE);
+        // only one lane dispatches events of the same key so no synchronization required
+        received.computeIfAbsent(Integer.valueOf(e.id()), k -> new ArrayList<>()).add(Integer.valueOf(e.sequence()));
+      });
+
+      // when
+      for (int i = 0; i < eventCount; i++) {
+        for (int id = 0; id < keyCount; id++) {
+          eventBus.sendEvent(new EntityEvent(id, i));
+        }
+      }
+
+      // then
+      assertThat(eventBus.drain(Duration.ofSeconds(10))).isTrue();
+    }
+    assertThat(received).hasSize(keyCount);
+    List<Integer> expected = new ArrayList<>();
+    for (int i = 0; i < eventCount; i++) {
+      expected.add(Integer.valueOf(i));
+    }
+    for (List<Integer> sequences : received.values()) {
+      assertThat(sequences).isEqualTo(expected);
+    }
+    assertThat(lanes.size()).isGreaterThan(1);
+  }
+
+  /**
+   * Tests that {@link PartitionedEventBus#trySendEvent(Object)} dispatches via the lanes and is rejected after
+   * {@link PartitionedEventBus#close()}.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  public void testTrySendEvent() throws Exception {
+
+    // given
+    List<String> events = new ArrayList<>();
+    PartitionedEventBus eventBus = new PartitionedEventBus(2);
+    eventBus.addListener(String.class, events::add);
+
+    // when
+    boolean accepted = eventBus.trySendEvent("a");
+    boolean drained = eventBus.drain(Duration.ofSeconds(10));
+    eventBus.close();
+    boolean rejected = !eventBus.trySendEvent("b");
+
+    // then
+    assertThat(accepted).isTrue();
+    assertThat(drained).isTrue();
+    assertThat(rejected).isTrue();
+    assertThat(events).containsExactly("a");
+  }
+
+  /**
+   * Tests that {@link PartitionedEventBus#sendEvent(Object)} is rejected after {@link PartitionedEventBus#close()}.
+   */
+  @Test
+  public void testClose() {
+
+    // given
+    PartitionedEventBus eventBus = new PartitionedEventBus(2);
+
+    // when
+    eventBus.close();
+
+    // then
+    assertThatThrownBy(() -> eventBus.sendEvent("event")).isInstanceOf(IllegalStateException.class);
+  }
+
+  private static record EntityEvent(int id, int sequence) {
+  }
+
+}
@@ -0,0 +1,144 @@
+package io.github.mmm.event.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.mmm.event.EventListener;
+import io.github.mmm.event.OverflowPolicy;
+import io.github.mmm.event.impl.RingBufferEventBus.WaitStrategy;
+
+/**
+ * Test of {@link RingBufferEventBus}.
+ */
+public class RingBufferEventBusTest extends Assertions {
+
+  /**
+   * Tests all {@link WaitStrategy strategies} with multiple producers and a small ring so producers have to wait for
+   * free slots.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  public void testWaitStrategies() throws Exception {
+
+    for (WaitStrategy waitStrategy : WaitStrategy.values()) {
+      checkProducers(waitStrategy);
+    }
+  }
+
+  private void checkProducers(WaitStrategy waitStrategy) throws Exception {
+
+    // given
+    int producerCount = 4;
+    int eventsPerProducer = 2000;
+    int[] lastReceived = new int[producerCount];
+    int[] received = new int[1];
+    RingBufferEventBus eventBus = new RingBufferEventBus(6, waitStrategy).start();
+    assertThat(eventBus.getCapacity()).isEqualTo(8);
+    assertThat(eventBus.getOverflowPolicy()).isSameAs(OverflowPolicy.BLOCK);
+    EventListener<int[]> listener = e -> {
+      assertThat(e[1]).isEqualTo(lastReceived[e[0]] + 1);
+      lastReceived[e[0]] = e[1];
+      received[0]++;
+    };
+    eventBus.addListener(int[].class, listener);
+    List<Thread> producers = new ArrayList<>();
+    for (int p = 0; p < producerCount; p++) {
+      int producer = p;
+      producers.add(new Thread(() -> {
+        for (int i = 1; i <= eventsPerProducer; i++) {
+          eventBus.sendEvent(new int[] { producer, i });
+        }
+      }));
+    }
+
+    // when
+    producers.forEach(Thread::start);
+    for (Thread producer : producers) {
+      producer.join();
+    }
+    eventBus.close();
+
+    // then
+    assertThat(received[0]).isEqualTo(producerCount * eventsPerProducer);
+    assertThatThrownBy(() -> eventBus.sendEvent(new int[] { 0, 0 })).isInstanceOf(IllegalStateException.class);
+  }
+
+  /**
+   * Tests {@link RingBufferEventBus#sendEvents(java.util.Collection)} with more events than the capacity of the ring.
+   */
+  @Test
+  public void testSendEvents() {
+
+    // given
+    List<Integer> events = Collections.synchronizedList(new ArrayList<>());
+    List<Integer> batch = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      batch.add(Integer.valueOf(i));
+    }
+    RingBufferEventBus eventBus = new RingBufferEventBus(4, WaitStrategy.PARKING).start();
+    eventBus.addListener(Integer.class, events::add);
+
+    // when
+    eventBus.sendEvents(batch);
+    eventBus.close();
+
+    // then
+    assertThat(events).isEqualTo(batch);
+  }
+
+  /**
+   * Tests that events sent before {@link RingBufferEventBus#start()} are kept in the ring and dispatched on
+   * {@link RingBufferEventBus#close()}.
+   */
+  @Test
+  public void testCloseWithoutStart() {
+
+    // given
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    RingBufferEventBus eventBus = new RingBufferEventBus(4, WaitStrategy.PARKING);
+    eventBus.addListener(String.class, events::add);
+    eventBus.sendEvents("a", "b");
+
+    // when
+    List<String> eventsBeforeClose = List.copyOf(events);
+    eventBus.close();
+
+    // then
+    assertThat(eventsBeforeClose).isEmpty();
+    assertThat(events).containsExactly("a", "b");
+  }
+
+  /**
+   * Tests that events sent from a listener are dispatched in FIFO order directly after the current event.
+   */
+  @Test
+  public void testReentrant() {
+
+    // given
+    List<String> events = Collections.synchronizedList(new ArrayList<>());
+    RingBufferEventBus eventBus = new RingBufferEventBus(2, WaitStrategy.BLOCKING).start();
+    EventListener<String> listener = e -> {
+      events.add(e);
+      if (e.length() < 3) {
+        for (int i = 0; i < 3; i++) {
+          eventBus.sendEvent(e + i);
+        }
+      }
+    };
+    eventBus.addListener(String.class, listener);
+
+    // when
+    eventBus.sendEvent("a");
+    eventBus.close();
+
+    // then
+    assertThat(events).containsExactly("a", "a0", "a1", "a2", "a00", "a01", "a02", "a10", "a11", "a12", "a20",
+        "a21", "a22");
+  }
+
+}
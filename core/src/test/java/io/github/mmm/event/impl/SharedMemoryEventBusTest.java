@@ -0,0 +1,77 @@
+package io.github.mmm.event.impl;
+
+import java.lang.invoke.MethodHandles;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.mmm.event.codec.EventCodecRegistry;
+import io.github.mmm.event.codec.RecordEventCodec;
+
+/**
+ * Test of {@link SharedMemoryEventBus}. The writer and the reader run in the same JVM but only share the ring file.
+ */
+public class SharedMemoryEventBusTest extends Assertions {
+
+  private static final EventCodecRegistry CODEC = new EventCodecRegistry().register(Price.class, 1, 0,
+      RecordEventCodec.of(Price.class, MethodHandles.lookup()));
+
+  /**
+   * Tests publishing events to a ring file and receiving them with another bus including wrapping around the ring.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  public void testPublishAndReceive() throws Exception {
+
+    // given
+    Path ringFile = Files.createTempFile("events", ".ring");
+    List<Object> localEvents = new CopyOnWriteArrayList<>();
+    List<Object> remoteEvents = new CopyOnWriteArrayList<>();
+    try (SharedMemoryEventBus writer = new SharedMemoryEventBus(CODEC);
+        SharedMemoryEventBus reader = new SharedMemoryEventBus(CODEC)) {
+      writer.addListener(Object.class, localEvents::add);
+      reader.addListener(Object.class, remoteEvents::add);
+      writer.publishTo(ringFile, SharedMemoryEventBus.MIN_CAPACITY, Price.class);
+      reader.receiveFrom(ringFile);
+
+      // when
+      writer.sendEvent("local only");
+      for (int i = 0; i < 300; i++) {
+        Price price = new Price("ACME", i);
+        writer.sendEvent(price);
+        // wait for each event so the reader is never overrun while the ring wraps around several times
+        awaitSize(remoteEvents, i + 1);
+      }
+
+      // then
+      assertThat(localEvents).hasSize(301).startsWith("local only");
+      assertThat(remoteEvents).hasSize(300).startsWith(new Price("ACME", 0)).endsWith(new Price("ACME", 299));
+      assertThat(reader.getOverrunCount()).isZero();
+      assertThatThrownBy(() -> new SharedMemoryEventBus(CODEC).publishTo(ringFile, SharedMemoryEventBus.MIN_CAPACITY))
+          .isInstanceOf(IllegalStateException.class);
+    } finally {
+      Files.delete(ringFile);
+    }
+  }
+
+  private static void awaitSize(List<Object> events, int size) throws InterruptedException {
+
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while ((events.size() < size) && (System.nanoTime() < deadline)) {
+      Thread.sleep(1);
+    }
+    if (events.size() < size) {
+      throw new IllegalStateException("Timeout waiting for " + size + " events but got " + events.size());
+    }
+  }
+
+  private static record Price(String symbol, double value) {
+  }
+
+}
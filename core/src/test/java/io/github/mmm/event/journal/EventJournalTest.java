@@ -0,0 +1,290 @@
+package io.github.mmm.event.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.mmm.event.codec.EventCodec;
+import io.github.mmm.event.impl.AsyncEventBus;
+import io.github.mmm.event.impl.EventBusImpl;
+
+/**
+ * Test of {@link EventJournal}.
+ */
+public class EventJournalTest extends Assertions {
+
+  private static final EventCodec<String> CODEC = new EventCodec<>() {
+
+    @Override
+    public void encode(String event, ByteBuffer buffer) {
+
+      buffer.put(event.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public String decode(ByteBuffer buffer) {
+
+      return StandardCharsets.UTF_8.decode(buffer).toString();
+    }
+  };
+
+  /**
+   * Tests appending and replaying events across multiple segments and re-opening the journal.
+   *
+   * @throws IOException on error.
+   */
+  @Test
+  public void testAppendAndReplay() throws IOException {
+
+    Path directory = Files.createTempDirectory("journal");
+    try {
+      // given
+      List<Object> events = new ArrayList<>();
+      try (EventJournal journal = new EventJournal(directory, CODEC, 32, FsyncPolicy.ON_ROLL, 0)) {
+        for (int i = 0; i < 10; i++) {
+          assertThat(journal.append("event" + i)).isEqualTo(i);
+        }
+      }
+
+      // when
+      try (EventJournal journal = new EventJournal(directory, CODEC, 32, FsyncPolicy.ON_ROLL, 0)) {
+        assertThat(journal.getNextSequence()).isEqualTo(10);
+        assertThat(journal.append("event10")).isEqualTo(10);
+        long count = journal.replay(7, events::add);
+
+        // then
+        assertThat(count).isEqualTo(4);
+        assertThat(events).containsExactly("event7", "event8", "event9", "event10");
+        assertThatThrownBy(() -> journal.append("event that is too large for a segment"))
+            .isInstanceOf(IllegalArgumentException.class);
+      }
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Tests that the garbage of an event that failed to encode is not misread as record after re-opening the journal.
+   *
+   * @throws IOException on error.
+   */
+  @Test
+  public void testFailedEncode() throws IOException {
+
+    Path directory = Files.createTempDirectory("journal");
+    EventCodec<String> failingCodec = new EventCodec<>() {
+
+      @Override
+      public void encode(String event, ByteBuffer buffer) {
+
+        if (event.equals("fail")) {
+          for (int i = 0; i < 4; i++) {
+            buffer.putInt(1);
+          }
+          throw new IllegalStateException("Failed to encode " + event);
+        }
+        CODEC.encode(event, buffer);
+      }
+
+      @Override
+      public String decode(ByteBuffer buffer) {
+
+        return CODEC.decode(buffer);
+      }
+    };
+    try {
+      // given
+      try (EventJournal journal = new EventJournal(directory, failingCodec, 4096, FsyncPolicy.ON_ROLL, 0)) {
+        journal.append("a");
+        assertThatThrownBy(() -> journal.append("fail")).isInstanceOf(IllegalStateException.class);
+        journal.append("b");
+      }
+      List<Object> events = new ArrayList<>();
+
+      // when
+      try (EventJournal journal = new EventJournal(directory, failingCodec, 4096, FsyncPolicy.ON_ROLL, 0)) {
+        long count = journal.replay(0, events::add);
+
+        // then
+        assertThat(count).isEqualTo(2);
+        assertThat(events).containsExactly("a", "b");
+        assertThat(journal.getNextSequence()).isEqualTo(2);
+      }
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Tests the retention of segments.
+   *
+   * @throws IOException on error.
+   */
+  @Test
+  public void testRetention() throws IOException {
+
+    Path directory = Files.createTempDirectory("journal");
+    try (EventJournal journal = new EventJournal(directory, CODEC, 32, FsyncPolicy.NEVER, 2)) {
+      // given
+      List<Object> events = new ArrayList<>();
+      for (int i = 0; i < 10; i++) {
+        journal.append("event" + i);
+      }
+
+      // when
+      journal.replay(0, events::add);
+
+      // then
+      assertThat(journal.getFirstSequence()).isEqualTo(6);
+      assertThat(events).containsExactly("event6", "event7", "event8", "event9");
+      try (Stream<Path> files = Files.list(directory)) {
+        assertThat(files.count()).isEqualTo(2);
+      }
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Tests {@link io.github.mmm.event.AbstractEventBus#setJournal(EventJournal) journaling} of an event bus and
+   * {@link io.github.mmm.event.AbstractEventBus#replay(long) replaying} the events after a restart.
+   *
+   * @throws IOException on error.
+   */
+  @Test
+  public void testEventBus() throws IOException {
+
+    Path directory = Files.createTempDirectory("journal");
+    try {
+      // given
+      try (EventJournal journal = new EventJournal(directory, CODEC)) {
+        EventBusImpl eventBus = new EventBusImpl();
+        eventBus.setJournal(journal);
+        eventBus.sendEvents("a", "b", "c");
+      }
+      List<String> events = new ArrayList<>();
+
+      // when
+      try (EventJournal journal = new EventJournal(directory, CODEC)) {
+        EventBusImpl eventBus = new EventBusImpl();
+        eventBus.setJournal(journal);
+        eventBus.addListener(String.class, events::add);
+        long count = eventBus.replay(0);
+
+        // then
+        assertThat(count).isEqualTo(3);
+        assertThat(events).containsExactly("a", "b", "c");
+        assertThat(journal.getNextSequence()).isEqualTo(3);
+      }
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Tests that {@link io.github.mmm.event.AbstractEventBus#replay(long) replayed} events pass the queue of an
+   * {@link AsyncEventBus} like any other event so {@link AsyncEventBus#drain(Duration) drain} waits for them.
+   *
+   * @throws Exception on error.
+   */
+  @Test
+  public void testReplayAsync() throws Exception {
+
+    Path directory = Files.createTempDirectory("journal");
+    try {
+      // given
+      try (EventJournal journal = new EventJournal(directory, CODEC)) {
+        journal.append("a");
+        journal.append("b");
+      }
+      Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+      List<String> events = new ArrayList<>();
+
+      try (EventJournal journal = new EventJournal(directory, CODEC)) {
+        AsyncEventBus eventBus = new AsyncEventBus(tasks::add);
+        eventBus.setJournal(journal);
+        eventBus.addListener(String.class, events::add);
+
+        // when
+        long count = eventBus.replay(0);
+        boolean drainedBeforeDispatch = eventBus.drain(Duration.ofMillis(1));
+        tasks.forEach(Runnable::run);
+
+        // then
+        assertThat(count).isEqualTo(2);
+        assertThat(drainedBeforeDispatch).isFalse();
+        assertThat(events).containsExactly("a", "b");
+        assertThat(eventBus.close(Duration.ofSeconds(1))).isTrue();
+        assertThat(journal.getNextSequence()).isEqualTo(2);
+      }
+    } finally {
+      delete(directory);
+    }
+  }
+
+  /**
+   * Tests that an event failing to be {@link EventCodec#encode(Object, ByteBuffer) encoded} leaves no partial record
+   * behind.
+   *
+   * @throws IOException on error.
+   */
+  @Test
+  public void testEncodeFailure() throws IOException {
+
+    Path directory = Files.createTempDirectory("journal");
+    EventCodec<String> codec = new EventCodec<>() {
+
+      @Override
+      public void encode(String event, ByteBuffer buffer) {
+
+        CODEC.encode(event, buffer);
+        if (event.equals("fail")) {
+          throw new IllegalArgumentException(event);
+        }
+      }
+
+      @Override
+      public String decode(ByteBuffer buffer) {
+
+        return CODEC.decode(buffer);
+      }
+    };
+    try (EventJournal journal = new EventJournal(directory, codec)) {
+      // given
+      List<Object> events = new ArrayList<>();
+      journal.append("a");
+
+      // when
+      assertThatThrownBy(() -> journal.append("fail")).isInstanceOf(IllegalArgumentException.class);
+      journal.append("b");
+      journal.replay(0, events::add);
+
+      // then
+      assertThat(events).containsExactly("a", "b");
+    } finally {
+      delete(directory);
+    }
+  }
+
+  private static void delete(Path directory) throws IOException {
+
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+
+}
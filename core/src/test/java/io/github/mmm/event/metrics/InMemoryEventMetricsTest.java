@@ -0,0 +1,100 @@
+package io.github.mmm.event.metrics;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.mmm.event.EventListener;
+import io.github.mmm.event.impl.EventBusImpl;
+import io.github.mmm.event.metrics.InMemoryEventMetrics.EventTypeSnapshot;
+import io.github.mmm.event.metrics.InMemoryEventMetrics.Snapshot;
+
+/**
+ * Test of {@link InMemoryEventMetrics} and {@link LatencyHistogram}.
+ */
+public class InMemoryEventMetricsTest extends Assertions {
+
+  /**
+   * Tests {@link InMemoryEventMetrics} observing an {@link EventBusImpl}.
+   */
+  @Test
+  public void testEventBus() {
+
+    // given
+    InMemoryEventMetrics metrics = new InMemoryEventMetrics();
+    // errors are ignored by the handler (anonymous sub-class as the constructor is protected)
+    EventBusImpl eventBus = new EventBusImpl((event, error) -> {
+    }) {
+    };
+    eventBus.setMetrics(metrics);
+    EventListener<String> listener = e -> {
+      if (e.isEmpty()) {
+        throw new IllegalArgumentException();
+      }
+    };
+    eventBus.addListener(String.class, listener);
+
+    // when
+    eventBus.sendEvents("a", "b", "");
+    eventBus.sendEvent(Integer.valueOf(42));
+
+    // then
+    Snapshot snapshot = metrics.snapshot();
+    assertThat(snapshot.getEventType(String.class)).isEqualTo(new EventTypeSnapshot(3, 2, 1, 1));
+    assertThat(snapshot.getEventType(Integer.class)).isEqualTo(new EventTypeSnapshot(1, 0, 1, 0));
+    assertThat(snapshot.listenerLatencies().get(listener.getClass()).getCount()).isEqualTo(2L);
+    assertThat(snapshot.drainSizes().getCount()).isEqualTo(2L);
+    assertThat(snapshot.drainSizes().getMax()).isEqualTo(3L);
+    assertThat(snapshot.queueDepth()).isEqualTo(0);
+  }
+
+  /**
+   * Tests that the queue depth is reported per event bus and unregistered when the metrics are reset.
+   */
+  @Test
+  public void testQueueRegistration() {
+
+    // given
+    InMemoryEventMetrics metrics = new InMemoryEventMetrics();
+    EventBusImpl eventBus1 = new EventBusImpl();
+    EventBusImpl eventBus2 = new EventBusImpl();
+
+    // when
+    eventBus1.setMetrics(metrics);
+    eventBus1.setMetrics(metrics);
+    eventBus2.setMetrics(metrics);
+    Snapshot registered = metrics.snapshot();
+    eventBus1.setMetrics(null);
+    eventBus2.setMetrics(new InMemoryEventMetrics());
+
+    // then
+    assertThat(registered.queueDepths()).containsOnlyKeys(eventBus1, eventBus2);
+    assertThat(metrics.snapshot().queueDepths()).isEmpty();
+  }
+
+  /**
+   * Tests the percentiles of {@link LatencyHistogram}.
+   */
+  @Test
+  public void testHistogram() {
+
+    // given
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    // when
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+
+    // then
+    LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+    assertThat(snapshot.getCount()).isEqualTo(1000L);
+    assertThat(snapshot.getMax()).isEqualTo(1000000L);
+    assertThat(snapshot.getMean()).isEqualTo(500500.0);
+    assertThat(snapshot.getValueAtPercentile(50)).isBetween(500000L, 535000L);
+    assertThat(snapshot.getValueAtPercentile(99)).isBetween(990000L, 1000000L);
+    assertThat(snapshot.getValueAtPercentile(100)).isEqualTo(1000000L);
+    assertThat(LatencyHistogram.getBucketUpperBound(LatencyHistogram.getBucketIndex(Long.MAX_VALUE)))
+        .isEqualTo(Long.MAX_VALUE);
+  }
+
+}